@@ -0,0 +1,73 @@
+package org.cdpg.dx.jmh;
+
+import io.vertx.core.Future;
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.User;
+import io.vertx.ext.web.RoutingContext;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Stand-ins for what a handler gets from Vert.x, so the production request builders and response
+ * writers can be benchmarked without a server. Anything not set up here answers with the proxy
+ * itself, a succeeded future or a default value.
+ */
+final class Contexts {
+  private Contexts() {}
+
+  /** A routing context for a request with this body, query parameters and user. */
+  static RoutingContext routingContext(
+      JsonObject body, MultiMap params, User user, HttpServerResponse response) {
+    HttpServerRequest request = proxy(HttpServerRequest.class, (method, args) ->
+        method.getName().equals("params") ? params : null);
+    return proxy(RoutingContext.class, (method, args) -> switch (method.getName()) {
+      case "getBodyAsJson" -> body;
+      case "queryParams" -> params;
+      case "request" -> request;
+      case "response" -> response;
+      case "user" -> user;
+      default -> null;
+    });
+  }
+
+  /**
+   * A response that accepts everything written to it and drops it, so only the encoding done by
+   * the writer is measured.
+   */
+  static HttpServerResponse discardingResponse() {
+    return proxy(HttpServerResponse.class, (method, args) -> null);
+  }
+
+  private interface Answers {
+    /** The answer to a call, or {@code null} for the default one. */
+    Object answer(Method method, Object[] args);
+  }
+
+  private static <T> T proxy(Class<T> type, Answers answers) {
+    return type.cast(Proxy.newProxyInstance(
+        type.getClassLoader(),
+        new Class<?>[] {type},
+        (proxy, method, args) -> {
+          Object answer = answers.answer(method, args);
+          if (answer != null) {
+            return answer;
+          }
+          Class<?> returnType = method.getReturnType();
+          if (returnType == type) {
+            return proxy;
+          } else if (returnType == Future.class) {
+            return Future.succeededFuture();
+          } else if (returnType == boolean.class) {
+            return false;
+          } else if (returnType == int.class) {
+            return 0;
+          } else if (returnType == long.class) {
+            return 0L;
+          }
+          return null;
+        }));
+  }
+}
@@ -0,0 +1,73 @@
+package org.cdpg.dx.jmh;
+
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonObject;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.cdpg.dx.tgdex.item.model.Item;
+import org.cdpg.dx.tgdex.item.util.ItemFactory;
+import org.cdpg.dx.tgdex.validator.Validator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Accepting an item write: validating the body against the schema of its type and parsing it
+ * into the item model, for each item type.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemBenchmark {
+  private static final Map<String, String> SCHEMAS = Map.of(
+      "item-ai-model", "/adexAiModelItemSchema.json",
+      "item-data-bank", "/adexDataBankResourceItemSchema.json",
+      "item-apps", "/adexAppsItemSchema.json");
+
+  @Param({"item-ai-model", "item-data-bank", "item-apps"})
+  public String payload;
+
+  private JsonObject item;
+  private String encodedItem;
+  private Validator validator;
+
+  @Setup
+  public void setUp() throws Exception {
+    item = Payloads.load(payload);
+    encodedItem = item.encode();
+    validator = new Validator(SCHEMAS.get(payload));
+    // a payload that stopped matching its schema would only measure the error path
+    Future<String> valid = validator.validate(item);
+    if (valid.failed()) {
+      throw new IllegalStateException(payload + " is not a valid item: " + valid.cause());
+    }
+    ItemFactory.parse(item);
+  }
+
+  @Benchmark
+  public Future<String> validate() {
+    return validator.validate(item);
+  }
+
+  /** Validation from the encoded body, as {@code ValidatorService} callers hand it over. */
+  @Benchmark
+  public Future<String> validateEncoded() {
+    return validator.validate(encodedItem);
+  }
+
+  @Benchmark
+  public Item parse() {
+    return ItemFactory.parse(item);
+  }
+}
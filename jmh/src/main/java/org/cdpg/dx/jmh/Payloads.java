@@ -0,0 +1,46 @@
+package org.cdpg.dx.jmh;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.User;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import org.cdpg.dx.common.request.PostSearchRequestBuilder;
+import org.cdpg.dx.database.elastic.model.QueryDecoderRequestDTO;
+
+import static org.cdpg.dx.database.elastic.util.Constants.PAGE_KEY;
+import static org.cdpg.dx.database.elastic.util.Constants.SIZE_KEY;
+
+/** Request bodies the benchmarks run against, kept under {@code payloads/} on the classpath. */
+final class Payloads {
+  static final String SUB = "8b95ab80-2aaf-4636-a65e-7f2563d0d371";
+
+  private Payloads() {}
+
+  static JsonObject load(String name) {
+    try (InputStream in = Payloads.class.getResourceAsStream("/payloads/" + name + ".json")) {
+      if (in == null) {
+        throw new IllegalArgumentException("No payload named " + name);
+      }
+      return new JsonObject(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Builds the decoder request for a {@code POST /search} body with {@link
+   * PostSearchRequestBuilder}, as a signed-in user asking for this page.
+   */
+  static QueryDecoderRequestDTO searchRequest(JsonObject body, int size, int page) {
+    MultiMap params = MultiMap.caseInsensitiveMultiMap()
+        .add(SIZE_KEY, String.valueOf(size))
+        .add(PAGE_KEY, String.valueOf(page));
+    User user = User.create(new JsonObject().put("sub", SUB));
+    return PostSearchRequestBuilder.fromRoutingContext(
+            Contexts.routingContext(body, params, user, null))
+        .build();
+  }
+}
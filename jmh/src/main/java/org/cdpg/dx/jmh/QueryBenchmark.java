@@ -0,0 +1,76 @@
+package org.cdpg.dx.jmh;
+
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import io.vertx.core.json.JsonObject;
+import java.util.concurrent.TimeUnit;
+import org.cdpg.dx.database.elastic.model.QueryDecoder;
+import org.cdpg.dx.database.elastic.model.QueryDecoderRequestDTO;
+import org.cdpg.dx.database.elastic.model.QueryModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Building a search: decoding the request into a {@link QueryModel}, carrying that model over the
+ * event bus (its {@code QueryModelConverter} round trip) and turning it into an Elasticsearch
+ * query on the other side.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QueryBenchmark {
+  @Param({"search-text", "search-criteria", "search-complex"})
+  public String payload;
+
+  private QueryDecoderRequestDTO request;
+  private QueryModel queryModel;
+  private JsonObject queryJson;
+  // what the Elasticsearch service works on: the model after it has crossed the event bus
+  private QueryModel received;
+
+  @Setup
+  public void setUp() {
+    request = Payloads.searchRequest(Payloads.load(payload), 100, 1);
+    queryModel = new QueryDecoder().getQueryModel(request);
+    queryJson = queryModel.toJson();
+    received = new QueryModel(queryJson);
+  }
+
+  @Benchmark
+  public QueryModel decode() {
+    return new QueryDecoder().getQueryModel(request);
+  }
+
+  @Benchmark
+  public JsonObject toJson() {
+    return queryModel.toJson();
+  }
+
+  @Benchmark
+  public QueryModel fromJson() {
+    return new QueryModel(queryJson);
+  }
+
+  @Benchmark
+  public Query toElasticsearchQuery() {
+    return received.getQueries().toElasticsearchQuery();
+  }
+
+  /** The whole path from request to Elasticsearch query, as one search pays for it. */
+  @Benchmark
+  public Query decodeToElasticsearchQuery() {
+    QueryModel model = new QueryDecoder().getQueryModel(request);
+    return new QueryModel(model.toJson()).getQueries().toElasticsearchQuery();
+  }
+}
@@ -0,0 +1,101 @@
+package org.cdpg.dx.jmh;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.RoutingContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.cdpg.dx.common.response.ResponseBuilder;
+import org.cdpg.dx.common.response.StreamingResponseWriter;
+import org.cdpg.dx.database.elastic.model.ElasticsearchResponse;
+import org.cdpg.dx.database.elastic.model.ElasticsearchSearchResult;
+import org.cdpg.dx.tgdex.apiserver.ApiServerVerticle;
+import org.cdpg.dx.tgdex.search.util.ResponseModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Turning a page of search hits into a response: rebuilding the result that crossed the event bus,
+ * wrapping it in a {@link ResponseModel} and sending the body with {@link ResponseBuilder}, both
+ * encoded in one go and streamed chunk by chunk by {@link StreamingResponseWriter}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseBenchmark {
+  @Param({"10", "100", "1000"})
+  public int hits;
+
+  private JsonObject resultJson;
+  private ElasticsearchSearchResult result;
+  private ResponseModel responseModel;
+  private HttpServerResponse response;
+  private RoutingContext context;
+
+  @Setup
+  public void setUp() {
+    ApiServerVerticle.configureJsonCodec();
+
+    JsonObject item = Payloads.load("item-data-bank");
+    List<ElasticsearchResponse> page = new ArrayList<>(hits);
+    for (int i = 0; i < hits; i++) {
+      String id = UUID.randomUUID().toString();
+      JsonObject source = item.copy()
+          .put("id", id)
+          .put("name", item.getString("name") + "-" + i)
+          .put("itemCreatedAt", "2025-04-30T10:15:30+0530")
+          .put("itemStatus", "ACTIVE");
+      page.add(new ElasticsearchResponse(id, source));
+    }
+    result = new ElasticsearchSearchResult();
+    result.setHits(page);
+    result.setTotalHits(hits * 10);
+    result.setTook(3);
+    resultJson = result.toJson();
+    responseModel = new ResponseModel(result, hits, 1);
+    response = Contexts.discardingResponse();
+    context = Contexts.routingContext(
+        null, MultiMap.caseInsensitiveMultiMap(), null, response);
+  }
+
+  @Benchmark
+  public ElasticsearchSearchResult decodeResult() {
+    return new ElasticsearchSearchResult(resultJson);
+  }
+
+  @Benchmark
+  public ResponseModel responseModel() {
+    return new ResponseModel(result, hits, 1);
+  }
+
+  @Benchmark
+  public HttpServerResponse encode() {
+    ResponseBuilder.sendSuccess(
+        context, responseModel.getElasticsearchResponses(), responseModel.getPaginationInfo(),
+        responseModel.getTotalHits());
+    return response;
+  }
+
+  @Benchmark
+  public HttpServerResponse encodeStreamed() {
+    ResponseBuilder.streamSuccess(
+        context, responseModel.getElasticsearchResponses(), responseModel.getPaginationInfo(),
+        responseModel.getTotalHits());
+    return response;
+  }
+}
@@ -0,0 +1,133 @@
+package org.cdpg.dx.loadtest;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpHeaders;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Sends requests on a fixed schedule regardless of how fast responses come back (an open model),
+ * which is how independent clients behave and what lets a run find the rate a server can no
+ * longer keep up with. Operations are interleaved evenly according to their weights.
+ */
+final class ArrivalDriver {
+  private final HttpClient client;
+  private final Map<Operation, Buffer> bodies;
+  private final Map<Operation, String> authorization;
+  private final Operation[] schedule;
+  private final AtomicLong inFlight = new AtomicLong();
+
+  ArrivalDriver(HttpClient client, Map<Operation, Buffer> bodies,
+                Map<Operation, String> authorization, Map<Operation, Integer> mix) {
+    this.client = client;
+    this.bodies = bodies;
+    this.authorization = authorization;
+    this.schedule = interleave(mix);
+  }
+
+  /**
+   * Offers {@code rate} requests per second for the warmup and then the measured duration, and
+   * waits up to {@code drainTimeout} for the requests still in flight.
+   */
+  Step run(double rate, long warmupNanos, long durationNanos, long drainTimeoutNanos) {
+    Map<Operation, OperationStats> warmup = newStats();
+    Map<Operation, OperationStats> measured = newStats();
+    long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+    long start = System.nanoTime();
+    long measureFrom = start + warmupNanos;
+    long end = measureFrom + durationNanos;
+    long sent = 0;
+
+    for (long i = 0; ; i++) {
+      long intended = start + i * periodNanos;
+      if (intended >= end) {
+        break;
+      }
+      long wait = intended - System.nanoTime();
+      if (wait > 0) {
+        LockSupport.parkNanos(wait);
+      }
+      Operation operation = schedule[(int) (i % schedule.length)];
+      boolean isMeasured = intended >= measureFrom;
+      send(operation, intended, (isMeasured ? measured : warmup).get(operation));
+      if (isMeasured) {
+        sent++;
+      }
+    }
+
+    long drainDeadline = System.nanoTime() + drainTimeoutNanos;
+    while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+      LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+    }
+    Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+    measured.forEach((operation, stats) -> histograms.put(operation, stats.takeHistogram()));
+    return new Step(rate, durationNanos, sent, inFlight.get(), measured, histograms);
+  }
+
+  private void send(Operation operation, long intended, OperationStats stats) {
+    inFlight.incrementAndGet();
+    client.request(operation.method, operation.uri)
+        .compose(request -> {
+          request.putHeader(HttpHeaders.CONTENT_TYPE, "application/json");
+          String token = authorization.get(operation);
+          if (token != null) {
+            request.putHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+          }
+          return request.send(bodies.get(operation));
+        })
+        .compose(response -> response.body().map(body -> response))
+        .onComplete(ar -> {
+          inFlight.decrementAndGet();
+          if (ar.succeeded()) {
+            HttpClientResponse response = ar.result();
+            int status = response.statusCode();
+            stats.record(intended, String.valueOf(status), status >= 200 && status < 300);
+          } else {
+            stats.record(intended, ar.cause().getClass().getSimpleName(), false);
+          }
+        });
+  }
+
+  private static Map<Operation, OperationStats> newStats() {
+    Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    for (Operation operation : Operation.values()) {
+      stats.put(operation, new OperationStats());
+    }
+    return stats;
+  }
+
+  /**
+   * Spreads the operations over a cycle as evenly as their weights allow (smooth weighted round
+   * robin), so a mix of 3:1 sends {@code a a b a}, not {@code a a a b}.
+   */
+  private static Operation[] interleave(Map<Operation, Integer> mix) {
+    int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+    Map<Operation, Integer> current = new EnumMap<>(Operation.class);
+    List<Operation> cycle = new ArrayList<>(total);
+    for (int i = 0; i < total; i++) {
+      Operation next = null;
+      for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+        int value = current.merge(entry.getKey(), entry.getValue(), Integer::sum);
+        if (next == null || value > current.get(next)) {
+          next = entry.getKey();
+        }
+      }
+      current.merge(next, -total, Integer::sum);
+      cycle.add(next);
+    }
+    return cycle.toArray(new Operation[0]);
+  }
+
+  /** The outcome of one offered rate. */
+  record Step(double rate, long durationNanos, long sent, long unfinished,
+              Map<Operation, OperationStats> stats, Map<Operation, Histogram> histograms) {
+  }
+}
@@ -0,0 +1,225 @@
+package org.cdpg.dx.loadtest;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Stands in for the Elasticsearch cluster during a load test. It answers the calls the Java client
+ * makes for the catalogue APIs with canned responses after a configurable delay, so the server can
+ * be measured without a live cluster:
+ *
+ * <ul>
+ *   <li>{@code _search}: as many copies of the sample document as the request asks for, capped
+ *       by {@code hits}, plus a bucket list for every {@code terms} aggregation
+ *   <li>{@code _count}, {@code _msearch} (no matches, so item writes never see a duplicate),
+ *       {@code _bulk} (every action succeeds) and opening and closing points in time
+ * </ul>
+ *
+ * <p>Config: {@code port}, {@code latencyMs}, {@code jitterMs}, {@code hits} and
+ * {@code totalHits}.
+ */
+public class FakeElasticsearch extends AbstractVerticle {
+  private static final Logger LOGGER = LogManager.getLogger(FakeElasticsearch.class);
+  private static final List<String> ITEM_TYPES =
+      List.of("adex:DataBank", "adex:AiModel", "adex:Apps");
+  private static final JsonObject SHARDS =
+      new JsonObject().put("total", 1).put("successful", 1).put("skipped", 0).put("failed", 0);
+
+  private long latencyMs;
+  private long jitterMs;
+  private int maxHits;
+  private int totalHits;
+  private JsonObject document;
+  // search responses only differ by their size, so each size is encoded once
+  private final Map<Integer, Buffer> searchResponses = new ConcurrentHashMap<>();
+
+  @Override
+  public void start(Promise<Void> startPromise) {
+    latencyMs = config().getLong("latencyMs", 5L);
+    jitterMs = config().getLong("jitterMs", 0L);
+    maxHits = config().getInteger("hits", 20);
+    totalHits = config().getInteger("totalHits", 1000);
+    document = Payloads.load("item");
+
+    vertx.createHttpServer()
+        .requestHandler(request -> request.body()
+            .onSuccess(body -> respondLater(request, body))
+            .onFailure(err -> request.response().setStatusCode(400).end()))
+        .listen(config().getInteger("port", 9200))
+        .<Void>mapEmpty()
+        .onComplete(startPromise);
+  }
+
+  private void respondLater(HttpServerRequest request, Buffer body) {
+    long delay = latencyMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs + 1) : 0);
+    if (delay <= 0) {
+      respond(request, body);
+    } else {
+      vertx.setTimer(delay, id -> respond(request, body));
+    }
+  }
+
+  private void respond(HttpServerRequest request, Buffer body) {
+    String path = request.path();
+    Buffer response;
+    try {
+      if (path.endsWith("/_search")) {
+        response = search(body);
+      } else if (path.endsWith("/_count")) {
+        response = new JsonObject().put("count", totalHits).put("_shards", SHARDS).toBuffer();
+      } else if (path.endsWith("/_msearch")) {
+        response = multiSearch(body);
+      } else if (path.endsWith("/_bulk")) {
+        response = bulk(body);
+      } else if (path.endsWith("/_pit")) {
+        response = request.method() == HttpMethod.DELETE
+            ? new JsonObject().put("succeeded", true).put("num_freed", 1).toBuffer()
+            : new JsonObject().put("id", UUID.randomUUID().toString()).toBuffer();
+      } else {
+        LOGGER.warn("No canned response for {} {}", request.method(), request.uri());
+        reply(request, 404, new JsonObject()
+            .put("error", new JsonObject().put("type", "resource_not_found_exception")
+                .put("reason", "not faked: " + path))
+            .put("status", 404)
+            .toBuffer());
+        return;
+      }
+    } catch (RuntimeException e) {
+      LOGGER.error("Could not answer {} {}: {}", request.method(), request.uri(), e.getMessage());
+      reply(request, 500, new JsonObject()
+          .put("error", new JsonObject().put("type", "exception").put("reason", e.getMessage()))
+          .put("status", 500)
+          .toBuffer());
+      return;
+    }
+    reply(request, 200, response);
+  }
+
+  private void reply(HttpServerRequest request, int status, Buffer body) {
+    request.response()
+        .setStatusCode(status)
+        // the Java client refuses responses that do not claim to come from Elasticsearch
+        .putHeader("X-Elastic-Product", "Elasticsearch")
+        .putHeader("Content-Type", "application/json")
+        .end(body);
+  }
+
+  private Buffer search(Buffer body) {
+    JsonObject request = body.length() == 0 ? new JsonObject() : body.toJsonObject();
+    JsonObject aggregations = request.getJsonObject("aggregations", request.getJsonObject("aggs"));
+    int size = Math.min(request.getInteger("size", 10), maxHits);
+    if (aggregations == null) {
+      return searchResponses.computeIfAbsent(size, s -> searchResponse(s, null).toBuffer());
+    }
+    return searchResponse(size, aggregations).toBuffer();
+  }
+
+  private JsonObject searchResponse(int size, JsonObject aggregations) {
+    JsonArray hits = new JsonArray();
+    for (int i = 0; i < size; i++) {
+      String id = UUID.nameUUIDFromBytes(("hit-" + i).getBytes()).toString();
+      JsonObject source =
+          document.copy().put("id", id).put("name", document.getString("name") + "-" + i);
+      hits.add(new JsonObject()
+          .put("_index", "catalogue")
+          .put("_id", id)
+          .put("_score", 1.0)
+          .put("_source", source)
+          .put("sort", new JsonArray().add(i)));
+    }
+    JsonObject response = new JsonObject()
+        .put("took", latencyMs)
+        .put("timed_out", false)
+        .put("_shards", SHARDS)
+        .put("hits", new JsonObject()
+            .put("total", new JsonObject().put("value", Math.max(size, totalHits))
+                .put("relation", "eq"))
+            .put("max_score", 1.0)
+            .put("hits", hits));
+    if (aggregations != null) {
+      response.put("aggregations", termsAggregations(aggregations));
+    }
+    return response;
+  }
+
+  /** Buckets for every terms aggregation, keyed the way the client asks for ({@code typed_keys}). */
+  private JsonObject termsAggregations(JsonObject requested) {
+    JsonObject result = new JsonObject();
+    for (String name : requested.fieldNames()) {
+      JsonObject terms = requested.getJsonObject(name).getJsonObject("terms");
+      if (terms == null) {
+        continue;
+      }
+      String field = terms.getString("field", "");
+      List<String> keys = field.startsWith("type")
+          ? ITEM_TYPES
+          : List.of(name + "-1", name + "-2", name + "-3", name + "-4", name + "-5");
+      JsonArray buckets = new JsonArray();
+      for (int i = 0; i < keys.size(); i++) {
+        buckets.add(new JsonObject().put("key", keys.get(i)).put("doc_count", totalHits / (i + 2)));
+      }
+      result.put("sterms#" + name, new JsonObject()
+          .put("doc_count_error_upper_bound", 0)
+          .put("sum_other_doc_count", 0)
+          .put("buckets", buckets));
+    }
+    return result;
+  }
+
+  /** An empty result for every search of the request, which alternates headers and bodies. */
+  private Buffer multiSearch(Buffer body) {
+    JsonArray responses = new JsonArray();
+    long searches = lines(body).count() / 2;
+    for (long i = 0; i < searches; i++) {
+      responses.add(searchResponse(0, null)
+          .put("hits", new JsonObject()
+              .put("total", new JsonObject().put("value", 0).put("relation", "eq"))
+              .put("hits", new JsonArray()))
+          .put("status", 200));
+    }
+    return new JsonObject().put("took", latencyMs).put("responses", responses).toBuffer();
+  }
+
+  /** Success for every action. Index, create and update actions are followed by a source line. */
+  private Buffer bulk(Buffer body) {
+    JsonArray items = new JsonArray();
+    List<String> lines = lines(body).toList();
+    for (int i = 0; i < lines.size(); i++) {
+      JsonObject action = new JsonObject(lines.get(i));
+      String type = action.fieldNames().iterator().next();
+      JsonObject meta = action.getJsonObject(type);
+      if (!"delete".equals(type)) {
+        i++;
+      }
+      boolean created = "index".equals(type) || "create".equals(type);
+      items.add(new JsonObject().put(type, new JsonObject()
+          .put("_index", meta.getString("_index", "catalogue"))
+          .put("_id", meta.getString("_id", UUID.randomUUID().toString()))
+          .put("_version", 1)
+          .put("result", created ? "created" : "updated")
+          .put("_shards", new JsonObject().put("total", 1).put("successful", 1).put("failed", 0))
+          .put("_seq_no", i)
+          .put("_primary_term", 1)
+          .put("status", created ? 201 : 200)));
+    }
+    return new JsonObject().put("took", latencyMs).put("errors", false).put("items", items)
+        .toBuffer();
+  }
+
+  private static Stream<String> lines(Buffer body) {
+    return body.toString().lines().filter(line -> !line.isBlank());
+  }
+}
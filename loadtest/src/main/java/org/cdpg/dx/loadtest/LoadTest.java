@@ -0,0 +1,258 @@
+package org.cdpg.dx.loadtest;
+
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.cli.CLI;
+import io.vertx.core.cli.CommandLine;
+import io.vertx.core.cli.Option;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.PoolOptions;
+import io.vertx.core.json.JsonObject;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.HdrHistogram.Histogram;
+import org.cdpg.dx.deploy.Deployer;
+
+/**
+ * Measures the catalogue server on its own: deploys the verticles through {@link Deployer}
+ * against {@link FakeElasticsearch} and {@link TokenIssuer}, then offers each of the given request
+ * rates in turn and reports latency percentiles per operation. Everything runs in one JVM on one
+ * machine, so the numbers describe the server's own overhead, and the first rate it cannot
+ * sustain is its saturation point on that machine.
+ *
+ * <p>e.g. <i>java -jar loadtest/target/loadtest.jar -r 200,400,800 -d 60</i>, from the
+ * repository root so the server finds {@code docs/openapi.yaml}.
+ */
+public final class LoadTest {
+  private static final String ELASTIC_VERTICLE =
+      "org.cdpg.dx.database.elastic.ElasticsearchVerticle";
+  private static final String API_VERTICLE = "org.cdpg.dx.tgdex.apiserver.ApiServerVerticle";
+  private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+  /** A step whose completed requests fall below this share of the offered ones is saturated. */
+  private static final double SUSTAINED = 0.95;
+
+  private LoadTest() {}
+
+  public static void main(String[] args) throws Exception {
+    CLI cli = CLI.create("catalogue-loadtest")
+        .setSummary("Drives the catalogue server at fixed request rates")
+        .addOption(new Option().setLongName("help").setShortName("h").setFlag(true)
+            .setDescription("display help"))
+        .addOption(new Option().setLongName("config").setShortName("c")
+            .setDefaultValue("loadtest/configs/loadtest-config.json")
+            .setDescription("server configuration to deploy"))
+        .addOption(new Option().setLongName("rates").setShortName("r").setDefaultValue("100")
+            .setDescription("comma separated request rates per second, run one after another"))
+        .addOption(new Option().setLongName("duration").setShortName("d").setDefaultValue("60")
+            .setDescription("measured seconds per rate"))
+        .addOption(new Option().setLongName("warmup").setShortName("w").setDefaultValue("15")
+            .setDescription("seconds per rate before measuring"))
+        .addOption(new Option().setLongName("mix").setShortName("m")
+            .setDefaultValue("search=60,count=15,list=15,item=10")
+            .setDescription("relative weight of each operation"))
+        .addOption(new Option().setLongName("connections").setDefaultValue("64")
+            .setDescription("connections to the server"))
+        .addOption(new Option().setLongName("es-latency").setDefaultValue("5")
+            .setDescription("milliseconds the fake Elasticsearch takes to answer"))
+        .addOption(new Option().setLongName("es-jitter").setDefaultValue("2")
+            .setDescription("random milliseconds added to that"))
+        .addOption(new Option().setLongName("es-hits").setDefaultValue("20")
+            .setDescription("most hits a fake search returns"))
+        .addOption(new Option().setLongName("histograms")
+            .setDescription("directory to write an .hgrm percentile file per rate and operation"));
+
+    CommandLine commandLine = cli.parse(Arrays.asList(args), false);
+    if (!commandLine.isValid() || commandLine.isFlagEnabled("help")) {
+      StringBuilder usage = new StringBuilder();
+      cli.usage(usage);
+      System.out.println(usage);
+      return;
+    }
+
+    String configPath = commandLine.getOptionValue("config");
+    JsonObject config = new JsonObject(Files.readString(Path.of(configPath)));
+    JsonObject elasticConfig = module(config, ELASTIC_VERTICLE);
+    JsonObject apiConfig = module(config, API_VERTICLE);
+    int apiPort = apiConfig.getInteger("httpPort");
+    URI certUrl = URI.create(apiConfig.getString("keycloakCertUrl"));
+
+    Vertx vertx = Vertx.vertx();
+    TokenIssuer issuer = new TokenIssuer(vertx, apiConfig.getString("iss"));
+    JsonObject fakeConfig = new JsonObject()
+        .put("port", elasticConfig.getInteger("databasePort"))
+        .put("latencyMs", Long.parseLong(commandLine.getOptionValue("es-latency")))
+        .put("jitterMs", Long.parseLong(commandLine.getOptionValue("es-jitter")))
+        .put("hits", Integer.parseInt(commandLine.getOptionValue("es-hits")));
+    await(vertx.deployVerticle(FakeElasticsearch.class.getName(),
+        new DeploymentOptions().setConfig(fakeConfig)).mapEmpty());
+    Buffer jwks = issuer.jwks().toBuffer();
+    await(vertx.createHttpServer()
+        .requestHandler(request -> request.response()
+            .putHeader("Content-Type", "application/json").end(jwks))
+        .listen(certUrl.getPort()).mapEmpty());
+
+    Deployer.deploy(configPath);
+
+    int connections = Integer.parseInt(commandLine.getOptionValue("connections"));
+    HttpClient client = vertx.createHttpClient(
+        new HttpClientOptions().setDefaultHost("localhost").setDefaultPort(apiPort)
+            .setKeepAlive(true),
+        new PoolOptions().setHttp1MaxSize(connections));
+    awaitServer(client, TimeUnit.SECONDS.toNanos(120));
+
+    Map<Operation, Integer> mix = parseMix(commandLine.getOptionValue("mix"));
+    long warmup = TimeUnit.SECONDS.toNanos(Long.parseLong(commandLine.getOptionValue("warmup")));
+    long duration =
+        TimeUnit.SECONDS.toNanos(Long.parseLong(commandLine.getOptionValue("duration")));
+    double[] rates = Arrays.stream(commandLine.<String>getOptionValue("rates").split(","))
+        .mapToDouble(rate -> Double.parseDouble(rate.trim())).toArray();
+
+    // one token for the whole run, so every write pays for verification but none for issuing
+    long runSeconds = TimeUnit.NANOSECONDS.toSeconds((warmup + duration) * rates.length);
+    String token = issuer.token((int) runSeconds + 600, "provider", "cos_admin");
+    Map<Operation, Buffer> bodies = new EnumMap<>(Operation.class);
+    Map<Operation, String> authorization = new EnumMap<>(Operation.class);
+    for (Operation operation : Operation.values()) {
+      bodies.put(operation, Payloads.load(operation.payload).toBuffer());
+      if (operation.authenticated) {
+        authorization.put(operation, token);
+      }
+    }
+
+    ArrivalDriver driver = new ArrivalDriver(client, bodies, authorization, mix);
+    String histogramDir = commandLine.getOptionValue("histograms");
+    PrintStream out = System.out;
+    out.printf("mix %s, %d connections, fake Elasticsearch %s+%s ms%n", mix, connections,
+        commandLine.getOptionValue("es-latency"), commandLine.getOptionValue("es-jitter"));
+    for (double rate : rates) {
+      out.printf("%nwarming up at %.0f req/s for %d s, then measuring for %d s%n", rate,
+          TimeUnit.NANOSECONDS.toSeconds(warmup), TimeUnit.NANOSECONDS.toSeconds(duration));
+      ArrivalDriver.Step step = driver.run(rate, warmup, duration, TimeUnit.SECONDS.toNanos(30));
+      report(step, out);
+      if (histogramDir != null) {
+        writeHistograms(step, Path.of(histogramDir));
+      }
+    }
+    System.exit(0);
+  }
+
+  private static void report(ArrivalDriver.Step step, PrintStream out) {
+    double seconds = step.durationNanos() / 1e9;
+    Histogram all = new Histogram(3);
+    long completed = 0;
+    out.printf("%-8s %9s %8s %9s %9s %9s %9s %9s %9s%n", "", "requests", "errors", "req/s",
+        "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+    for (Map.Entry<Operation, Histogram> entry : step.histograms().entrySet()) {
+      Histogram histogram = entry.getValue();
+      if (histogram.getTotalCount() == 0) {
+        continue;
+      }
+      OperationStats stats = step.stats().get(entry.getKey());
+      printRow(out, entry.getKey().label(), histogram, stats.failures(), seconds);
+      all.add(histogram);
+      completed += histogram.getTotalCount();
+    }
+    long failures = step.stats().values().stream().mapToLong(OperationStats::failures).sum();
+    printRow(out, "all", all, failures, seconds);
+
+    step.stats().forEach((operation, stats) -> {
+      if (stats.failures() > 0) {
+        StringBuilder outcomes = new StringBuilder();
+        stats.outcomes().forEach((outcome, count) ->
+            outcomes.append(' ').append(outcome).append('=').append(count.sum()));
+        out.printf("  %s responses:%s%n", operation.label(), outcomes);
+      }
+    });
+
+    double achieved = completed / seconds;
+    boolean saturated = completed < step.sent() * SUSTAINED || step.unfinished() > 0;
+    out.printf("offered %.1f req/s, completed %.1f req/s%s%s%n", step.rate(),
+        achieved,
+        step.unfinished() > 0 ? ", " + step.unfinished() + " still unanswered" : "",
+        saturated ? " - SATURATED" : "");
+  }
+
+  private static void printRow(PrintStream out, String label, Histogram histogram,
+                               long failures, double seconds) {
+    out.printf("%-8s %9d %8d %9.1f", label, histogram.getTotalCount(), failures,
+        histogram.getTotalCount() / seconds);
+    for (double percentile : PERCENTILES) {
+      out.printf(" %9.2f", histogram.getValueAtPercentile(percentile) / 1000.0);
+    }
+    out.printf(" %9.2f%n", histogram.getMaxValue() / 1000.0);
+  }
+
+  private static void writeHistograms(ArrivalDriver.Step step, Path dir) throws IOException {
+    Files.createDirectories(dir);
+    for (Map.Entry<Operation, Histogram> entry : step.histograms().entrySet()) {
+      Path file = dir.resolve(
+          String.format("%.0f-%s.hgrm", step.rate(), entry.getKey().label()));
+      try (PrintStream out = new PrintStream(Files.newOutputStream(file), true,
+          StandardCharsets.UTF_8)) {
+        // recorded in microseconds, written in milliseconds
+        entry.getValue().outputPercentileDistribution(out, 1000.0);
+      }
+    }
+  }
+
+  private static Map<Operation, Integer> parseMix(String mix) {
+    Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+    for (String part : mix.split(",")) {
+      String[] weight = part.split("=");
+      int value = Integer.parseInt(weight[1].trim());
+      if (value > 0) {
+        weights.put(Operation.fromLabel(weight[0]), value);
+      }
+    }
+    if (weights.isEmpty()) {
+      throw new IllegalArgumentException("The mix has no operation with a weight: " + mix);
+    }
+    return weights;
+  }
+
+  private static JsonObject module(JsonObject config, String id) {
+    return config.getJsonArray("modules").stream()
+        .map(JsonObject.class::cast)
+        .filter(module -> id.equals(module.getString("id")))
+        .findFirst()
+        .orElseThrow(() -> new IllegalArgumentException(id + " is not configured"));
+  }
+
+  /** Waits until the API server answers anything at all. */
+  private static void awaitServer(HttpClient client, long timeoutNanos) {
+    long deadline = System.nanoTime() + timeoutNanos;
+    while (System.nanoTime() < deadline) {
+      try {
+        await(client.request(HttpMethod.GET, "/")
+            .compose(request -> request.send())
+            .compose(response -> response.body())
+            .mapEmpty());
+        return;
+      } catch (RuntimeException e) {
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(250));
+      }
+    }
+    throw new IllegalStateException("The catalogue server did not come up");
+  }
+
+  private static void await(Future<Void> future) {
+    try {
+      future.toCompletionStage().toCompletableFuture().get(60, TimeUnit.SECONDS);
+    } catch (Exception e) {
+      throw new IllegalStateException(e.getMessage(), e);
+    }
+  }
+}
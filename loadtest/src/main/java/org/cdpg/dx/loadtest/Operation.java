@@ -0,0 +1,31 @@
+package org.cdpg.dx.loadtest;
+
+import io.vertx.core.http.HttpMethod;
+
+/** The catalogue calls a load test can send, each with the body it sends every time. */
+enum Operation {
+  SEARCH(HttpMethod.POST, "/iudx/cat/v1/search?size=20&page=1", "search", false),
+  COUNT(HttpMethod.POST, "/iudx/cat/v1/count", "count", false),
+  LIST(HttpMethod.POST, "/iudx/cat/v1/list", "list", false),
+  ITEM(HttpMethod.POST, "/iudx/cat/v1/item", "item", true);
+
+  final HttpMethod method;
+  final String uri;
+  final String payload;
+  final boolean authenticated;
+
+  Operation(HttpMethod method, String uri, String payload, boolean authenticated) {
+    this.method = method;
+    this.uri = uri;
+    this.payload = payload;
+    this.authenticated = authenticated;
+  }
+
+  String label() {
+    return name().toLowerCase();
+  }
+
+  static Operation fromLabel(String label) {
+    return valueOf(label.trim().toUpperCase());
+  }
+}
@@ -0,0 +1,42 @@
+package org.cdpg.dx.loadtest;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * What one operation saw during a step. Latency runs from the moment a request was scheduled to
+ * be sent, not from when it actually went out, so a server that falls behind is charged for the
+ * queueing it causes instead of silently slowing the load down.
+ */
+final class OperationStats {
+  private final Recorder latencies = new Recorder(3);
+  private final LongAdder failures = new LongAdder();
+  private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+  void record(long intendedNanos, String outcome, boolean success) {
+    latencies.recordValue(
+        TimeUnit.NANOSECONDS.toMicros(Math.max(0, System.nanoTime() - intendedNanos)));
+    if (!success) {
+      failures.increment();
+    }
+    outcomes.computeIfAbsent(outcome, k -> new LongAdder()).increment();
+  }
+
+  /** Latencies in microseconds since the last call, which starts a new interval. */
+  Histogram takeHistogram() {
+    return latencies.getIntervalHistogram();
+  }
+
+  long failures() {
+    return failures.sum();
+  }
+
+  /** Responses by status code, or by error for requests that got none. */
+  Map<String, LongAdder> outcomes() {
+    return outcomes;
+  }
+}
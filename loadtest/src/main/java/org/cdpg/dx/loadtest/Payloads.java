@@ -0,0 +1,23 @@
+package org.cdpg.dx.loadtest;
+
+import io.vertx.core.json.JsonObject;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/** Request and document bodies used by the load test, kept under {@code payloads/}. */
+final class Payloads {
+  private Payloads() {}
+
+  static JsonObject load(String name) {
+    try (InputStream in = Payloads.class.getResourceAsStream("/payloads/" + name + ".json")) {
+      if (in == null) {
+        throw new IllegalArgumentException("No payload named " + name);
+      }
+      return new JsonObject(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,370 @@
+package org.cdpg.dx.auditing.handler;
+
+import static org.cdpg.dx.auditing.util.Constants.AUDITING_EXCHANGE;
+import static org.cdpg.dx.auditing.util.Constants.ROUTING_KEY;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.file.AsyncFile;
+import io.vertx.core.file.CopyOptions;
+import io.vertx.core.file.FileSystem;
+import io.vertx.core.file.OpenOptions;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.parsetools.RecordParser;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.cdpg.dx.common.util.MeterRegistries;
+import org.cdpg.dx.databroker.service.DataBrokerService;
+
+/**
+ * Collects audit logs in a bounded buffer and publishes them to the data broker in batches, when a
+ * batch is full or the flush interval has passed, so that an API call costs no event bus or AMQP
+ * round trip of its own.
+ *
+ * <p>Logs that do not fit into the buffer, because the broker is slow, and batches the broker
+ * failed to take are appended to a local spill file instead of being dropped. Once a batch goes
+ * through again the spill file is read back into the buffer, as fast as the buffer drains. Spill
+ * files left behind by an earlier run are picked up when the batcher starts.
+ *
+ * <p>One batcher belongs to one API server verticle and does all its work on that verticle's
+ * context. {@link #close} spills what is still buffered, for the next run of the server to publish.
+ */
+final class AuditBatcher {
+  private static final Logger LOGGER = LogManager.getLogger(AuditBatcher.class);
+  private static final Buffer NEW_LINE = Buffer.buffer("\n");
+  /* Logs buffered by all batchers; the gauge reads it off the context, so not the buffers. */
+  private static final AtomicInteger BUFFERED = new AtomicInteger();
+  /* Spill files of this JVM are named after it, see recoverSpilled. */
+  private static final String SPILL_PREFIX = "audit-" + UUID.randomUUID() + "-";
+  private static final String SPILL_SUFFIX = ".ndjson";
+
+  private final Vertx vertx;
+  private final Context context;
+  private final FileSystem fileSystem;
+  private final DataBrokerService dataBrokerService;
+  private final int batchSize;
+  private final int capacity;
+  private final int maxInFlight;
+  private final String spillDir;
+  private final ArrayDeque<JsonObject> buffer;
+  private final Counter published;
+  private final Counter spilled;
+  private final Counter replayed;
+
+  private int inFlight;
+  private Future<AsyncFile> spillOut;
+  private String spillPath;
+  /* Closed spill files waiting to be read back, oldest first. */
+  private final ArrayDeque<String> toReplay = new ArrayDeque<>();
+  private int closing;
+  private boolean replaying;
+  private RecordParser replay;
+  private long flushTimer;
+  /* Set once closing; completed when the last batch in flight is done and the spill file closed. */
+  private Promise<Void> closed;
+
+  AuditBatcher(Vertx vertx, DataBrokerService dataBrokerService, JsonObject config) {
+    this.vertx = vertx;
+    this.context = vertx.getOrCreateContext();
+    this.fileSystem = vertx.fileSystem();
+    this.dataBrokerService = dataBrokerService;
+    this.batchSize = config.getInteger("auditBatchSize", 100);
+    this.capacity = config.getInteger("auditBufferSize", 10_000);
+    this.maxInFlight = config.getInteger("auditMaxInFlightBatches", 4);
+    this.spillDir = config.getString("auditSpillDir", "audit-spill");
+    this.buffer = new ArrayDeque<>(Math.min(capacity, 1024));
+
+    MeterRegistry registry = MeterRegistries.get();
+    this.published = counter(registry, "published");
+    this.spilled = counter(registry, "spilled");
+    this.replayed = counter(registry, "replayed");
+    Gauge.builder("tgdex.audit.buffer.size", BUFFERED, AtomicInteger::get)
+        .description("Auditing logs waiting to be published")
+        .register(registry);
+
+    long flushIntervalMs = config.getLong("auditFlushIntervalMs", 1000L);
+    context.runOnContext(
+        v -> {
+          flushTimer = vertx.setPeriodic(flushIntervalMs, id -> flush());
+          recoverSpilled();
+        });
+  }
+
+  /** Queues a log for publishing. Never blocks and never fails the caller. */
+  void add(JsonObject log) {
+    if (Vertx.currentContext() != context) {
+      context.runOnContext(v -> add(log));
+      return;
+    }
+    if (closed != null || buffer.size() >= capacity) {
+      spill(List.of(log));
+      return;
+    }
+    buffer.add(log);
+    BUFFERED.incrementAndGet();
+    if (buffer.size() >= batchSize) {
+      flush();
+    }
+  }
+
+  /**
+   * Stops publishing, spills the logs still buffered, and completes once the batches in flight are
+   * done and the spill file is closed. Logs added afterwards are spilled too.
+   */
+  Future<Void> close() {
+    Promise<Void> promise = Promise.promise();
+    context.runOnContext(
+        v -> {
+          if (closed == null) {
+            closed = Promise.promise();
+            vertx.cancelTimer(flushTimer);
+            if (replay != null) {
+              // the rest of the file stays where it is, and is replayed by the next start
+              replay.pause();
+            }
+            if (!buffer.isEmpty()) {
+              spill(new ArrayList<>(buffer));
+              BUFFERED.addAndGet(-buffer.size());
+              buffer.clear();
+            }
+            finishClose();
+          }
+          closed.future().onComplete(promise);
+        });
+    return promise.future();
+  }
+
+  private void finishClose() {
+    if (inFlight > 0) {
+      return;
+    }
+    Future<AsyncFile> spilledLogs = spillOut;
+    spillOut = null;
+    spillPath = null;
+    (spilledLogs == null ? Future.<Void>succeededFuture() : spilledLogs.compose(AsyncFile::close))
+        .onFailure(e -> LOGGER.error("Could not close audit spill file: {}", e.getMessage()))
+        .onComplete(ar -> closed.tryComplete());
+  }
+
+  private void flush() {
+    while (closed == null && inFlight < maxInFlight && !buffer.isEmpty()) {
+      List<Object> logs = new ArrayList<>(Math.min(batchSize, buffer.size()));
+      while (logs.size() < batchSize && !buffer.isEmpty()) {
+        logs.add(buffer.poll());
+      }
+      BUFFERED.addAndGet(-logs.size());
+      JsonArray batch = new JsonArray(logs);
+      inFlight++;
+      dataBrokerService
+          .publishMessagesInternal(batch, AUDITING_EXCHANGE, ROUTING_KEY)
+          .onComplete(
+              ar -> {
+                inFlight--;
+                if (ar.succeeded()) {
+                  published.increment(batch.size());
+                  startReplay();
+                } else {
+                  LOGGER.warn(
+                      "Failed to publish {} auditing logs, spilling them: {}",
+                      batch.size(),
+                      ar.cause().getMessage());
+                  spill(logs);
+                }
+                if (closed != null) {
+                  finishClose();
+                  return;
+                }
+                resumeReplay();
+                flush();
+              });
+    }
+  }
+
+  private void spill(List<?> logs) {
+    Buffer lines = Buffer.buffer();
+    for (Object log : logs) {
+      lines.appendBuffer(((JsonObject) log).toBuffer()).appendBuffer(NEW_LINE);
+    }
+    if (spillOut == null) {
+      // opened lazily, as most of the time nothing is ever spilled
+      String path = spillDir + "/" + SPILL_PREFIX + UUID.randomUUID() + SPILL_SUFFIX;
+      Future<AsyncFile> opening =
+          fileSystem
+              .mkdirs(spillDir)
+              .compose(
+                  v ->
+                      fileSystem.open(
+                          path, new OpenOptions().setCreate(true).setWrite(true).setAppend(true)))
+              .onSuccess(
+                  file ->
+                      file.exceptionHandler(
+                          e ->
+                              LOGGER.error(
+                                  "Writing to audit spill file {} failed: {}",
+                                  path,
+                                  e.getMessage())));
+      spillOut = opening;
+      spillPath = path;
+      opening.onFailure(
+          e -> {
+            LOGGER.error("Could not open audit spill file {}: {}", path, e.getMessage());
+            if (spillOut == opening) {
+              spillOut = null;
+              spillPath = null;
+            }
+          });
+    }
+    // writes queue up behind the open in the order they were spilled
+    spillOut
+        .onSuccess(file -> file.write(lines))
+        .onFailure(e -> LOGGER.error("{} auditing logs lost", logs.size()));
+    spilled.increment(logs.size());
+  }
+
+  /**
+   * Queues the spill files a previous run of the server left behind for replay. A file is claimed
+   * by renaming it into this run's name space first, so that of several API server instances only
+   * one replays it, and no instance takes a file still written to in this JVM.
+   */
+  private void recoverSpilled() {
+    fileSystem
+        .exists(spillDir)
+        .compose(
+            exists ->
+                exists
+                    ? fileSystem.readDir(spillDir, "audit-.*\\" + SPILL_SUFFIX)
+                    : Future.succeededFuture(List.<String>of()))
+        .onSuccess(
+            paths -> {
+              for (String path : paths) {
+                if (Path.of(path).getFileName().toString().startsWith(SPILL_PREFIX)) {
+                  continue;
+                }
+                String claimed = spillDir + "/" + SPILL_PREFIX + UUID.randomUUID() + SPILL_SUFFIX;
+                fileSystem
+                    .move(path, claimed, new CopyOptions().setAtomicMove(true))
+                    .onSuccess(
+                        v -> {
+                          LOGGER.info("Replaying auditing logs spilled before a restart: {}", path);
+                          toReplay.add(claimed);
+                          startReplay();
+                        });
+              }
+            })
+        .onFailure(e -> LOGGER.error("Could not look for spilled auditing logs: {}", e.getMessage()));
+  }
+
+  /**
+   * Reads the logs spilled so far back into the buffer, once the broker takes batches again. Logs
+   * spilled meanwhile go to a new file, replayed after this one.
+   */
+  private void startReplay() {
+    if (closed != null) {
+      return;
+    }
+    if (spillOut != null) {
+      Future<AsyncFile> spilledLogs = spillOut;
+      String path = spillPath;
+      spillOut = null;
+      spillPath = null;
+      closing++;
+      spilledLogs
+          .compose(AsyncFile::close)
+          .onComplete(
+              ar -> {
+                closing--;
+                if (ar.succeeded()) {
+                  toReplay.add(path);
+                }
+                replayNext();
+              });
+    }
+    replayNext();
+  }
+
+  private void replayNext() {
+    if (closed != null || replaying || closing > 0 || toReplay.isEmpty()) {
+      return;
+    }
+    String path = toReplay.poll();
+    replaying = true;
+    fileSystem
+        .open(path, new OpenOptions().setRead(true))
+        .onSuccess(
+            file -> {
+              RecordParser lines = RecordParser.newDelimited("\n", file);
+              replay = lines;
+              lines.handler(
+                  line -> {
+                    if (line.length() == 0) {
+                      return;
+                    }
+                    JsonObject log;
+                    try {
+                      log = new JsonObject(line);
+                    } catch (DecodeException e) {
+                      // a line torn by a crash while it was written
+                      LOGGER.warn("Skipping unreadable line in audit spill file {}", path);
+                      return;
+                    }
+                    replayed.increment();
+                    add(log);
+                    if (buffer.size() >= capacity / 2) {
+                      lines.pause();
+                    }
+                  });
+              lines.exceptionHandler(
+                  e -> {
+                    // logs read so far go out again on the retry, duplicates rather than losses
+                    LOGGER.error(
+                        "Replaying audit spill file {} failed, retrying later: {}",
+                        path,
+                        e.getMessage());
+                    replay = null;
+                    replaying = false;
+                    file.close();
+                    toReplay.addFirst(path);
+                  });
+              lines.endHandler(
+                  v -> {
+                    replay = null;
+                    replaying = false;
+                    file.close().compose(closed -> fileSystem.delete(path));
+                    LOGGER.info("Replayed spilled auditing logs from {}", path);
+                    replayNext();
+                  });
+            })
+        .onFailure(
+            e -> {
+              replaying = false;
+              LOGGER.error("Could not replay audit spill file {}: {}", path, e.getMessage());
+            });
+  }
+
+  private void resumeReplay() {
+    if (replay != null && buffer.size() < capacity / 4) {
+      replay.resume();
+    }
+  }
+
+  private static Counter counter(MeterRegistry registry, String outcome) {
+    return Counter.builder("tgdex.audit.logs")
+        .description("Auditing logs by what became of them")
+        .tag("outcome", outcome)
+        .register(registry);
+  }
+}
@@ -1,6 +1,8 @@
 package org.cdpg.dx.auditing.handler;
 
+import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.RoutingContext;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -11,16 +13,13 @@ import org.cdpg.dx.util.RoutingContextHelper;
 import java.util.List;
 import java.util.Optional;
 
-import static org.cdpg.dx.auditing.util.Constants.AUDITING_EXCHANGE;
-import static org.cdpg.dx.auditing.util.Constants.ROUTING_KEY;
-
 public class AuditingHandler {
   private static final Logger LOGGER = LogManager.getLogger(AuditingHandler.class);
   private static final List<Integer> STATUS_CODES_TO_AUDIT = List.of(200, 201, 204);
-  private final DataBrokerService databrokerService;
+  private final AuditBatcher auditBatcher;
 
-  public AuditingHandler(DataBrokerService dataBrokerService) {
-    this.databrokerService = dataBrokerService;
+  public AuditingHandler(Vertx vertx, DataBrokerService dataBrokerService, JsonObject config) {
+    this.auditBatcher = new AuditBatcher(vertx, dataBrokerService, config);
   }
 
   public void handleApiAudit(RoutingContext context) {
@@ -47,19 +46,20 @@ public class AuditingHandler {
     context.next();
   }
 
+  /** Hands the logs over for batched publishing; see {@link AuditBatcher}. */
   public void publishAuditLogs(List<AuditLog> auditLogList){
     LOGGER.trace("AuditingHandler() started");
 
     auditLogList.forEach(
         log -> {
-          LOGGER.debug("auditLogData : {}", log.toJson());
-          databrokerService
-              .publishMessageInternal(log.toJson(), AUDITING_EXCHANGE, ROUTING_KEY)
-              .onSuccess(success -> LOGGER.info("Auditing log published successfully"))
-              .onFailure(
-                  failure ->
-                      LOGGER.error("Failed to publish auditing log: {}", failure.getMessage())
-              );
+          JsonObject auditLog = log.toJson();
+          LOGGER.debug("auditLogData : {}", auditLog);
+          auditBatcher.add(auditLog);
         });
   }
+
+  /** Stops publishing and spills the logs not published yet; see {@link AuditBatcher#close}. */
+  public Future<Void> close() {
+    return auditBatcher.close();
+  }
 }
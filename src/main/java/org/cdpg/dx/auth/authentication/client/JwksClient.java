@@ -8,6 +8,7 @@ import io.vertx.ext.web.client.WebClient;
 import io.vertx.ext.web.client.WebClientOptions;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.cdpg.dx.common.util.WebClients;
 
 public class JwksClient {
     private static final Logger LOGGER = LogManager.getLogger(JwksClient.class);
@@ -15,9 +16,9 @@ public class JwksClient {
     private final String certUrl;
     private final WebClient client;
 
-    public JwksClient(Vertx vertx, String certUrl) {
+    public JwksClient(Vertx vertx, String certUrl, JsonObject config) {
         this.certUrl = certUrl;
-        this.client = WebClient.create(vertx, new WebClientOptions().setSsl(certUrl.startsWith("https")).setTrustAll(true));
+        this.client = WebClients.create(vertx, "jwks", new WebClientOptions().setSsl(certUrl.startsWith("https")).setTrustAll(true), config);
     }
 
     public Future<JsonObject> fetchJwkKeys() {
@@ -1,20 +1,20 @@
 package org.cdpg.dx.auth.authentication.handler;
 
-import io.vertx.core.json.JsonObject;
-import io.vertx.ext.auth.jwt.JWTAuth;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.handler.AuthenticationHandler;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.cdpg.dx.auth.authentication.provider.JwtVerifier;
 import org.cdpg.dx.auth.authentication.util.BearerTokenExtractor;
 import org.cdpg.dx.common.exception.DxUnauthorizedException;
+import org.cdpg.dx.common.util.RequestTimings;
 
 public class KeycloakJwtAuthHandler implements AuthenticationHandler {
   private static final Logger LOGGER = LogManager.getLogger(KeycloakJwtAuthHandler.class);
-  private final JWTAuth jwtAuth;
+  private final JwtVerifier verifier;
 
-  public KeycloakJwtAuthHandler(JWTAuth jwtAuth) {
-    this.jwtAuth = jwtAuth;
+  public KeycloakJwtAuthHandler(JwtVerifier verifier) {
+    this.verifier = verifier;
   }
 
   @Override
@@ -27,8 +27,10 @@ public class KeycloakJwtAuthHandler implements AuthenticationHandler {
       return;
     }
 
-    jwtAuth
-        .authenticate(new JsonObject().put("token", token))
+    long start = System.nanoTime();
+    verifier
+        .authenticate(token)
+        .onComplete(ar -> RequestTimings.record(ctx, RequestTimings.AUTH, start))
         .onSuccess(
             user -> {
               ctx.setUser(user);
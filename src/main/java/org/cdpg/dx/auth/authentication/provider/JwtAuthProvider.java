@@ -17,21 +17,42 @@ import java.util.stream.Collectors;
 public class JwtAuthProvider {
     private static final Logger LOGGER = LogManager.getLogger(JwtAuthProvider.class);
     private static JWTAuth jwtAuth;
+    private static JwtVerifier verifier;
     private static long refreshTimerId;
 
-    public static Future<JWTAuth> init(Vertx vertx, JsonObject config) {
+    /**
+     * Loads the JWKs and keeps them refreshed. The returned verifier is shared by all callers in
+     * the JVM and always uses the latest keys.
+     */
+    public static Future<JwtVerifier> init(Vertx vertx, JsonObject config) {
         String certUrl = config.getString("keycloakCertUrl");
         long refreshMs = config.getLong("jwksRefreshIntervalMs", 6 * 60 * 60 * 1000L); // default: 6h
-        JwksClient jwksClient = new JwksClient(vertx, certUrl);
+        JwksClient jwksClient = new JwksClient(vertx, certUrl, config);
+        JwtVerifier jwtVerifier = verifier(config);
 
-        return refresh(vertx, config, jwksClient).onSuccess(jwt -> {
-            if (refreshTimerId == 0) {
-                refreshTimerId = vertx.setPeriodic(refreshMs, id -> refresh(vertx, config, jwksClient));
-                LOGGER.info("JWKs auto-refresh enabled every {} ms", refreshMs);
+        return refresh(vertx, config, jwksClient).map(jwt -> {
+            synchronized (JwtAuthProvider.class) {
+                if (refreshTimerId == 0) {
+                    refreshTimerId = vertx.setPeriodic(refreshMs, id -> refresh(vertx, config, jwksClient));
+                    LOGGER.info("JWKs auto-refresh enabled every {} ms", refreshMs);
+                }
             }
+            return jwtVerifier;
         });
     }
 
+    private static synchronized JwtVerifier verifier(JsonObject config) {
+        if (verifier == null) {
+            // verified tokens are remembered for at most a minute by default; 0 verifies every request
+            verifier = new JwtVerifier(
+                    config.getInteger("jwtLeewaySeconds", 30),
+                    config.getBoolean("jwtIgnoreExpiry", false),
+                    config.getLong("jwtCacheTtlSeconds", 60L),
+                    config.getLong("jwtCacheMaxSize", 10_000L));
+        }
+        return verifier;
+    }
+
     private static Future<JWTAuth> refresh(Vertx vertx, JsonObject config, JwksClient jwksClient) {
         return jwksClient.fetchJwkKeys().compose(jwk -> {
             List<JsonObject> keys = jwk.getJsonArray("keys").stream()
@@ -41,13 +62,14 @@ public class JwtAuthProvider {
             JWTAuthOptions options = new JWTAuthOptions()
                     .setJwks(keys)
                     .setJWTOptions(new JWTOptions()
-                            .setLeeway(30)
+                            .setLeeway(config.getInteger("jwtLeewaySeconds", 30))
                             .setIgnoreExpiration(config.getBoolean("jwtIgnoreExpiry", false))
                             .setIssuer(config.getString("iss")));
                     //TODO need to set aud as well
                     //        .setAudience(List.of(config.getString("aud"))));
 
             jwtAuth = JWTAuth.create(vertx, options);
+            verifier.update(jwtAuth);
             LOGGER.info("JWTAuth initialized/refreshed successfully.");
             return Future.succeededFuture(jwtAuth);
         });
@@ -0,0 +1,93 @@
+package org.cdpg.dx.auth.authentication.provider;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import io.vertx.core.Future;
+import io.vertx.ext.auth.User;
+import io.vertx.ext.auth.authentication.TokenCredentials;
+import io.vertx.ext.auth.jwt.JWTAuth;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.cdpg.dx.auth.authorization.model.DxRole;
+import org.cdpg.dx.common.util.MeterRegistries;
+
+/**
+ * Verifies bearer tokens with the current JWKs and remembers the users of tokens it has verified,
+ * so that a client repeating its token does not pay for a signature check on every request.
+ *
+ * <p>Entries are keyed by a SHA-256 hash of the token and are only served while the token is valid
+ * under the same expiry and leeway rules {@link JWTAuth} applies. Each entry remembers the keys
+ * that verified it and is ignored once those have been replaced by a refresh, so a token is never
+ * accepted on the strength of a key that has been rotated out.
+ */
+public final class JwtVerifier {
+  private final int leewaySeconds;
+  private final boolean ignoreExpiration;
+  private final Cache<String, Verified> users;
+  private final AtomicReference<JWTAuth> keys = new AtomicReference<>();
+
+  /** A {@code ttlSeconds} of 0 verifies every request. */
+  JwtVerifier(int leewaySeconds, boolean ignoreExpiration, long ttlSeconds, long maxSize) {
+    this.leewaySeconds = leewaySeconds;
+    this.ignoreExpiration = ignoreExpiration;
+    if (ttlSeconds > 0) {
+      users = CacheBuilder.newBuilder()
+          .maximumSize(maxSize)
+          .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+          .recordStats()
+          .build();
+      GuavaCacheMetrics.monitor(MeterRegistries.get(), users, "tgdex.jwt.cache");
+    } else {
+      users = null;
+    }
+  }
+
+  /** Starts verifying with freshly fetched keys. */
+  void update(JWTAuth jwtAuth) {
+    keys.set(jwtAuth);
+  }
+
+  /** The user the token was issued to, failing when it is not valid. */
+  public Future<User> authenticate(String token) {
+    JWTAuth jwtAuth = keys.get();
+    if (jwtAuth == null) {
+      return Future.failedFuture(new IllegalStateException("JWKs not loaded yet"));
+    }
+    if (users == null) {
+      return verify(jwtAuth, token);
+    }
+
+    String key = hash(token);
+    Verified verified = users.getIfPresent(key);
+    if (verified != null) {
+      if (verified.keys == jwtAuth
+          && (ignoreExpiration || !verified.user.expired(leewaySeconds))) {
+        return Future.succeededFuture(verified.user);
+      }
+      users.invalidate(key);
+    }
+    return verify(jwtAuth, token).onSuccess(user -> users.put(key, new Verified(user, jwtAuth)));
+  }
+
+  private static Future<User> verify(JWTAuth jwtAuth, String token) {
+    return jwtAuth.authenticate(new TokenCredentials(token)).onSuccess(DxRole::attach);
+  }
+
+  private static String hash(String token) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256")
+          .digest(token.getBytes(StandardCharsets.UTF_8));
+      return Base64.getEncoder().encodeToString(digest);
+    } catch (NoSuchAlgorithmException e) {
+      // every Java platform is required to provide SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private record Verified(User user, JWTAuth keys) {}
+}
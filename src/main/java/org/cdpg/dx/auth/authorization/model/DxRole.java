@@ -1,5 +1,8 @@
 package org.cdpg.dx.auth.authorization.model;
 
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.User;
 import java.util.Arrays;
 import java.util.Map;
 import java.util.Optional;
@@ -12,6 +15,9 @@ public enum DxRole {
   ORG_ADMIN("org_admin"),
   COMPUTE("compute");
 
+  /** User attribute holding {@link #rolesOf} of a verified token. */
+  private static final String ROLES_ATTRIBUTE = "dxRoles";
+
   private final String role;
 
   private static final Map<String, DxRole> ROLE_LOOKUP =
@@ -26,6 +32,44 @@ public enum DxRole {
     return role;
   }
 
+  /** This role's bit in a {@link #rolesOf} bitmask. */
+  public int bit() {
+    return 1 << ordinal();
+  }
+
+  /**
+   * Bitmask of the known roles in the {@code realm_access} claim of the user's token. Taken from
+   * the user's attributes when {@link #attach} has already worked it out.
+   */
+  public static int rolesOf(User user) {
+    Integer roles = user.attributes().getInteger(ROLES_ATTRIBUTE);
+    return roles != null ? roles : parse(user.principal());
+  }
+
+  /**
+   * Works out the roles of a freshly verified user once, so that authorization checks on later
+   * requests with the same token are a bit test. Must be called before the user is shared.
+   */
+  public static void attach(User user) {
+    user.attributes().put(ROLES_ATTRIBUTE, parse(user.principal()));
+  }
+
+  private static int parse(JsonObject principal) {
+    JsonObject realmAccess = principal.getJsonObject("realm_access");
+    JsonArray roles = realmAccess == null ? null : realmAccess.getJsonArray("roles");
+    if (roles == null) {
+      return 0;
+    }
+    int mask = 0;
+    for (Object role : roles) {
+      DxRole dxRole = role == null ? null : ROLE_LOOKUP.get(role.toString().toLowerCase());
+      if (dxRole != null) {
+        mask |= dxRole.bit();
+      }
+    }
+    return mask;
+  }
+
   public static Optional<DxRole> fromString(String role) {
     if (role == null || role.isEmpty()) return Optional.empty();
     return Optional.ofNullable(ROLE_LOOKUP.get(role.toLowerCase()));
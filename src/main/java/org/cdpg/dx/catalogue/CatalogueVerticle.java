@@ -12,6 +12,7 @@ import org.cdpg.dx.catalogue.client.CatalogueClient;
 import org.cdpg.dx.catalogue.client.CatalogueClientImpl;
 import org.cdpg.dx.catalogue.service.CatalogueService;
 import org.cdpg.dx.catalogue.service.CatalogueServiceImpl;
+import org.cdpg.dx.common.util.WebClients;
 
 import static org.cdpg.dx.common.config.ServiceProxyAddressConstants.CATALOGUE_SERVICE_ADDRESS;
 
@@ -31,7 +32,7 @@ public class CatalogueVerticle extends AbstractVerticle {
 
       WebClientOptions options =
           new WebClientOptions().setTrustAll(true).setVerifyHost(false).setSsl(true);
-      webClient = WebClient.create(vertx, options);
+      webClient = WebClients.create(vertx, "catalogue", options, config());
 
       catalogueClient =
           new CatalogueClientImpl(
@@ -1,13 +1,16 @@
 package org.cdpg.dx.catalogue.client;
 
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
 import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
 
 import java.util.Optional;
 
 public interface CatalogueClient {
 
-  Future<JsonArray> fetchCatalogueData();
+  /** Hands every active item to {@code itemHandler}, page by page, and completes after the last. */
+  Future<Void> fetchCatalogueData(Handler<JsonObject> itemHandler);
 
   Future<Optional<JsonArray>> getCatalogueInfoForId(String id);
 
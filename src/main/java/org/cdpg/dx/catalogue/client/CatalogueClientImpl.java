@@ -1,11 +1,18 @@
 package org.cdpg.dx.catalogue.client;
 
+import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
 import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.parsetools.JsonEventType;
+import io.vertx.core.parsetools.JsonParser;
+import io.vertx.ext.web.client.HttpResponse;
 import io.vertx.ext.web.client.WebClient;
 import io.vertx.ext.web.client.predicate.ResponsePredicate;
+import io.vertx.ext.web.codec.BodyCodec;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.cdpg.dx.common.exception.DxBadRequestException;
@@ -16,6 +23,7 @@ import java.util.Optional;
 
 public class CatalogueClientImpl implements CatalogueClient {
     private static final Logger LOGGER = LogManager.getLogger(CatalogueClientImpl.class);
+    private static final int PAGE_SIZE = 1000;
     private final WebClient webClient;
     private final String catHost;
     private final int catPort;
@@ -29,22 +37,28 @@ public class CatalogueClientImpl implements CatalogueClient {
     }
 
     @Override
-    public Future<JsonArray> fetchCatalogueData() {
-        Promise<JsonArray> promise = Promise.promise();
-        populateCatalogue().onSuccess(promise::complete).onFailure(promise::fail);
-        return promise.future();
+    public Future<Void> fetchCatalogueData(Handler<JsonObject> itemHandler) {
+        LOGGER.debug("refresh() cache started");
+        return populateCatalogue(0, itemHandler).onSuccess(done -> LOGGER.debug("refresh() catalogue completed"));
     }
 
-    private Future<JsonArray> populateCatalogue() {
-        LOGGER.debug("refresh() cache started");
-        Promise<JsonArray> promise = Promise.promise();
+    /*
+     * Streams one page of items to the handler and then fetches the next, until the catalogue's total
+     * has been read, or, when it does not report one, until a page comes back short.
+     */
+    private Future<Void> populateCatalogue(int offset, Handler<JsonObject> itemHandler) {
+        Promise<Void> promise = Promise.promise();
         String url = catBasePath + "/search";
-        webClient.get(catPort, catHost, url).addQueryParam("property", "[itemStatus]").addQueryParam("value", "[[ACTIVE]]").addQueryParam("filter", "[id,provider,name,description,label,accessPolicy,type," + "iudxResourceAPIs,instance,resourceGroup]").expect(ResponsePredicate.JSON).send(catHandler -> {
+        SearchPage page = new SearchPage(itemHandler);
+        webClient.get(catPort, catHost, url).addQueryParam("property", "[itemStatus]").addQueryParam("value", "[[ACTIVE]]").addQueryParam("filter", "[id,provider,name,description,label,accessPolicy,type," + "iudxResourceAPIs,instance,resourceGroup]").addQueryParam("offset", String.valueOf(offset)).addQueryParam("limit", String.valueOf(PAGE_SIZE)).expect(ResponsePredicate.JSON).as(BodyCodec.jsonStream(page.parser)).send(catHandler -> {
             if (catHandler.succeeded()) {
-                JsonArray response = catHandler.result().bodyAsJsonObject().getJsonArray("results");
-                LOGGER.debug("refresh() catalogue completed");
-                promise.complete(response);
-            } else if (catHandler.failed()) {
+                int next = offset + page.items;
+                if (page.isLast(next)) {
+                    promise.complete();
+                } else {
+                    populateCatalogue(next, itemHandler).onComplete(promise);
+                }
+            } else {
                 LOGGER.error("Failed to populate catalogue cache");
                 promise.fail(new DxNotFoundException("Failed to populate catalogue cache ", catHandler.cause()));
             }
@@ -58,17 +72,21 @@ public class CatalogueClientImpl implements CatalogueClient {
         Promise<Optional<JsonArray>> promise = Promise.promise();
         String url = catBasePath + "/search";
         webClient.get(catPort, catHost, url).addQueryParam("property", "[id]").addQueryParam("value", "[[" + id + "]]").addQueryParam("filter", "[id,provider,name,description,label,accessPolicy,type," + "iudxResourceAPIs,instance,resourceGroup]").expect(ResponsePredicate.JSON).send(catHandler -> {
-            if (catHandler.succeeded()) {
+            if (catHandler.succeeded() && isSuccess(catHandler.result())) {
                 JsonObject responseJson = catHandler.result().bodyAsJsonObject();
                 JsonArray response = responseJson.getJsonArray("results");
                 promise.complete(Optional.ofNullable(response));
-            } else {
-                LOGGER.error("Failed to call catalogue while getting catalogue info for id {}", catHandler.cause().getMessage());
-                if (catHandler.result().statusCode() == 404) {
+            } else if (catHandler.succeeded()) {
+                int statusCode = catHandler.result().statusCode();
+                LOGGER.error("Catalogue answered {} while getting catalogue info for id {}", statusCode, id);
+                if (statusCode == 404) {
                     promise.fail(new DxNotFoundException("id not found in catalogue"));
-                } else if (catHandler.result().statusCode() == 400) {
+                } else if (statusCode == 400) {
                     promise.fail(new DxBadRequestException("bad request"));
                 } else promise.fail(new DxInternalServerErrorException("Internal server error"));
+            } else {
+                LOGGER.error("Failed to call catalogue while getting catalogue info for id {}", catHandler.cause().getMessage());
+                promise.fail(new DxInternalServerErrorException("Internal server error"));
             }
         });
 
@@ -81,29 +99,105 @@ public class CatalogueClientImpl implements CatalogueClient {
         Promise<String> promise = Promise.promise();
         String relationshipCatPath = catBasePath + "/relationship";
         webClient.get(catPort, catHost, relationshipCatPath).addQueryParam("id", id).addQueryParam("rel", "provider").expect(ResponsePredicate.JSON).send(catHandler -> {
-            if (catHandler.succeeded()) {
-                JsonArray response = catHandler.result().bodyAsJsonObject().getJsonArray("results");
-                response.forEach(json -> {
-                    JsonObject res = (JsonObject) json;
-                    String providerUserId;
-                    providerUserId = res.getString("providerUserId");
-                    if (providerUserId == null) {
-                        providerUserId = res.getString("ownerUserId");
-                        LOGGER.info(" owneruserid : {}", providerUserId);
-                    }
-                    promise.complete(providerUserId);
-                });
-            } else {
-
-                LOGGER.error("Failed to call catalogue while getting provider user id {}", catHandler.cause().getMessage());
-                if (catHandler.result().statusCode() == 404) {
-                    promise.fail(new DxNotFoundException(catHandler.cause().getMessage()));
-                } else if (catHandler.result().statusCode() == 400) {
-                    promise.fail(new DxBadRequestException(catHandler.cause().getMessage()));
-                } else promise.fail(new DxInternalServerErrorException(catHandler.cause().getMessage()));
+            try {
+                handleProviderResponse(id, catHandler, promise);
+            } catch (RuntimeException e) {
+                // a malformed body must not leave the caller waiting forever
+                LOGGER.error("Failed to read provider user id for {} from catalogue: {}", id, e.getMessage());
+                promise.tryFail(new DxInternalServerErrorException("Internal server error"));
             }
         });
 
         return promise.future();
     }
+
+    private static void handleProviderResponse(String id, AsyncResult<HttpResponse<Buffer>> catHandler, Promise<String> promise) {
+        if (catHandler.succeeded() && isSuccess(catHandler.result())) {
+            JsonObject body = catHandler.result().bodyAsJsonObject();
+            JsonArray response = body == null ? null : body.getJsonArray("results");
+            if (response == null) {
+                LOGGER.error("Catalogue answered without results while getting provider user id for {}", id);
+                promise.fail(new DxInternalServerErrorException("Internal server error"));
+                return;
+            }
+            response.forEach(json -> {
+                JsonObject res = (JsonObject) json;
+                String providerUserId;
+                providerUserId = res.getString("providerUserId");
+                if (providerUserId == null) {
+                    providerUserId = res.getString("ownerUserId");
+                    LOGGER.info(" owneruserid : {}", providerUserId);
+                }
+                promise.tryComplete(providerUserId);
+            });
+            // no relationship found
+            promise.tryComplete(null);
+        } else if (catHandler.succeeded()) {
+            int statusCode = catHandler.result().statusCode();
+            String message = catHandler.result().statusMessage();
+            LOGGER.error("Catalogue answered {} while getting provider user id for {}", statusCode, id);
+            if (statusCode == 404) {
+                promise.fail(new DxNotFoundException(message));
+            } else if (statusCode == 400) {
+                promise.fail(new DxBadRequestException(message));
+            } else promise.fail(new DxInternalServerErrorException(message));
+        } else {
+            LOGGER.error("Failed to call catalogue while getting provider user id {}", catHandler.cause().getMessage());
+            promise.fail(new DxInternalServerErrorException(catHandler.cause().getMessage()));
+        }
+    }
+
+    /**
+     * Parses a search response as it arrives, handing each object of its {@code results} array over
+     * on its own, so that a page is never held in memory as a whole.
+     */
+    private static final class SearchPage {
+        private final JsonParser parser = JsonParser.newParser();
+        private int depth;
+        private int items;
+        private long totalHits = -1;
+
+        SearchPage(Handler<JsonObject> itemHandler) {
+            parser.handler(event -> {
+                switch (event.type()) {
+                    case START_OBJECT, START_ARRAY -> {
+                        depth++;
+                        if (depth == 2 && event.type() == JsonEventType.START_ARRAY && "results".equals(event.fieldName())) {
+                            // from here on each item arrives as one value
+                            parser.objectValueMode();
+                        }
+                    }
+                    case END_OBJECT, END_ARRAY -> {
+                        depth--;
+                        if (depth == 1) {
+                            parser.objectEventMode();
+                        }
+                    }
+                    case VALUE -> {
+                        if (depth == 1 && "totalHits".equals(event.fieldName()) && event.isNumber()) {
+                            totalHits = event.longValue();
+                        } else if (depth == 2 && event.isObject()) {
+                            items++;
+                            itemHandler.handle(event.objectValue());
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            });
+        }
+
+        /* A catalogue may cap a page below the limit asked for, so a short page only ends the search without a total. */
+        boolean isLast(int read) {
+            if (totalHits >= 0) {
+                return read >= totalHits || items == 0;
+            }
+            return items < PAGE_SIZE;
+        }
+    }
+
+    /* An error status still completes the request; only a failed exchange or predicate fails it. */
+    private static boolean isSuccess(HttpResponse<?> response) {
+        return response.statusCode() / 100 == 2;
+    }
 }
@@ -0,0 +1,119 @@
+package org.cdpg.dx.catalogue.service;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A catalogue item packed for keeping many of them in memory, and turned back into a
+ * {@link JsonObject} on access.
+ *
+ * <p>Most values repeat across items: field names, providers, types, instances, access policies,
+ * resource APIs. Those are interned, and arrays of them become arrays of the shared strings. Free
+ * text, which rarely repeats, is kept as UTF-8 bytes. The id stays a string, as the snapshot's key
+ * is the same instance. Anything else, such as nested objects, is kept encoded as JSON.
+ */
+final class CatalogueItem {
+  private static final Interner<String> STRINGS = Interners.newWeakInterner();
+  private static final Interner<List<String>> FIELD_NAMES = Interners.newWeakInterner();
+  private static final Set<String> TEXT_FIELDS = Set.of("name", "description", "label");
+  private static final String[] NO_STRINGS = new String[0];
+
+  private final List<String> fieldNames;
+  /* Each a String, a byte[] of UTF-8 text, a String[], a Number, a Boolean, null or a Buffer of JSON. */
+  private final Object[] values;
+
+  private CatalogueItem(List<String> fieldNames, Object[] values) {
+    this.fieldNames = fieldNames;
+    this.values = values;
+  }
+
+  static CatalogueItem of(JsonObject item) {
+    List<String> names = new ArrayList<>(item.size());
+    Object[] values = new Object[item.size()];
+    int i = 0;
+    for (Map.Entry<String, Object> field : item) {
+      String name = field.getKey();
+      names.add(STRINGS.intern(name));
+      values[i++] = pack(name, field.getValue());
+    }
+    return new CatalogueItem(FIELD_NAMES.intern(List.copyOf(names)), values);
+  }
+
+  JsonObject toJson() {
+    Map<String, Object> fields = new LinkedHashMap<>(fieldNames.size() * 4 / 3 + 1);
+    for (int i = 0; i < values.length; i++) {
+      fields.put(fieldNames.get(i), unpack(values[i]));
+    }
+    return new JsonObject(fields);
+  }
+
+  private static Object pack(String name, Object value) {
+    if (value instanceof String text) {
+      if (name.equals("id")) {
+        return text;
+      }
+      return TEXT_FIELDS.contains(name)
+          ? text.getBytes(StandardCharsets.UTF_8)
+          : STRINGS.intern(text);
+    }
+    if (value == null || value instanceof Number || value instanceof Boolean) {
+      return value;
+    }
+    if (value instanceof JsonArray array && isStrings(array)) {
+      if (array.isEmpty()) {
+        return NO_STRINGS;
+      }
+      String[] strings = new String[array.size()];
+      for (int i = 0; i < strings.length; i++) {
+        strings[i] = STRINGS.intern(array.getString(i));
+      }
+      return strings;
+    }
+    return Json.encodeToBuffer(value);
+  }
+
+  private static Object unpack(Object value) {
+    if (value instanceof byte[] text) {
+      return new String(text, StandardCharsets.UTF_8);
+    }
+    if (value instanceof String[] strings) {
+      return new JsonArray(new ArrayList<>(Arrays.asList(strings)));
+    }
+    if (value instanceof Buffer json) {
+      return Json.decodeValue(json);
+    }
+    return value;
+  }
+
+  private static boolean isStrings(JsonArray array) {
+    for (Object element : array) {
+      if (!(element instanceof String)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return o instanceof CatalogueItem other
+        && fieldNames.equals(other.fieldNames)
+        && Arrays.deepEquals(values, other.values);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * fieldNames.hashCode() + Arrays.deepHashCode(values);
+  }
+}
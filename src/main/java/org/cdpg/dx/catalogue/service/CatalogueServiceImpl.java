@@ -1,33 +1,49 @@
 package org.cdpg.dx.catalogue.service;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.cdpg.dx.catalogue.client.CatalogueClient;
 import org.cdpg.dx.common.exception.DxBadRequestException;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.cdpg.dx.common.ErrorMessage.BAD_REQUEST_ERROR;
 
+/**
+ * Serves catalogue items from a snapshot of all active items, refreshed once an hour, and looks up
+ * anything else item by item. Items are held as {@link CatalogueItem}s, so the whole catalogue fits
+ * in memory. A refresh swaps the new snapshot in only once it is
+ * complete, so requests keep being served from the previous one meanwhile and when the refresh
+ * fails. Single item lookups are cached, shared between concurrent callers and revalidated in the
+ * background, so a slow catalogue server never has more than one call per item in flight.
+ */
 public class CatalogueServiceImpl implements CatalogueService {
   private static final Logger LOGGER = LogManager.getLogger(CatalogueServiceImpl.class);
-  private final Cache<String, JsonObject> catalogueCache =
-      CacheBuilder.newBuilder().maximumSize(10000).expireAfterWrite(1L, TimeUnit.DAYS).build();
-  private final Cache<String, String> providerOwnerCache =
-      CacheBuilder.newBuilder().maximumSize(1000).expireAfterWrite(1L, TimeUnit.DAYS).build();
+  private static final long REFRESH_MILLIS = TimeUnit.HOURS.toMillis(1);
+  private static final long EXPIRE_MILLIS = TimeUnit.DAYS.toMillis(1);
+  private final AtomicReference<Map<String, CatalogueItem>> catalogue =
+      new AtomicReference<>(Map.of());
+  private final RevalidatingCache<CatalogueItem> catalogueCache =
+      new RevalidatingCache<>(this::idCatalogueInfo, 10000, REFRESH_MILLIS, EXPIRE_MILLIS);
+  private final RevalidatingCache<String> providerOwnerCache =
+      new RevalidatingCache<>(this::providerOwnerInfo, 1000, REFRESH_MILLIS, EXPIRE_MILLIS);
   private final CatalogueClient catalogueClient;
+  private Future<Void> refreshing;
 
   public CatalogueServiceImpl(Vertx vertx, CatalogueClient catalogueClient) {
     this.catalogueClient = catalogueClient;
     refreshCatalogue();
     vertx.setPeriodic(
-        TimeUnit.HOURS.toMillis(1),
+        REFRESH_MILLIS,
         handler -> {
           refreshCatalogue();
         });
@@ -35,123 +51,131 @@ public class CatalogueServiceImpl implements CatalogueService {
 
   @Override
   public Future<JsonObject> fetchCatalogueInfo(String id) {
-    Promise<JsonObject> promise = Promise.promise();
     LOGGER.trace("request for id : {}", id);
-    if (catalogueCache.getIfPresent(id) != null) {
-      return Future.succeededFuture(catalogueCache.getIfPresent(id));
-    } else {
-      idCatalogueInfo(id)
-          .onSuccess(
-              successHandler -> {
-                if (catalogueCache.getIfPresent(id) != null) {
-                  promise.complete(catalogueCache.getIfPresent(id));
-                } else {
-                  LOGGER.info("id :{} not found in catalogue server", id);
-                  promise.fail(new DxBadRequestException(BAD_REQUEST_ERROR));
-                }
-              })
-          .onFailure(promise::fail);
+    CatalogueItem item = catalogue.get().get(id);
+    if (item != null) {
+      return Future.succeededFuture(item.toJson());
     }
-    return promise.future();
+    return catalogueCache.get(id).map(CatalogueItem::toJson);
   }
 
   @Override
   public Future<String> getProviderOwnerId(String id) {
-    Promise<String> promise = Promise.promise();
-    if (providerOwnerCache.getIfPresent(id) != null) {
-      return Future.succeededFuture(providerOwnerCache.getIfPresent(id));
-    } else {
-      providerOwnerInfo(id)
-          .onSuccess(
-              successHandler -> {
-                if (providerOwnerCache.getIfPresent(id) != null) {
-                  promise.complete(providerOwnerCache.getIfPresent(id));
-                } else {
-                  LOGGER.info("id :{} not found in catalogue server", id);
-                    promise.fail(new DxBadRequestException(BAD_REQUEST_ERROR));
-                }
-              })
-          .onFailure(promise::fail);
-    }
-    return promise.future();
+    return providerOwnerCache.get(id);
   }
 
-  public Future<Void> refreshCatalogue() {
+  /** Fetches all active items and swaps them in; a refresh already under way is joined. */
+  public synchronized Future<Void> refreshCatalogue() {
     LOGGER.trace("refresh catalogue() called");
+    if (refreshing != null) {
+      return refreshing;
+    }
     Promise<Void> promise = Promise.promise();
+    refreshing = promise.future();
+    Map<String, CatalogueItem> current = catalogue.get();
+    Delta delta = new Delta(current);
     catalogueClient
-        .fetchCatalogueData()
+        .fetchCatalogueData(delta::apply)
         .onSuccess(
-            successHandler -> {
-                if(successHandler==null ){
-                    promise.complete();
-                }
-                else {
-                    catalogueCache.invalidateAll();
-                    successHandler.forEach(
-                            result -> {
-                                JsonObject res = (JsonObject) result;
-                                String rsId = res.getString("id");
-                                catalogueCache.put(rsId, res);
-                            });
-                    promise.complete();
-                }
+            fetched -> {
+              if (delta.next.isEmpty()) {
+                LOGGER.warn("Catalogue server returned no items, keeping the previous catalogue");
+              } else if (delta.changed()) {
+                catalogue.set(Collections.unmodifiableMap(delta.next));
+                LOGGER.info(
+                    "Catalogue refreshed: {} added, {} updated, {} removed",
+                    delta.added,
+                    delta.updated,
+                    delta.removed());
+              } else {
+                LOGGER.debug("Catalogue unchanged");
+              }
             })
         .onFailure(
-            failure -> {
-              LOGGER.error("Failed to refresh catalogue", failure);
-                promise.fail(failure);
+            failure -> LOGGER.error("Failed to refresh catalogue, keeping the previous one", failure))
+        .onComplete(
+            ar -> {
+              synchronized (this) {
+                refreshing = null;
+              }
+              promise.handle(ar.mapEmpty());
             });
     return promise.future();
   }
 
-  public Future<Void> idCatalogueInfo(String id) {
+  private Future<CatalogueItem> idCatalogueInfo(String id) {
     LOGGER.trace("id ::{}", id);
-    Promise<Void> promise = Promise.promise();
-    catalogueClient
+    return catalogueClient
         .getCatalogueInfoForId(id)
-        .onSuccess(
+        .compose(
             successHandler -> {
-              if (successHandler.isEmpty()) {
-                LOGGER.error("id :{} not found in catalogue server", id);
-                  promise.fail(new DxBadRequestException(BAD_REQUEST_ERROR));
-              } else {
-                successHandler
-                    .get()
-                    .forEach(
-                        result -> {
-                          JsonObject res = (JsonObject) result;
-                          catalogueCache.put(id, res);
-                        });
-                promise.complete();
+              if (successHandler.isEmpty() || successHandler.get().isEmpty()) {
+                LOGGER.info("id :{} not found in catalogue server", id);
+                return Future.failedFuture(new DxBadRequestException(BAD_REQUEST_ERROR));
               }
+              JsonArray results = successHandler.get();
+              return Future.succeededFuture(
+                  CatalogueItem.of(results.getJsonObject(results.size() - 1)));
             })
-        .onFailure(
-            failure -> {
-              LOGGER.error("Failed to found id catalogue");
-                promise.fail(failure);
-            });
-    return promise.future();
+        .onFailure(failure -> LOGGER.error("Failed to found id catalogue"));
   }
 
-  private Future<Void> providerOwnerInfo(String id) {
+  private Future<String> providerOwnerInfo(String id) {
     LOGGER.trace("id to check provider info:: {}", id);
-    Promise<Void> promise = Promise.promise();
-    catalogueClient
+    return catalogueClient
         .getProviderOwnerUserId(id)
-        .onSuccess(
-            successHandler -> {
-              providerOwnerCache.put(id, successHandler);
-              promise.complete();
+        .compose(
+            ownerId -> {
+              if (ownerId == null) {
+                LOGGER.info("id :{} not found in catalogue server", id);
+                return Future.failedFuture(new DxBadRequestException(BAD_REQUEST_ERROR));
+              }
+              return Future.succeededFuture(ownerId);
             })
-        .onFailure(
-            failure -> {
-              LOGGER.error("Failed to provider id details in catalogue {}", id);
+        .onFailure(failure -> LOGGER.error("Failed to provider id details in catalogue {}", id));
+  }
 
-              promise.fail(
-                 failure);
-            });
+  /**
+   * Builds the next snapshot from the items of a refresh as they arrive. Items that did not change
+   * keep the instance already in the current snapshot, so only what changed turns over, and an
+   * unchanged catalogue is not swapped at all.
+   */
+  private static final class Delta {
+    private final Map<String, CatalogueItem> current;
+    private final Map<String, CatalogueItem> next;
+    private int added;
+    private int updated;
 
-    return promise.future();
+    Delta(Map<String, CatalogueItem> current) {
+      this.current = current;
+      this.next = new HashMap<>(Math.max(16, current.size() * 4 / 3 + 1));
+    }
+
+    void apply(JsonObject item) {
+      String rsId = item.getString("id");
+      if (rsId == null || next.containsKey(rsId)) {
+        // an item can show up on two pages when the catalogue changes during a refresh
+        return;
+      }
+      CatalogueItem packed = CatalogueItem.of(item);
+      CatalogueItem previous = current.get(rsId);
+      if (previous == null) {
+        added++;
+        next.put(rsId, packed);
+      } else if (previous.equals(packed)) {
+        next.put(rsId, previous);
+      } else {
+        updated++;
+        next.put(rsId, packed);
+      }
+    }
+
+    int removed() {
+      return current.size() - (next.size() - added);
+    }
+
+    boolean changed() {
+      return added > 0 || updated > 0 || removed() > 0;
+    }
   }
 }
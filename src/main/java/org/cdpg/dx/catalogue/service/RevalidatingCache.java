@@ -0,0 +1,83 @@
+package org.cdpg.dx.catalogue.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A cache in front of a remote lookup. Concurrent misses for the same key share one call to the
+ * loader, and an entry older than {@code freshMillis} is still served while it is reloaded in the
+ * background, so callers only wait for the remote side when a key has never been loaded or has
+ * fully expired.
+ */
+final class RevalidatingCache<V> {
+  private static final Logger LOGGER = LogManager.getLogger(RevalidatingCache.class);
+
+  private final Function<String, Future<V>> loader;
+  private final long freshMillis;
+  private final Cache<String, Entry<V>> entries;
+  private final Map<String, Future<V>> loading = new ConcurrentHashMap<>();
+
+  RevalidatingCache(
+      Function<String, Future<V>> loader, long maxSize, long freshMillis, long expireMillis) {
+    this.loader = loader;
+    this.freshMillis = freshMillis;
+    this.entries =
+        CacheBuilder.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(expireMillis, TimeUnit.MILLISECONDS)
+            .build();
+  }
+
+  Future<V> get(String key) {
+    Entry<V> entry = entries.getIfPresent(key);
+    if (entry == null) {
+      return load(key);
+    }
+    if (System.currentTimeMillis() - entry.loadedAt() > freshMillis) {
+      load(key)
+          .onFailure(
+              failure ->
+                  LOGGER.warn("Could not revalidate {}, serving the cached value: {}",
+                      key, failure.getMessage()));
+    }
+    return Future.succeededFuture(entry.value());
+  }
+
+  private Future<V> load(String key) {
+    Future<V> pending = loading.get(key);
+    if (pending != null) {
+      return pending;
+    }
+    Promise<V> promise = Promise.promise();
+    pending = loading.putIfAbsent(key, promise.future());
+    if (pending != null) {
+      return pending;
+    }
+    Future<V> loaded;
+    try {
+      loaded = loader.apply(key);
+    } catch (RuntimeException e) {
+      // a loader that throws instead of failing must not leave the key loading forever
+      loaded = Future.failedFuture(e);
+    }
+    loaded.onComplete(
+        ar -> {
+          if (ar.succeeded()) {
+            entries.put(key, new Entry<>(ar.result(), System.currentTimeMillis()));
+          }
+          loading.remove(key, promise.future());
+          promise.handle(ar);
+        });
+    return promise.future();
+  }
+
+  private record Entry<V>(V value, long loadedAt) {}
+}
@@ -17,12 +17,15 @@ import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.cdpg.dx.common.exception.DxBadRequestException;
+import org.cdpg.dx.common.exception.DxUnauthorizedException;
+import org.cdpg.dx.common.util.SearchCursor;
 import org.cdpg.dx.database.elastic.model.*;
 
 public class PostSearchRequestBuilder {
   private static final Logger LOGGER = LogManager.getLogger(PostSearchRequestBuilder.class);
   boolean isCountApi = false;
   boolean isAssetSearch = false;
+  boolean isListApi = false;
   private RoutingContext routingContext;
   private String defaultSortBy = "itemCreatedAt";
   private String defaultOrder = "desc";
@@ -45,10 +48,15 @@ public class PostSearchRequestBuilder {
     return this;
   }
 
+  public PostSearchRequestBuilder setListApi(boolean listApi) {
+    isListApi = listApi;
+    return this;
+  }
+
   public QueryDecoderRequestDTO build() {
     JsonObject requestBody = routingContext.getBodyAsJson();
     MultiMap params = routingContext.queryParams();
-    return new QueryDecoderRequestDTO(
+    QueryDecoderRequestDTO request = new QueryDecoderRequestDTO(
         buildSearchType(requestBody),
         getSize(params),
         getPage(params),
@@ -60,6 +68,35 @@ public class PostSearchRequestBuilder {
         getInstanceFilterRequest(requestBody),
         getResponseFilterRequest(requestBody),
         extractSortOrders());
+
+    SearchCursor cursor = getCursor(params);
+    if (cursor != null) {
+      request.setCursor(cursor);
+      // search_after needs a stable order to resume from
+      if (request.getSort() == null) {
+        request.setSort(List.of(
+            new OrderBy(defaultSortBy, OrderBy.Direction.valueOf(defaultOrder.toUpperCase()))));
+      }
+    }
+    return request;
+  }
+
+  private SearchCursor getCursor(MultiMap params) {
+    String cursor = params.get(CURSOR_KEY);
+    if (cursor == null) {
+      return null;
+    }
+    if (isCountApi) {
+      throw new DxBadRequestException("Cursor pagination is not supported for count");
+    }
+    if (isListApi) {
+      throw new DxBadRequestException("Cursor pagination is not supported for list");
+    }
+    // every cursor holds a point in time open on the cluster, so anonymous callers cannot page
+    if (getSub(routingContext) == null) {
+      throw new DxUnauthorizedException("Cursor pagination requires a token");
+    }
+    return SearchCursor.decode(cursor);
   }
 
   public int getSize(MultiMap params) {
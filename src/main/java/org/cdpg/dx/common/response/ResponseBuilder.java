@@ -1,11 +1,17 @@
 package org.cdpg.dx.common.response;
 
 
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.Json;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.RoutingContext;
 import org.cdpg.dx.common.HttpStatusCode;
 import org.cdpg.dx.common.response.DxResponse;
 import org.cdpg.dx.common.util.PaginationInfo;
+import org.cdpg.dx.common.util.RequestTimings;
+
+import java.util.List;
 
 public class ResponseBuilder {
 
@@ -26,7 +32,9 @@ public class ResponseBuilder {
             RoutingContext ctx, HttpStatusCode status, String detail, T results,
             PaginationInfo pageInfo, Integer totalHits) {
 
+        long start = System.nanoTime();
         if (status == HttpStatusCode.NO_CONTENT) {
+            RequestTimings.responded(ctx, start);
             ctx.response().setStatusCode(status.getValue()).end();
             return;
         }
@@ -34,13 +42,29 @@ public class ResponseBuilder {
         DxResponse<T> response = (totalHits == null)
                 ? new DxResponse<>(status.getUrn(), status.getDescription(), detail, results, pageInfo)
                 : new DxResponse<>(status.getUrn(), status.getDescription(), detail, results, pageInfo, totalHits);
-        ctx.response()
-                .setStatusCode(status.getValue())
+        Buffer body = Json.encodeToBuffer(response);
+        RequestTimings.responded(ctx, start);
+        applyHeaders(ctx.response().setStatusCode(status.getValue()))
+                .end(body);
+    }
+
+    static HttpServerResponse applyHeaders(HttpServerResponse response) {
+        return response
                 .putHeader("Content-Type", "application/json")
                 .putHeader("Access-Control-Allow-Origin", "*")
                 .putHeader("Access-Control-Allow-Headers", "Content-Type, Authorization")
-                .putHeader("Access-Control-Allow-Methods", "GET, POST,PUT, DELETE, OPTIONS")
-                .end(JsonObject.mapFrom(response).encode());
+                .putHeader("Access-Control-Allow-Methods", "GET, POST,PUT, DELETE, OPTIONS");
+    }
+
+    /**
+     * Sends a search page through {@link StreamingResponseWriter} instead of encoding the whole
+     * body up front. Meant for responses whose results list can be large.
+     */
+    public static void streamSuccess(
+            RoutingContext ctx, List<JsonObject> results, PaginationInfo pageInfo, int totalHits) {
+        // results are encoded chunk by chunk as they are written, so that counts as writing
+        RequestTimings.responded(ctx, System.nanoTime());
+        StreamingResponseWriter.writeSuccess(ctx.response(), results, pageInfo, totalHits);
     }
 
         public static void sendSuccess(RoutingContext ctx, String detail) {
@@ -0,0 +1,108 @@
+package org.cdpg.dx.common.response;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonObject;
+import java.util.Iterator;
+import java.util.List;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.cdpg.dx.common.HttpStatusCode;
+import org.cdpg.dx.common.util.PaginationInfo;
+
+/**
+ * Writes a {@link DxResponse} shaped body as a chunked stream: the envelope header, then the
+ * results one after another, then the pagination trailer. Results are flushed in bounded chunks
+ * and writing pauses while the connection's write queue is full, so a large page is never held
+ * as one encoded string.
+ */
+public class StreamingResponseWriter {
+  private static final Logger LOGGER = LogManager.getLogger(StreamingResponseWriter.class);
+  private static final int CHUNK_SIZE = 16 * 1024;
+
+  private final HttpServerResponse response;
+  private final Iterator<JsonObject> results;
+  private final PaginationInfo pageInfo;
+  private final boolean withResults;
+  private Buffer chunk;
+  private boolean first = true;
+
+  private StreamingResponseWriter(
+      HttpServerResponse response, List<JsonObject> results, PaginationInfo pageInfo) {
+    this.response = response;
+    this.withResults = results != null;
+    this.results = withResults ? results.iterator() : List.<JsonObject>of().iterator();
+    this.pageInfo = pageInfo;
+  }
+
+  /**
+   * Streams a success response. The body is identical to what {@link ResponseBuilder#send} would
+   * produce for the same arguments.
+   */
+  public static void writeSuccess(
+      HttpServerResponse response, List<JsonObject> results, PaginationInfo pageInfo,
+      Integer totalHits) {
+    HttpStatusCode status = HttpStatusCode.SUCCESS;
+    Buffer header = Buffer.buffer(256)
+        .appendString("{\"type\":").appendString(Json.encode(status.getUrn()))
+        .appendString(",\"title\":").appendString(Json.encode(status.getDescription()));
+    if (totalHits != null) {
+      header.appendString(",\"totalHits\":").appendString(totalHits.toString());
+    }
+    if (results != null) {
+      // an empty page is still written as an empty array, as Jackson does
+      header.appendString(",\"results\":[");
+    }
+
+    ResponseBuilder.applyHeaders(response.setStatusCode(status.getValue()));
+    response.setChunked(true);
+
+    StreamingResponseWriter writer =
+        new StreamingResponseWriter(response, results, pageInfo);
+    writer.chunk = header;
+    writer.writeResults();
+  }
+
+  private void writeResults() {
+    try {
+      while (results.hasNext()) {
+        if (response.closed()) {
+          LOGGER.debug("Client went away, abandoning streamed response");
+          return;
+        }
+        if (!first) {
+          chunk.appendByte((byte) ',');
+        }
+        first = false;
+        chunk.appendBuffer(results.next().toBuffer());
+        if (chunk.length() >= CHUNK_SIZE) {
+          response.write(chunk);
+          chunk = Buffer.buffer(CHUNK_SIZE);
+          if (response.writeQueueFull()) {
+            response.drainHandler(v -> {
+              response.drainHandler(null);
+              writeResults();
+            });
+            return;
+          }
+        }
+      }
+      writeTrailer();
+    } catch (Exception e) {
+      LOGGER.error("Failed while streaming response: {}", e.getMessage(), e);
+      response.reset();
+    }
+  }
+
+  private void writeTrailer() {
+    if (withResults) {
+      chunk.appendByte((byte) ']');
+    }
+    if (pageInfo != null) {
+      chunk.appendString(",\"paginationInfo\":").appendBuffer(Json.encodeToBuffer(pageInfo));
+    }
+    chunk.appendByte((byte) '}');
+    response.end(chunk);
+  }
+}
@@ -0,0 +1,20 @@
+package org.cdpg.dx.common.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.vertx.micrometer.backends.BackendRegistries;
+
+/** Access to the Micrometer registry backing the Prometheus endpoint. */
+public final class MeterRegistries {
+
+  private MeterRegistries() {}
+
+  /**
+   * Registry Vert.x metrics are published to. When Vert.x runs without metrics enabled the global
+   * registry is returned instead, so meters can always be registered.
+   */
+  public static MeterRegistry get() {
+    MeterRegistry registry = BackendRegistries.getDefaultNow();
+    return registry != null ? registry : Metrics.globalRegistry;
+  }
+}
@@ -1,5 +1,6 @@
 package org.cdpg.dx.common.util;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.vertx.core.json.JsonObject;
 
 public class PaginationInfo {
@@ -9,6 +10,8 @@ public class PaginationInfo {
   private int totalPages;
   private boolean hasNext;
   private boolean hasPrevious;
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private String cursor;
 
   public PaginationInfo(
       int page, int size, long totalCount, int totalPages, boolean hasNext, boolean hasPrevious) {
@@ -68,13 +71,33 @@ public class PaginationInfo {
     this.hasPrevious = hasPrevious;
   }
 
+  /** Opaque cursor for the next page of a cursor paginated search, null otherwise. */
+  public String getCursor() {
+    return cursor;
+  }
+
+  public void setCursor(String cursor) {
+    this.cursor = cursor;
+  }
+
+  public PaginationInfo copy() {
+    PaginationInfo copy =
+        new PaginationInfo(page, size, totalCount, totalPages, hasNext, hasPrevious);
+    copy.cursor = cursor;
+    return copy;
+  }
+
   public JsonObject toJson() {
-    return new JsonObject()
+    JsonObject json = new JsonObject()
             .put("page", page)
             .put("size", size)
             .put("totalCount", totalCount)
             .put("totalPages", totalPages)
             .put("hasNext", hasNext)
             .put("hasPrevious", hasPrevious);
+    if (cursor != null) {
+      json.put("cursor", cursor);
+    }
+    return json;
   }
 }
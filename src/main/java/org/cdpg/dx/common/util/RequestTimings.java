@@ -0,0 +1,147 @@
+package org.cdpg.dx.common.util;
+
+import io.micrometer.core.instrument.Timer;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.ext.web.Route;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.handler.PlatformHandler;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time spent by a request in each stage of its handling, exported per OpenAPI operation as the
+ * {@code tgdex.http.request.phase} timer.
+ *
+ * <p>{@link #handler} runs as a router root handler. It keeps the timings of the request both on the
+ * routing context and on the request's Vert.x context, so services that never see the routing
+ * context can still record their phases; their callbacks run on that same context. Meters are
+ * written once the response has ended, when the operation is known.
+ */
+public final class RequestTimings {
+  public static final String AUTH = "auth";
+  public static final String REQUEST_BUILD = "request_build";
+  public static final String QUERY_DECODE = "query_decode";
+  /** Round trip to the Elasticsearch service minus the time Elasticsearch reports. */
+  public static final String EVENT_BUS = "event_bus";
+  /** The {@code took} Elasticsearch reports for its part of a search. */
+  public static final String ELASTICSEARCH = "elasticsearch";
+  public static final String RESPONSE_BUILD = "response_build";
+  /** From the response being handed over until its last byte was written. */
+  public static final String WRITE = "write";
+  public static final String TOTAL = "total";
+
+  private static final String KEY = RequestTimings.class.getName();
+  private static final String METRIC = "tgdex.http.request.phase";
+  private static final Map<String, Timer> TIMERS = new ConcurrentHashMap<>();
+
+  private final long startNanos = System.nanoTime();
+  private final Map<String, Long> phases = new ConcurrentHashMap<>();
+  private volatile String operation;
+  private volatile long respondedAt;
+
+  private RequestTimings() {}
+
+  /**
+   * Root handler that starts timing the request. A platform handler, so that it can go before the
+   * timeout and body handlers and the time spent reading the body is counted.
+   */
+  public static PlatformHandler handler() {
+    return RequestTimings::start;
+  }
+
+  private static void start(RoutingContext ctx) {
+    RequestTimings timings = new RequestTimings();
+    ctx.put(KEY, timings);
+    Context context = Vertx.currentContext();
+    if (context != null) {
+      context.putLocal(KEY, timings);
+    }
+    ctx.addEndHandler(v -> timings.finish(ctx));
+    ctx.next();
+  }
+
+  /** Records a phase of the request being routed, from {@code startNanos} until now. */
+  public static void record(RoutingContext ctx, String phase, long startNanos) {
+    RequestTimings timings = ctx.get(KEY);
+    if (timings != null) {
+      timings.captureOperation(ctx);
+      timings.add(phase, System.nanoTime() - startNanos);
+    }
+  }
+
+  /**
+   * Records a phase of the request handled on the current context, from {@code startNanos} until
+   * now. Does nothing outside of a request.
+   */
+  public static void record(String phase, long startNanos) {
+    RequestTimings timings = current();
+    if (timings != null) {
+      timings.add(phase, System.nanoTime() - startNanos);
+    }
+  }
+
+  /**
+   * Records a search sent to the Elasticsearch service at {@code startNanos}, splitting the round
+   * trip into what Elasticsearch reports it spent and the rest.
+   */
+  public static void recordSearch(long startNanos, long tookMillis) {
+    RequestTimings timings = current();
+    if (timings != null) {
+      long roundTrip = System.nanoTime() - startNanos;
+      long took = Math.min(TimeUnit.MILLISECONDS.toNanos(tookMillis), roundTrip);
+      timings.add(ELASTICSEARCH, took);
+      timings.add(EVENT_BUS, roundTrip - took);
+    }
+  }
+
+  /** Records building the response from {@code startNanos}, and that writing it starts now. */
+  public static void responded(RoutingContext ctx, long startNanos) {
+    record(ctx, RESPONSE_BUILD, startNanos);
+    RequestTimings timings = ctx.get(KEY);
+    if (timings != null) {
+      timings.respondedAt = System.nanoTime();
+    }
+  }
+
+  private static RequestTimings current() {
+    Context context = Vertx.currentContext();
+    return context == null ? null : context.getLocal(KEY);
+  }
+
+  private void add(String phase, long nanos) {
+    phases.merge(phase, nanos, Long::sum);
+  }
+
+  private void captureOperation(RoutingContext ctx) {
+    if (operation == null) {
+      Route route = ctx.currentRoute();
+      operation = route == null ? null : route.getName();
+    }
+  }
+
+  private void finish(RoutingContext ctx) {
+    captureOperation(ctx);
+    String name = operation;
+    // routes outside the OpenAPI contract, such as the docs, are not timed
+    if (name == null || name.startsWith("/")) {
+      return;
+    }
+    long now = System.nanoTime();
+    if (respondedAt != 0) {
+      add(WRITE, now - respondedAt);
+    }
+    add(TOTAL, now - startNanos);
+    phases.forEach((phase, nanos) -> timer(name, phase).record(nanos, TimeUnit.NANOSECONDS));
+  }
+
+  private static Timer timer(String operation, String phase) {
+    return TIMERS.computeIfAbsent(operation + '|' + phase,
+        k -> Timer.builder(METRIC)
+            .description("Time a request spends in each stage of its handling")
+            .tags("operation", operation, "phase", phase)
+            .publishPercentileHistogram()
+            .register(MeterRegistries.get()));
+  }
+}
@@ -0,0 +1,72 @@
+package org.cdpg.dx.common.util;
+
+import static org.cdpg.dx.database.elastic.util.Constants.CURSOR_START;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.cdpg.dx.common.exception.DxBadRequestException;
+
+/**
+ * Opaque cursor handed to clients for cursor paginated searches. It carries the Elasticsearch
+ * point in time id and the sort values of the last hit returned, which is all that is needed to
+ * fetch the next page with {@code search_after}.
+ */
+public final class SearchCursor {
+  private static final String PIT_ID = "pit";
+  private static final String SEARCH_AFTER = "after";
+  /** Cursor of the first page; no point in time has been opened yet. */
+  public static final SearchCursor START = new SearchCursor(null, null);
+
+  private final String pitId;
+  private final JsonArray searchAfter;
+
+  public SearchCursor(String pitId, JsonArray searchAfter) {
+    this.pitId = pitId;
+    this.searchAfter = searchAfter;
+  }
+
+  public static SearchCursor decode(String cursor) {
+    if (CURSOR_START.equals(cursor)) {
+      return START;
+    }
+    try {
+      JsonObject json =
+          new JsonObject(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+      String pitId = json.getString(PIT_ID);
+      JsonArray searchAfter = json.getJsonArray(SEARCH_AFTER);
+      if (pitId == null || pitId.isBlank() || searchAfter == null || searchAfter.isEmpty()) {
+        throw new DxBadRequestException("Invalid cursor");
+      }
+      for (Object value : searchAfter) {
+        // sort values are plain values, anything else was not written by us
+        if (value instanceof JsonObject || value instanceof JsonArray) {
+          throw new DxBadRequestException("Invalid cursor");
+        }
+      }
+      return new SearchCursor(pitId, searchAfter);
+    } catch (DxBadRequestException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new DxBadRequestException("Invalid cursor", e);
+    }
+  }
+
+  public String encode() {
+    JsonObject json = new JsonObject().put(PIT_ID, pitId).put(SEARCH_AFTER, searchAfter);
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(json.toBuffer().getBytes());
+  }
+
+  public boolean isStart() {
+    return pitId == null;
+  }
+
+  public String getPitId() {
+    return pitId;
+  }
+
+  public JsonArray getSearchAfter() {
+    return searchAfter;
+  }
+}
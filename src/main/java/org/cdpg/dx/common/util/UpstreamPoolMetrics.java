@@ -0,0 +1,76 @@
+package org.cdpg.dx.common.util;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures the connection pool of one upstream, tagged with the client's name: the Vert.x HTTP
+ * client metrics only tell pools apart by remote address. A request waits for a connection from
+ * creating its request until it is sent, and holds it until its response has been dispatched or it
+ * failed. The phases come from {@link WebClientPhases}.
+ */
+final class UpstreamPoolMetrics implements WebClientPhases.Listener<UpstreamPoolMetrics.Request> {
+  /* Shared by all clients of a name, as they share the pool. */
+  private static final Map<String, UpstreamPoolMetrics> BY_NAME = new ConcurrentHashMap<>();
+
+  private final AtomicInteger waiting = new AtomicInteger();
+  private final AtomicInteger active = new AtomicInteger();
+  private final Timer waitTime;
+
+  private UpstreamPoolMetrics(String name) {
+    MeterRegistry registry = MeterRegistries.get();
+    Gauge.builder("tgdex.http.client.pool.pending", waiting, AtomicInteger::get)
+        .description("Requests to the upstream waiting for a connection")
+        .tag("upstream", name)
+        .register(registry);
+    Gauge.builder("tgdex.http.client.pool.active", active, AtomicInteger::get)
+        .description("Requests to the upstream holding a connection")
+        .tag("upstream", name)
+        .register(registry);
+    waitTime = Timer.builder("tgdex.http.client.pool.wait")
+        .description("Time a request to the upstream waited for a connection")
+        .tag("upstream", name)
+        .publishPercentileHistogram()
+        .register(registry);
+  }
+
+  static UpstreamPoolMetrics forName(String name) {
+    return BY_NAME.computeIfAbsent(name, UpstreamPoolMetrics::new);
+  }
+
+  @Override
+  public Request created() {
+    waiting.incrementAndGet();
+    return new Request(System.nanoTime());
+  }
+
+  @Override
+  public void sent(Request request) {
+    if (!request.active) {
+      waiting.decrementAndGet();
+      waitTime.record(System.nanoTime() - request.since, TimeUnit.NANOSECONDS);
+      request.active = true;
+      active.incrementAndGet();
+    }
+  }
+
+  @Override
+  public void done(Request request) {
+    (request.active ? active : waiting).decrementAndGet();
+  }
+
+  /** One request to the upstream: when it started waiting, and whether it holds a connection. */
+  static final class Request {
+    private final long since;
+    private boolean active;
+
+    private Request(long since) {
+      this.since = since;
+    }
+  }
+}
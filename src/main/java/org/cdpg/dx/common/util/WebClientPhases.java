@@ -0,0 +1,59 @@
+package org.cdpg.dx.common.util;
+
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.client.impl.HttpContext;
+import io.vertx.ext.web.client.impl.WebClientInternal;
+
+/**
+ * Tells a listener when each request of a web client waits for a connection, is sent, and is done.
+ *
+ * <p>VERTX INTERNALS: the public web client API does not expose these phases, so this is done with
+ * an interceptor, which is internal API ({@link WebClientInternal}, {@link HttpContext}). This
+ * class is the only place that uses it, and has to be checked on every Vert.x upgrade.
+ */
+final class WebClientPhases {
+  private WebClientPhases() {}
+
+  /** The phases of one request; {@code S} is whatever the listener keeps per request. */
+  interface Listener<S> {
+    /** The request was created and now waits for a connection. */
+    S created();
+
+    /** The request got its connection and is written to it. */
+    void sent(S request);
+
+    /** The response was handed over or the request failed: it no longer holds a connection. */
+    void done(S request);
+  }
+
+  static <S> void listen(WebClient client, Listener<S> listener) {
+    String key = WebClientPhases.class.getName() + "." + System.identityHashCode(listener);
+    ((WebClientInternal) client).addInterceptor((HttpContext<?> context) -> {
+      switch (context.phase()) {
+        case CREATE_REQUEST -> {
+          // a redirect creates a new request on the same context
+          done(context, key, listener);
+          context.set(key, listener.created());
+        }
+        case SEND_REQUEST -> {
+          S request = context.get(key);
+          if (request != null) {
+            listener.sent(request);
+          }
+        }
+        case DISPATCH_RESPONSE, FAILURE -> done(context, key, listener);
+        default -> {
+        }
+      }
+      context.next();
+    });
+  }
+
+  private static <S> void done(HttpContext<?> context, String key, Listener<S> listener) {
+    S request = context.get(key);
+    if (request != null) {
+      context.set(key, null);
+      listener.done(request);
+    }
+  }
+}
@@ -0,0 +1,67 @@
+package org.cdpg.dx.common.util;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.client.WebClientOptions;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Web clients for the upstream services this server calls. All verticle instances share one
+ * connection pool per client name, sized from the module config:
+ *
+ * <ul>
+ *   <li>{@code httpClientMaxPoolSize}: HTTP/1.1 connections per upstream, 32 by default
+ *   <li>{@code httpClientMaxWaitQueueSize}: requests waiting for a connection before new ones are
+ *       rejected, unbounded by default
+ *   <li>{@code httpClientHttp2}: offer HTTP/2 over TLS, falling back to HTTP/1.1 when the upstream
+ *       does not take it, on by default
+ *   <li>{@code httpClientHttp2MaxPoolSize}, {@code httpClientHttp2MultiplexingLimit}: HTTP/2
+ *       connections per upstream, 1 by default, and streams per connection, as many as the
+ *       upstream allows by default
+ *   <li>{@code httpClientPipelining}, {@code httpClientPipeliningLimit}: HTTP/1.1 pipelining, off
+ *       by default as a slow response then holds up the ones behind it
+ *   <li>{@code httpClientIdleTimeoutSeconds}: idle connections are closed after this, 60 by
+ *       default
+ * </ul>
+ *
+ * <p>Pool wait time, requests waiting for a connection and requests holding one are exported per
+ * client name as {@code tgdex.http.client.pool.wait}, {@code tgdex.http.client.pool.pending} and
+ * {@code tgdex.http.client.pool.active}.
+ */
+public final class WebClients {
+
+  private WebClients() {}
+
+  /** A client named {@code name}, with {@code options} completed by the pool settings in config. */
+  public static WebClient create(
+      Vertx vertx, String name, WebClientOptions options, JsonObject config) {
+    int idleTimeout = config.getInteger("httpClientIdleTimeoutSeconds", 60);
+    options
+        .setShared(true)
+        .setName(name)
+        .setMetricsName(name)
+        .setKeepAlive(true)
+        .setKeepAliveTimeout(idleTimeout)
+        .setIdleTimeout(idleTimeout)
+        .setIdleTimeoutUnit(TimeUnit.SECONDS)
+        .setMaxPoolSize(config.getInteger("httpClientMaxPoolSize", 32))
+        .setMaxWaitQueueSize(config.getInteger("httpClientMaxWaitQueueSize", -1))
+        .setPipelining(config.getBoolean("httpClientPipelining", false))
+        .setPipeliningLimit(config.getInteger("httpClientPipeliningLimit", 10))
+        .setHttp2MaxPoolSize(config.getInteger("httpClientHttp2MaxPoolSize", 1))
+        .setHttp2MultiplexingLimit(config.getInteger("httpClientHttp2MultiplexingLimit", -1));
+    if (options.isSsl() && config.getBoolean("httpClientHttp2", true)) {
+      // negotiated with ALPN, so an upstream without HTTP/2 is still spoken to over HTTP/1.1
+      options
+          .setProtocolVersion(HttpVersion.HTTP_2)
+          .setUseAlpn(true)
+          .setAlpnVersions(List.of(HttpVersion.HTTP_2, HttpVersion.HTTP_1_1));
+    }
+    WebClient client = WebClient.create(vertx, options);
+    WebClientPhases.listen(client, UpstreamPoolMetrics.forName(name));
+    return client;
+  }
+}
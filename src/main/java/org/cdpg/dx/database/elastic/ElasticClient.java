@@ -8,35 +8,111 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vertx.core.json.JsonObject;
 import org.apache.http.HttpHost;
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.UsernamePasswordCredentials;
 import org.apache.http.client.CredentialsProvider;
 import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.pool.PoolStats;
+import org.cdpg.dx.common.util.MeterRegistries;
+import org.elasticsearch.client.Node;
+import org.elasticsearch.client.NodeSelector;
 import org.elasticsearch.client.RestClient;
+import org.elasticsearch.client.RestClientBuilder;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.ToIntFunction;
 
+/**
+ * The Elasticsearch client, with its connection pool and I/O threads sized from the module config:
+ *
+ * <ul>
+ *   <li>{@code elasticMaxConnections}, {@code elasticMaxConnectionsPerNode}: pooled connections in
+ *       total and to each node, 100 and 50 by default
+ *   <li>{@code elasticIoThreads}: I/O reactor threads, one per processor by default
+ *   <li>{@code elasticCompression}: gzip request bodies and ask for gzipped responses, off by
+ *       default
+ *   <li>{@code elasticSniffIntervalMs}, {@code elasticSniffAfterFailureDelayMs}: look the cluster
+ *       nodes up this often, and this soon after a node failed; off by default
+ * </ul>
+ *
+ * <p>Requests are spread round robin over the nodes, and a node that fails is left out for a
+ * growing while. The connection pool is exported as {@code tgdex.elasticsearch.pool.connections}.
+ */
 public class ElasticClient {
+  private static final Queue<PoolingNHttpClientConnectionManager> POOLS =
+      new ConcurrentLinkedQueue<>();
 
   private final ElasticsearchAsyncClient client;
   private final RestClient rsClient;
+  private final PoolingNHttpClientConnectionManager pool;
+  private final ElasticNodeSniffer sniffer;
 
   public ElasticClient(
-          String databaseIp,
-          int databasePort,
+          List<HttpHost> nodes,
           String databaseUser,
-          String databasePassword) {
+          String databasePassword,
+          JsonObject config) {
 
     CredentialsProvider credentials = new BasicCredentialsProvider();
     credentials.setCredentials(
             AuthScope.ANY, new UsernamePasswordCredentials(databaseUser, databasePassword));
 
-    this.rsClient =
-            RestClient.builder(new HttpHost(databaseIp, databasePort))
-                    .setHttpClientConfigCallback(
-                            httpClientBuilder -> httpClientBuilder.setDefaultCredentialsProvider(credentials))
-                    .build();
+    IOReactorConfig ioReactorConfig =
+        IOReactorConfig.custom()
+            .setIoThreadCount(
+                config.getInteger("elasticIoThreads", Runtime.getRuntime().availableProcessors()))
+            .setSoKeepAlive(true)
+            .build();
+    try {
+      pool = new PoolingNHttpClientConnectionManager(new DefaultConnectingIOReactor(ioReactorConfig));
+    } catch (IOReactorException e) {
+      throw new UncheckedIOException(e);
+    }
+    pool.setMaxTotal(config.getInteger("elasticMaxConnections", 100));
+    pool.setDefaultMaxPerRoute(config.getInteger("elasticMaxConnectionsPerNode", 50));
+    registerPoolMetrics(pool);
+
+    long sniffIntervalMs = config.getLong("elasticSniffIntervalMs", 0L);
+    sniffer =
+        sniffIntervalMs > 0
+            ? new ElasticNodeSniffer(
+                sniffIntervalMs, config.getLong("elasticSniffAfterFailureDelayMs", 60_000L))
+            : null;
+
+    RestClientBuilder builder =
+        RestClient.builder(nodes.toArray(HttpHost[]::new))
+            .setCompressionEnabled(config.getBoolean("elasticCompression", false))
+            .setNodeSelector(NodeSelector.SKIP_DEDICATED_MASTERS)
+            .setHttpClientConfigCallback(
+                httpClientBuilder ->
+                    httpClientBuilder
+                        .setDefaultCredentialsProvider(credentials)
+                        .setConnectionManager(pool));
+    if (sniffer != null) {
+      builder.setFailureListener(
+          new RestClient.FailureListener() {
+            @Override
+            public void onFailure(Node node) {
+              sniffer.onFailure(node);
+            }
+          });
+    }
+    this.rsClient = builder.build();
+    if (sniffer != null) {
+      sniffer.start(rsClient);
+    }
 
     // Enable Jackson to allow comments in the JSON response
     ObjectMapper objectMapper = new ObjectMapper();
@@ -61,6 +137,29 @@ public class ElasticClient {
   }
 
   public void close() throws IOException {
+    if (sniffer != null) {
+      sniffer.close();
+    }
     rsClient.close();
+    POOLS.remove(pool);
+  }
+
+  /* One set of gauges over the pools of all open clients; the verticle instances share one. */
+  private static void registerPoolMetrics(PoolingNHttpClientConnectionManager pool) {
+    POOLS.add(pool);
+    MeterRegistry registry = MeterRegistries.get();
+    poolGauge(registry, "leased", PoolStats::getLeased);
+    poolGauge(registry, "pending", PoolStats::getPending);
+    poolGauge(registry, "available", PoolStats::getAvailable);
+    poolGauge(registry, "max", PoolStats::getMax);
+  }
+
+  private static void poolGauge(
+      MeterRegistry registry, String state, ToIntFunction<PoolStats> value) {
+    Gauge.builder("tgdex.elasticsearch.pool.connections", POOLS,
+            pools -> pools.stream().mapToInt(p -> value.applyAsInt(p.getTotalStats())).sum())
+        .description("Elasticsearch client connections, and requests waiting for one")
+        .tag("state", state)
+        .register(registry);
   }
 }
\ No newline at end of file
@@ -0,0 +1,177 @@
+package org.cdpg.dx.database.elastic;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.HttpHost;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.elasticsearch.client.Node;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.ResponseListener;
+import org.elasticsearch.client.RestClient;
+
+/**
+ * Keeps the nodes of a {@link RestClient} in line with the cluster: every {@code intervalMs} it
+ * asks the cluster for its HTTP nodes and hands them to the client, which spreads requests over
+ * them round robin and backs off from nodes that fail. A failing node, or a failed lookup, brings
+ * the next lookup forward to {@code afterFailureDelayMs} from then, or from the end of a lookup
+ * under way, so a node that left the cluster is dropped soon; further failures meanwhile do not put
+ * it off.
+ */
+final class ElasticNodeSniffer implements AutoCloseable {
+  private static final Logger LOGGER = LogManager.getLogger(ElasticNodeSniffer.class);
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private final long intervalMs;
+  private final long afterFailureDelayMs;
+  private final ScheduledExecutorService scheduler =
+      Executors.newSingleThreadScheduledExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "elasticsearch-sniffer");
+            thread.setDaemon(true);
+            return thread;
+          });
+  private RestClient client;
+  private String scheme;
+  private ScheduledFuture<?> next;
+  private boolean sniffing;
+  /* A node failed while a lookup was under way, whose answer may still list it. */
+  private boolean failedMeanwhile;
+
+  ElasticNodeSniffer(long intervalMs, long afterFailureDelayMs) {
+    this.intervalMs = intervalMs;
+    this.afterFailureDelayMs = afterFailureDelayMs;
+  }
+
+  synchronized void start(RestClient client) {
+    this.client = client;
+    this.scheme = client.getNodes().get(0).getHost().getSchemeName();
+    schedule(0);
+  }
+
+  /** Called by the client for a node that just failed. */
+  void onFailure(Node node) {
+    LOGGER.warn("Elasticsearch node {} failed, looking up the cluster nodes", node.getHost());
+    bringForward(afterFailureDelayMs);
+  }
+
+  @Override
+  public synchronized void close() {
+    scheduler.shutdownNow();
+  }
+
+  private synchronized void bringForward(long delayMs) {
+    if (sniffing) {
+      failedMeanwhile = true;
+      return;
+    }
+    if (next != null && !next.isDone() && next.getDelay(TimeUnit.MILLISECONDS) <= delayMs) {
+      return;
+    }
+    schedule(delayMs);
+  }
+
+  private synchronized void schedule(long delayMs) {
+    if (client == null || scheduler.isShutdown()) {
+      return;
+    }
+    if (next != null) {
+      next.cancel(false);
+    }
+    next = scheduler.schedule(this::sniff, delayMs, TimeUnit.MILLISECONDS);
+  }
+
+  private void sniff() {
+    synchronized (this) {
+      if (sniffing) {
+        return;
+      }
+      sniffing = true;
+    }
+    try {
+      submit();
+    } catch (RuntimeException e) {
+      // the listener is never called, so it cannot end this lookup
+      LOGGER.warn("Could not look up Elasticsearch nodes: {}", e.getMessage());
+      done(afterFailureDelayMs);
+    }
+  }
+
+  private void submit() {
+    client.performRequestAsync(
+        new Request("GET", "/_nodes/http"),
+        new ResponseListener() {
+          @Override
+          public void onSuccess(Response response) {
+            try (InputStream body = response.getEntity().getContent()) {
+              List<Node> nodes = parse(MAPPER.readTree(body));
+              if (nodes.isEmpty()) {
+                LOGGER.warn("Elasticsearch reported no HTTP nodes, keeping {}", client.getNodes());
+              } else {
+                client.setNodes(nodes);
+                LOGGER.debug("Elasticsearch nodes: {}", nodes);
+              }
+              done(intervalMs);
+            } catch (Exception e) {
+              onFailure(e);
+            }
+          }
+
+          @Override
+          public void onFailure(Exception e) {
+            LOGGER.warn("Could not look up Elasticsearch nodes: {}", e.getMessage());
+            done(afterFailureDelayMs);
+          }
+        });
+  }
+
+  private synchronized void done(long nextInMs) {
+    sniffing = false;
+    if (failedMeanwhile) {
+      failedMeanwhile = false;
+      nextInMs = Math.min(nextInMs, afterFailureDelayMs);
+    }
+    schedule(nextInMs);
+  }
+
+  private List<Node> parse(JsonNode response) {
+    List<Node> nodes = new ArrayList<>();
+    for (JsonNode node : response.path("nodes")) {
+      String address = node.path("http").path("publish_address").asText(null);
+      if (address == null) {
+        continue;
+      }
+      Set<String> roles = new HashSet<>();
+      node.path("roles").forEach(role -> roles.add(role.asText()));
+      nodes.add(
+          new Node(
+              host(address),
+              null,
+              node.path("name").asText(null),
+              node.path("version").asText(null),
+              roles.isEmpty() ? null : new Node.Roles(roles),
+              null));
+    }
+    return nodes;
+  }
+
+  /* Publish addresses are "ip:port", or "hostname/ip:port" when a host name is known. */
+  private HttpHost host(String address) {
+    int slash = address.indexOf('/');
+    if (slash > 0) {
+      String port = address.substring(address.lastIndexOf(':') + 1);
+      return HttpHost.create(scheme + "://" + address.substring(0, slash) + ":" + port);
+    }
+    return HttpHost.create(scheme + "://" + address.substring(slash + 1));
+  }
+}
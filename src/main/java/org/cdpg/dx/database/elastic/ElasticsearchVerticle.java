@@ -2,10 +2,15 @@ package org.cdpg.dx.database.elastic;
 
 import io.vertx.core.AbstractVerticle;
 import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.serviceproxy.ServiceBinder;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.http.HttpHost;
 import org.cdpg.dx.database.elastic.service.ElasticsearchService;
 import org.cdpg.dx.database.elastic.service.ElasticsearchServiceImpl;
+import org.cdpg.dx.database.elastic.service.ElasticsearchServiceLocalBinding;
 
 import static org.cdpg.dx.common.config.ServiceProxyAddressConstants.ELASTIC_SERVICE_ADDRESS;
 import static org.cdpg.dx.database.elastic.util.Constants.*;
@@ -24,6 +29,9 @@ import static org.cdpg.dx.database.elastic.util.Constants.*;
  */
 public class ElasticsearchVerticle extends AbstractVerticle {
 
+  /* One client, with its connection pool and I/O threads, for all instances in the JVM. */
+  private static ElasticClient sharedClient;
+  private static int sharedClientUsers;
   private ElasticsearchService database;
   private String databaseIp;
   private String databaseUser;
@@ -44,20 +52,51 @@ public class ElasticsearchVerticle extends AbstractVerticle {
   public void start() throws Exception {
     binder = new ServiceBinder(vertx);
     databaseIp = config().getString(DATABASE_IP);
-    databasePort = config().getInteger(DATABASE_PORT);
+    databasePort = config().getInteger(DATABASE_PORT, 9200);
     databaseUser = config().getString(DATABASE_UNAME);
     databasePassword = config().getString(DATABASE_PASSWD);
 
-    client = new ElasticClient(databaseIp, databasePort, databaseUser, databasePassword);
+    client = sharedClient();
 
     database = new ElasticsearchServiceImpl(client);
 
     consumer =
         binder.setAddress(ELASTIC_SERVICE_ADDRESS).register(ElasticsearchService.class, database);
+    ElasticsearchServiceLocalBinding.register(ELASTIC_SERVICE_ADDRESS, database);
+  }
+
+  private ElasticClient sharedClient() {
+    synchronized (ElasticsearchVerticle.class) {
+      if (sharedClient == null) {
+        sharedClient = new ElasticClient(nodes(), databaseUser, databasePassword, config());
+      }
+      sharedClientUsers++;
+      return sharedClient;
+    }
+  }
+
+  /** The nodes in {@code databaseNodes}, as "host:port" or URLs, or else the one configured node. */
+  private List<HttpHost> nodes() {
+    JsonArray configured = config().getJsonArray(DATABASE_NODES);
+    if (configured == null || configured.isEmpty()) {
+      return List.of(new HttpHost(databaseIp, databasePort));
+    }
+    List<HttpHost> nodes = new ArrayList<>(configured.size());
+    for (Object node : configured) {
+      nodes.add(HttpHost.create(node.toString()));
+    }
+    return nodes;
   }
 
   @Override
-  public void stop() {
+  public void stop() throws Exception {
+    ElasticsearchServiceLocalBinding.unregister(ELASTIC_SERVICE_ADDRESS, database);
     binder.unregister(consumer);
+    synchronized (ElasticsearchVerticle.class) {
+      if (--sharedClientUsers == 0) {
+        sharedClient.close();
+        sharedClient = null;
+      }
+    }
   }
 }
@@ -23,7 +23,7 @@ public class AccessPolicyQueryDecorator implements ElasticsearchQueryDecorator {
 
   @Override
   public Map<FilterType, List<QueryModel>> add() {
-    LOGGER.info("Adding access policy query decorator DTO {}", request);
+    LOGGER.debug("Adding access policy query decorator DTO {}", request);
     String sub = request.getSub();
     boolean isMyAssetsRequest = Boolean.TRUE.equals(request.getMyAssetsReq());
 
@@ -36,15 +36,9 @@ public class AccessPolicyQueryDecorator implements ElasticsearchQueryDecorator {
         queryMap.get(FilterType.MUST).add(ownerMatch);
       } else {
         // User is authenticated → allow: PUBLIC, RESTRICTED, PRIVATE owned
-        QueryModel publicAccess =
-            new QueryModel(QueryType.MATCH)
-                .setQueryParameters(Map.of(FIELD, ACCESS_POLICY, VALUE, OPEN));
-        QueryModel restrictedAccess =
-            new QueryModel(QueryType.MATCH)
-                .setQueryParameters(Map.of(FIELD, ACCESS_POLICY, VALUE, RESTRICTED));
-        QueryModel privateAccess =
-            new QueryModel(QueryType.MATCH)
-                .setQueryParameters(Map.of(FIELD, ACCESS_POLICY, VALUE, PRIVATE));
+        QueryModel publicAccess = new QueryModel(QueryFragment.ACCESS_POLICY_OPEN);
+        QueryModel restrictedAccess = new QueryModel(QueryFragment.ACCESS_POLICY_RESTRICTED);
+        QueryModel privateAccess = new QueryModel(QueryFragment.ACCESS_POLICY_PRIVATE);
         QueryModel ownerMatch =
             new QueryModel(QueryType.MATCH)
                 .setQueryParameters(Map.of(FIELD, PROVIDER_USER_ID, VALUE, sub));
@@ -56,9 +50,7 @@ public class AccessPolicyQueryDecorator implements ElasticsearchQueryDecorator {
         queryMap.get(FilterType.MUST).add(accessFilter);
       }
     } else {
-      QueryModel excludePrivate =
-          new QueryModel(QueryType.MATCH)
-              .setQueryParameters(Map.of(FIELD, ACCESS_POLICY, VALUE, PRIVATE));
+      QueryModel excludePrivate = new QueryModel(QueryFragment.ACCESS_POLICY_PRIVATE);
       queryMap.get(FilterType.MUST_NOT).add(excludePrivate);
     }
     return queryMap;
@@ -5,10 +5,9 @@ import io.vertx.core.json.JsonObject;
 
 @DataObject(generateConverter = true)
 public class ElasticsearchResponse {
-  private static JsonObject aggregations;
   private String docId;
   private JsonObject source;
-  private static int totalHits;
+  private int totalHits;
 
   public ElasticsearchResponse() {
     // Default constructor
@@ -23,20 +22,25 @@ public class ElasticsearchResponse {
     this.source = source;
   }
 
-  public static JsonObject getAggregations() {
-    return aggregations;
-  }
-
-  public static void setAggregations(JsonObject aggregations) {
-    ElasticsearchResponse.aggregations = aggregations;
+  /**
+   * Number of documents that matched the lookup this response was produced by. Only populated
+   * for single document lookups; search results carry their total on the enclosing
+   * {@link ElasticsearchSearchResult}.
+   */
+  public int getTotalHits() {
+    return totalHits;
   }
 
-  public static int getTotalHits() {
-    return totalHits;
+  public void setTotalHits(int totalHits) {
+    this.totalHits = totalHits;
   }
 
-  public static void setTotalHits(int totalHits) {
-    ElasticsearchResponse.totalHits = totalHits;
+  /** A deep copy, as a caller would get from the event bus. */
+  public ElasticsearchResponse copy() {
+    ElasticsearchResponse copy =
+        new ElasticsearchResponse(docId, source != null ? source.copy() : null);
+    copy.totalHits = totalHits;
+    return copy;
   }
 
   public JsonObject toJson() {
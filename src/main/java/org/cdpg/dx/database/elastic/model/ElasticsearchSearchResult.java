@@ -0,0 +1,115 @@
+package org.cdpg.dx.database.elastic.model;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result envelope of a single search call. Everything a caller needs to render one response
+ * (hits, total hit count, aggregations and the time Elasticsearch spent on the query) travels
+ * together, so concurrent searches never share state.
+ */
+@DataObject(generateConverter = true)
+public class ElasticsearchSearchResult {
+  private List<ElasticsearchResponse> hits = new ArrayList<>();
+  private int totalHits;
+  private JsonObject aggregations;
+  private long took;
+  private String pitId;
+  private JsonArray searchAfter;
+
+  public ElasticsearchSearchResult() {
+    // Default constructor
+  }
+
+  public ElasticsearchSearchResult(JsonObject json) {
+    ElasticsearchSearchResultConverter.fromJson(json, this);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    ElasticsearchSearchResultConverter.toJson(this, json);
+    return json;
+  }
+
+  /** A deep copy, as a caller would get from the event bus. */
+  public ElasticsearchSearchResult copy() {
+    ElasticsearchSearchResult copy = new ElasticsearchSearchResult();
+    if (hits != null) {
+      copy.hits = new ArrayList<>(hits.size());
+      for (ElasticsearchResponse hit : hits) {
+        copy.hits.add(hit.copy());
+      }
+    } else {
+      copy.hits = null;
+    }
+    copy.totalHits = totalHits;
+    copy.aggregations = aggregations != null ? aggregations.copy() : null;
+    copy.took = took;
+    copy.pitId = pitId;
+    copy.searchAfter = searchAfter != null ? searchAfter.copy() : null;
+    return copy;
+  }
+
+  public List<ElasticsearchResponse> getHits() {
+    return hits;
+  }
+
+  public void setHits(List<ElasticsearchResponse> hits) {
+    this.hits = hits;
+  }
+
+  public int getTotalHits() {
+    return totalHits;
+  }
+
+  public void setTotalHits(int totalHits) {
+    this.totalHits = totalHits;
+  }
+
+  public JsonObject getAggregations() {
+    return aggregations;
+  }
+
+  public void setAggregations(JsonObject aggregations) {
+    this.aggregations = aggregations;
+  }
+
+  /** Time in milliseconds Elasticsearch reported for executing the search. */
+  public long getTook() {
+    return took;
+  }
+
+  public void setTook(long took) {
+    this.took = took;
+  }
+
+  /** Point in time the page was read from, set only for cursor paginated searches. */
+  public String getPitId() {
+    return pitId;
+  }
+
+  public void setPitId(String pitId) {
+    this.pitId = pitId;
+  }
+
+  /**
+   * Sort values of the last hit on the page, to be sent back as {@code search_after} for the
+   * next page. Null when there are no more pages.
+   */
+  public JsonArray getSearchAfter() {
+    return searchAfter;
+  }
+
+  public void setSearchAfter(JsonArray searchAfter) {
+    this.searchAfter = searchAfter;
+  }
+
+  @Override
+  public String toString() {
+    return "ElasticsearchSearchResult{" + "totalHits=" + totalHits + ", took=" + took
+        + ", hits=" + hits + ", aggregations=" + aggregations + '}';
+  }
+}
@@ -1,14 +1,14 @@
 package org.cdpg.dx.database.elastic.model;
 
 import static org.cdpg.dx.database.elastic.util.Constants.*;
-import static org.cdpg.dx.tgdex.util.Constants.ITEM_TYPE_AI_MODEL;
-import static org.cdpg.dx.tgdex.util.Constants.ITEM_TYPE_DATA_BANK;
 
 import java.util.*;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.cdpg.dx.common.exception.DxEsException;
+import org.cdpg.dx.common.util.SearchCursor;
 import org.cdpg.dx.database.elastic.util.AggregationType;
+import org.cdpg.dx.database.elastic.util.QueryFragment;
 import org.cdpg.dx.database.elastic.util.QueryType;
 
 public class QueryDecoder {
@@ -41,10 +41,7 @@ public class QueryDecoder {
     }
 
     new AccessPolicyQueryDecorator(queryMap, request.getAccessPolicyRequest()).add();
-    QueryModel excludeDatabankFalse = buildExclusionForUnpublishedOrUnuploadedItems(ITEM_TYPE_DATA_BANK);
-    QueryModel excludeAiModelFalse = buildExclusionForUnpublishedOrUnuploadedItems(ITEM_TYPE_AI_MODEL);
-    queryMap.get(FilterType.MUST_NOT).add(excludeDatabankFalse);
-    queryMap.get(FilterType.MUST_NOT).add(excludeAiModelFalse);
+    addExclusionForUnpublishedOrUnuploadedItems(queryMap);
 
     if (searchType != null && searchType.matches(RESPONSE_FILTER_REGEX)) {
       new ResponseFilterDecorator(queryMap, request.getResponseFilterRequest()).add();
@@ -61,7 +58,15 @@ public class QueryDecoder {
     if (request.getSize() != null) {
       int size = request.getSize();
       q.setLimit(String.valueOf(size));
-      if (request.getPage() != null) {
+      if (request.getCursor() != null) {
+        // cursor pages resume from the last hit of the previous page instead of an offset
+        SearchCursor cursor = request.getCursor();
+        q.setPitKeepAlive(CURSOR_KEEP_ALIVE);
+        if (!cursor.isStart()) {
+          q.setPitId(cursor.getPitId());
+          q.setSearchAfter(cursor.getSearchAfter());
+        }
+      } else if (request.getPage() != null) {
         int offset = (request.getPage() - 1) * size;
         q.setOffset(String.valueOf(offset));
       }
@@ -88,12 +93,7 @@ public class QueryDecoder {
     new SearchCriteriaQueryDecorator(queryMap, request.getSearchCriteriaRequest()).add();
     new InstanceFilterQueryDecorator(queryMap, request.getInstanceFilterRequest()).add();
 
-    QueryModel excludeDatabankFalse =
-        buildExclusionForUnpublishedOrUnuploadedItems(ITEM_TYPE_DATA_BANK);
-    QueryModel excludeAiModelFalse =
-        buildExclusionForUnpublishedOrUnuploadedItems(ITEM_TYPE_AI_MODEL);
-    queryMap.get(FilterType.MUST_NOT).add(excludeDatabankFalse);
-    queryMap.get(FilterType.MUST_NOT).add(excludeAiModelFalse);
+    addExclusionForUnpublishedOrUnuploadedItems(queryMap);
 
     QueryModel finalQuery = new QueryModel();
     finalQuery.setQueries(getBoolQuery(queryMap));
@@ -124,24 +124,14 @@ public class QueryDecoder {
     return finalQuery;
   }
 
-  private QueryModel buildExclusionForUnpublishedOrUnuploadedItems(String itemType) {
-    QueryModel typeTerm = new QueryModel(QueryType.TERM)
-        .setQueryParameters(Map.of(FIELD, TYPE_KEYWORD, VALUE, itemType));
-
-    QueryModel shouldClause = new QueryModel(QueryType.BOOL);
-    shouldClause.setShouldQueries(List.of(
-        new QueryModel(QueryType.TERM)
-            .setQueryParameters(Map.of(FIELD, DATA_UPLOAD_STATUS, VALUE, false)),
-        new QueryModel(QueryType.TERM)
-            .setQueryParameters(Map.of(FIELD, PUBLISH_STATUS + KEYWORD_KEY, VALUE, PENDING))
-    ));
-
-    return new QueryModel(QueryType.BOOL)
-        .setMustQueries(List.of(typeTerm, shouldClause));
+  private void addExclusionForUnpublishedOrUnuploadedItems(
+      Map<FilterType, List<QueryModel>> queryMap) {
+    queryMap.get(FilterType.MUST_NOT)
+        .add(new QueryModel(QueryFragment.EXCLUDE_UNPUBLISHED_DATA_BANK));
+    queryMap.get(FilterType.MUST_NOT)
+        .add(new QueryModel(QueryFragment.EXCLUDE_UNPUBLISHED_AI_MODEL));
   }
 
-
-
   private QueryModel buildGetParentObjectInfoQuery(QueryDecoderRequestDTO request) {
     String id = request.getId();
     String[] fields = {
@@ -1,6 +1,7 @@
 package org.cdpg.dx.database.elastic.model;
 
 import java.util.List;
+import org.cdpg.dx.common.util.SearchCursor;
 
 public class QueryDecoderRequestDTO {
   private String searchType;
@@ -14,6 +15,7 @@ public class QueryDecoderRequestDTO {
   private InstanceFilterRequestDTO instanceFilterRequest;
   private ResponseFilterRequestDTO responseFilterRequest;
   private List<OrderBy> sort;
+  private SearchCursor cursor;
 
   public QueryDecoderRequestDTO(
       String searchType,
@@ -127,4 +129,13 @@ public class QueryDecoderRequestDTO {
   public void setResponseFilterRequest(ResponseFilterRequestDTO responseFilterRequest) {
     this.responseFilterRequest = responseFilterRequest;
   }
+
+  /** Cursor of a cursor paginated search, null when the request pages with page and size. */
+  public SearchCursor getCursor() {
+    return cursor;
+  }
+
+  public void setCursor(SearchCursor cursor) {
+    this.cursor = cursor;
+  }
 }
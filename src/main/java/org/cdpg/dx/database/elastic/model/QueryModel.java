@@ -12,6 +12,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.cdpg.dx.database.elastic.util.AggregationType;
 import org.cdpg.dx.database.elastic.util.BoolOperator;
+import org.cdpg.dx.database.elastic.util.QueryFragment;
 import org.cdpg.dx.database.elastic.util.QueryType;
 
 import java.util.*;
@@ -39,6 +40,7 @@ public class QueryModel {
   private List<QueryModel> mustNotQueries;
   private List<QueryModel> filterQueries;
   private BoolOperator boolOperator;
+  private QueryFragment fragment;
 
   // For aggregations
   private List<QueryModel> aggregations;
@@ -52,6 +54,11 @@ public class QueryModel {
   private List<String> excludeFields;
   private Map<String, String> sortFields; // Key: Field name, Value: Sort order ("asc" or "desc")
 
+  // For cursor pagination over a point in time; a keep-alive without an id opens a new one
+  private String pitId;
+  private String pitKeepAlive;
+  private JsonArray searchAfter;
+
   // Field for storing the script source (the actual script)
   private String scriptSource;
 
@@ -140,6 +147,15 @@ public class QueryModel {
 
   public QueryModel() {}
 
+  /**
+   * Constructor for a query that stands for a precompiled {@link QueryFragment}.
+   *
+   * @param fragment the fragment to use in place of a query tree.
+   */
+  public QueryModel(QueryFragment fragment) {
+    this.fragment = fragment;
+  }
+
   public QueryModel(QueryType queryType) {
     this.queryType = queryType;
   }
@@ -312,6 +328,14 @@ public class QueryModel {
     this.filterQueries.add(filterQuery);
   }
 
+  public QueryFragment getFragment() {
+    return fragment;
+  }
+
+  public void setFragment(QueryFragment fragment) {
+    this.fragment = fragment;
+  }
+
   public BoolOperator getBoolOperator() {
     return boolOperator;
   }
@@ -359,6 +383,30 @@ public class QueryModel {
   public void setSortFields(Map<String, String> sortFields) {
     this.sortFields = sortFields;
   }
+  public String getPitId() {
+    return pitId;
+  }
+
+  public void setPitId(String pitId) {
+    this.pitId = pitId;
+  }
+
+  public String getPitKeepAlive() {
+    return pitKeepAlive;
+  }
+
+  public void setPitKeepAlive(String pitKeepAlive) {
+    this.pitKeepAlive = pitKeepAlive;
+  }
+
+  public JsonArray getSearchAfter() {
+    return searchAfter;
+  }
+
+  public void setSearchAfter(JsonArray searchAfter) {
+    this.searchAfter = searchAfter;
+  }
+
   public String getScriptSource() {
     return scriptSource;
   }
@@ -390,7 +438,10 @@ public class QueryModel {
    * @throws UnsupportedOperationException if the query type is not supported.
    */
   public Query toElasticsearchQuery() {
-    LOGGER.debug("Converting QueryModel to Elasticsearch Query "+queryType);
+    if (this.fragment != null) {
+      return this.fragment.toQuery();
+    }
+    LOGGER.debug("Converting QueryModel to Elasticsearch Query {}", queryType);
 
     if (this.queryType == null) {
       LOGGER.error("Query type is null for QueryModel: {}", this.toJson());
@@ -441,8 +492,9 @@ public class QueryModel {
         case TERMS:
           // Ensure the value is a List<String>
           List<String> termsValues;
-          if (queryParameters.get(VALUE) instanceof JsonArray) {
-            termsValues = ((JsonArray) queryParameters.get(VALUE)).getList();
+          if (queryParameters.get(VALUE) instanceof JsonArray
+                  || queryParameters.get(VALUE) instanceof List) {
+            termsValues = asList(queryParameters.get(VALUE));
           } else {
             termsValues = List.of((String) queryParameters.get(VALUE));
           }
@@ -459,31 +511,19 @@ public class QueryModel {
           return BoolQuery.of(
                           b -> {
                             if (this.mustQueries != null) {
-                              b.must(
-                                      this.mustQueries.stream()
-                                              .map(QueryModel::toElasticsearchQuery)
-                                              .collect(Collectors.toList()));
+                              b.must(toElasticsearchQueries(this.mustQueries));
                             }
                             if (this.shouldQueries != null) {
-                              b.should(
-                                      this.shouldQueries.stream()
-                                              .map(QueryModel::toElasticsearchQuery)
-                                              .collect(Collectors.toList()));
+                              b.should(toElasticsearchQueries(this.shouldQueries));
                             }
                             if (this.minimumShouldMatch != null) {
                               b.minimumShouldMatch(this.minimumShouldMatch);
                             }
                             if (this.mustNotQueries != null) {
-                              b.mustNot(
-                                      this.mustNotQueries.stream()
-                                              .map(QueryModel::toElasticsearchQuery)
-                                              .collect(Collectors.toList()));
+                              b.mustNot(toElasticsearchQueries(this.mustNotQueries));
                             }
                             if (this.filterQueries != null) {
-                              b.filter(
-                                      this.filterQueries.stream()
-                                              .map(QueryModel::toElasticsearchQuery)
-                                              .collect(Collectors.toList()));
+                              b.filter(toElasticsearchQueries(this.filterQueries));
                             }
                             return b;
                           })
@@ -536,7 +576,7 @@ public class QueryModel {
         case MULTI_MATCH:
           return MultiMatchQuery.of(m -> {
             m.query((String) queryParameters.get("query"))
-                    .fields(((JsonArray) queryParameters.get("fields")).getList())
+                    .fields(asList(queryParameters.get("fields")))
                     .fuzziness((String) queryParameters.getOrDefault("fuzziness", null))
 //                    .type(TextQueryType.valueOf((String)queryParameters.getOrDefault("type",null) ))
                     .boost(Float.parseFloat((String) queryParameters.getOrDefault("boost", "1.0")));
@@ -548,8 +588,7 @@ public class QueryModel {
 
         case SCRIPT_SCORE:
           // Add the script_score query here
-          JsonArray queryVector = (JsonArray) queryParameters.get("query_vector");
-          List<Double> vectorList = queryVector.getList();
+          List<Double> vectorList = asList(queryParameters.get("query_vector"));
           String vectorString = new JsonArray(vectorList).encode();
           // Create a map for script parameters
           Map<String, JsonData> params = new HashMap<>();
@@ -659,6 +698,23 @@ public class QueryModel {
     return null; // Returns null if there are no field inclusion/exclusion rules
   }
 
+  private static List<Query> toElasticsearchQueries(List<QueryModel> queryModels) {
+    List<Query> queries = new ArrayList<>(queryModels.size());
+    for (QueryModel queryModel : queryModels) {
+      queries.add(queryModel.toElasticsearchQuery());
+    }
+    return queries;
+  }
+
+  /**
+   * Array parameters are JsonArrays once a model has crossed the event bus, but still the Lists
+   * the decoder built when the Elasticsearch service is called directly.
+   */
+  @SuppressWarnings("unchecked")
+  private static <T> List<T> asList(Object value) {
+    return value instanceof JsonArray ? ((JsonArray) value).getList() : (List<T>) value;
+  }
+
   /**
    * Converts this QueryModel's sorting configuration into a list of Elasticsearch SortOptions
    * objects.
@@ -40,7 +40,7 @@ public class SearchCriteriaQueryDecorator implements ElasticsearchQueryDecorator
       String field = criterion.getField();
       List<Object> values = criterion.getValues();
       String type = criterion.getSearchType() != null ? criterion.getSearchType() : TERM;
-      LOGGER.info("Searchtype, field, values, cST {},{},{}", field, values, type);
+      LOGGER.debug("Searchtype, field, values, cST {},{},{}", field, values, type);
 
       switch (type) {
         case TERM:
@@ -74,14 +74,12 @@ public class SearchCriteriaQueryDecorator implements ElasticsearchQueryDecorator
     queryMap
         .computeIfAbsent(FilterType.FILTER, k -> new ArrayList<>())
         .add(new QueryModel(QueryType.BOOL).setMustQueries(mustList));
-    LOGGER.info("queryMap {}", queryMap);
-    if (queryMap.get(FilterType.FILTER) != null) {
-      LOGGER.info("Size {}", queryMap.get(FilterType.FILTER).size());
+    // encoding the query tree is not free, only do it when it will be logged
+    if (LOGGER.isDebugEnabled()) {
       for (QueryModel queryModel : queryMap.get(FilterType.FILTER)) {
-        LOGGER.info("query {}", queryModel.toJson());
+        LOGGER.debug("query {}", queryModel.toJson());
       }
     }
-    LOGGER.info("Done with query");
     return queryMap;
   }
 
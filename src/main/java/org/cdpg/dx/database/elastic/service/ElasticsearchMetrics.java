@@ -0,0 +1,108 @@
+package org.cdpg.dx.database.elastic.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.cdpg.dx.common.util.MeterRegistries;
+
+/**
+ * Meters for the calls {@link ElasticsearchServiceImpl} makes. The request timer covers the whole
+ * round trip as seen by this server, while {@code took} is the time Elasticsearch itself reports and
+ * the parse timer the time spent turning its response into ours, so a slow request can be
+ * attributed to the cluster, the network or our own decoding.
+ */
+final class ElasticsearchMetrics {
+  static final String SEARCH = "search";
+  static final String COUNT = "count";
+  static final String GET = "get";
+  static final String MULTI_SEARCH = "msearch";
+  static final String BULK_INDEX = "bulk_index";
+  static final String BULK_CREATE = "bulk_create";
+  static final String BULK_UPDATE = "bulk_update";
+  static final String UPDATE = "update";
+  static final String DELETE = "delete";
+  static final String DELETE_BY_QUERY = "delete_by_query";
+  static final String UPDATE_BY_QUERY = "update_by_query";
+
+  /** Options tag value for operations that take no options. */
+  static final String NO_OPTIONS = "none";
+
+  private static final String REQUESTS = "tgdex.elasticsearch.requests";
+  private static final String TOOK = "tgdex.elasticsearch.took";
+  private static final String HITS = "tgdex.elasticsearch.hits";
+  private static final String PARSE = "tgdex.elasticsearch.response.parse";
+
+  private final MeterRegistry registry;
+  // meters are looked up on every call, so they are kept by tag values instead of rebuilt
+  private final Map<String, Timer> requestTimers = new ConcurrentHashMap<>();
+  private final Map<String, DistributionSummary> tookSummaries = new ConcurrentHashMap<>();
+  private final Map<String, DistributionSummary> hitSummaries = new ConcurrentHashMap<>();
+  private final Map<String, Timer> parseTimers = new ConcurrentHashMap<>();
+
+  ElasticsearchMetrics() {
+    this(MeterRegistries.get());
+  }
+
+  ElasticsearchMetrics(MeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  /** Records a finished request that started at {@code startNanos}. */
+  void recordRequest(String operation, String index, String options, long startNanos,
+                     Throwable error) {
+    String outcome = error == null ? "success" : "error";
+    requestTimers.computeIfAbsent(
+            key(operation, index, options, outcome),
+            k -> Timer.builder(REQUESTS)
+                .description("Elasticsearch requests as seen by this server")
+                .tags("operation", operation, "index", String.valueOf(index),
+                    "options", options, "outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry))
+        .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /** Records the time Elasticsearch reports it spent on a request. */
+  void recordTook(String operation, String index, long tookMillis) {
+    tookSummaries.computeIfAbsent(
+            key(operation, index),
+            k -> DistributionSummary.builder(TOOK)
+                .description("Time Elasticsearch reports it spent on a request")
+                .baseUnit("milliseconds")
+                .tags("operation", operation, "index", String.valueOf(index))
+                .publishPercentileHistogram()
+                .register(registry))
+        .record(tookMillis);
+  }
+
+  /** Records the number of hits a search returned. */
+  void recordHits(String operation, String index, int hits) {
+    hitSummaries.computeIfAbsent(
+            key(operation, index),
+            k -> DistributionSummary.builder(HITS)
+                .description("Hits returned by a search")
+                .tags("operation", operation, "index", String.valueOf(index))
+                .publishPercentileHistogram()
+                .register(registry))
+        .record(hits);
+  }
+
+  /** Records the time spent decoding a response that started at {@code startNanos}. */
+  void recordParse(String operation, String options, long startNanos) {
+    parseTimers.computeIfAbsent(
+            key(operation, options),
+            k -> Timer.builder(PARSE)
+                .description("Time spent decoding Elasticsearch responses")
+                .tags("operation", operation, "options", options)
+                .publishPercentileHistogram()
+                .register(registry))
+        .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+  }
+
+  private static String key(String... tags) {
+    return String.join("|", tags);
+  }
+}
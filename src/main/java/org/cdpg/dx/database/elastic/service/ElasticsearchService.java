@@ -5,7 +5,9 @@ import io.vertx.codegen.annotations.ProxyGen;
 import io.vertx.codegen.annotations.VertxGen;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
 import org.cdpg.dx.database.elastic.model.ElasticsearchResponse;
+import org.cdpg.dx.database.elastic.model.ElasticsearchSearchResult;
 import org.cdpg.dx.database.elastic.model.QueryModel;
 
 import java.util.List;
@@ -20,13 +22,40 @@ public interface ElasticsearchService {
         return new ElasticsearchServiceVertxEBProxy(vertx, address);
     }
 
-    Future<List<ElasticsearchResponse>> search(String index, QueryModel queryModel, String options);
+    /**
+     * Binding that calls an instance deployed in this JVM directly, falling back to the event bus
+     * proxy when there is none.
+     */
+    @GenIgnore
+    static ElasticsearchService createLocalOrProxy(Vertx vertx, String address) {
+        return new ElasticsearchServiceLocalBinding(vertx, address);
+    }
+
+    Future<ElasticsearchSearchResult> search(String index, QueryModel queryModel, String options);
 
     Future<Integer> count(String index, QueryModel queryModel);
 
     Future<List<String>> createDocuments(String index, List<QueryModel> documentModels);
     Future<ElasticsearchResponse>  getSingleDocument(String docIndex,QueryModel queryModel);
 
+    /**
+     * Runs several single document lookups in one round trip. The result holds, in query order,
+     * the first hit of each query or an empty response when nothing matched.
+     */
+    Future<List<ElasticsearchResponse>> multiSearch(String docIndex, List<QueryModel> queryModels);
+
+    /**
+     * Creates documents with one bulk request. A document whose id is already taken is not
+     * overwritten but fails with status 409. Unlike {@link #createDocuments}, a failed document
+     * does not fail the call: the result holds, in request order, one object per document with its
+     * {@code id}, the HTTP {@code status} Elasticsearch reported and an {@code error} reason when
+     * it failed.
+     */
+    Future<JsonArray> bulkCreate(String index, List<QueryModel> documentModels);
+
+    /** Partially updates documents with one bulk request, reporting results like {@link #bulkCreate}. */
+    Future<JsonArray> bulkUpdate(String index, List<QueryModel> documentModels);
+
     Future<Void> deleteDocument(String index, String id);
 
     Future<Void> updateDocument(String index, String id, QueryModel queryModel);
@@ -3,17 +3,23 @@ package org.cdpg.dx.database.elastic.service;
 import static org.cdpg.dx.database.elastic.util.Constants.*;
 
 import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.ErrorCause;
+import co.elastic.clients.elasticsearch._types.FieldValue;
 import co.elastic.clients.elasticsearch._types.Result;
 import co.elastic.clients.elasticsearch._types.Script;
+import co.elastic.clients.elasticsearch._types.SortOptions;
 import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
 import co.elastic.clients.elasticsearch._types.query_dsl.Query;
 import co.elastic.clients.elasticsearch.core.*;
 import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.core.msearch.MultiSearchResponseItem;
 import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.elasticsearch.core.search.HitsMetadata;
+import co.elastic.clients.elasticsearch.core.search.SourceConfig;
 import co.elastic.clients.json.JsonData;
 import co.elastic.clients.json.JsonpMapper;
 import co.elastic.clients.json.JsonpMapperFeatures;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import io.vertx.core.json.JsonArray;
@@ -21,29 +27,57 @@ import io.vertx.core.json.JsonObject;
 import jakarta.json.stream.JsonGenerator;
 import java.io.StringWriter;
 import java.util.*;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.cdpg.dx.common.exception.DxBadRequestException;
 import org.cdpg.dx.common.exception.DxInternalServerErrorException;
+import org.cdpg.dx.common.exception.DxNotFoundException;
 import org.cdpg.dx.database.elastic.ElasticClient;
 import org.cdpg.dx.database.elastic.model.ElasticsearchResponse;
+import org.cdpg.dx.database.elastic.model.ElasticsearchSearchResult;
 import org.cdpg.dx.database.elastic.model.QueryModel;
 
 public class ElasticsearchServiceImpl implements ElasticsearchService {
   private static final Logger LOGGER = LogManager.getLogger(ElasticsearchServiceImpl.class);
+  private static final String INVALID_CURSOR = "Invalid or expired cursor";
+  /* What Elasticsearch answers for a point in time that expired or was closed. */
+  private static final String PIT_MISSING = "search_context_missing_exception";
 
-  static ElasticClient client;
-  private static ElasticsearchAsyncClient asyncClient;
+  private final ElasticsearchAsyncClient asyncClient;
+  private final ElasticsearchMetrics metrics = new ElasticsearchMetrics();
 
   public ElasticsearchServiceImpl(ElasticClient client) {
-    ElasticsearchServiceImpl.client = client;
-    asyncClient = client.getClient();
+    this.asyncClient = client.getClient();
   }
 
   @Override
-  public Future<List<ElasticsearchResponse>> search(String index, QueryModel queryModel, String options) {
-    Promise<List<ElasticsearchResponse>> promise = Promise.promise();
+  public Future<ElasticsearchSearchResult> search(String index, QueryModel queryModel, String options) {
+    if (queryModel.getPitKeepAlive() != null && queryModel.getPitId() == null) {
+      return openPointInTime(index, queryModel.getPitKeepAlive())
+          .compose(
+              pitId ->
+                  executeSearch(index, queryModel, options, pitId)
+                      .onFailure(failure -> closePointInTime(pitId)));
+    }
+    String pitId = queryModel.getPitId();
+    Future<ElasticsearchSearchResult> result = executeSearch(index, queryModel, options, pitId);
+    if (pitId == null) {
+      return result;
+    }
+    // a cursor that was rejected has no point in time left to close
+    return result.onFailure(
+        failure -> {
+          if (!INVALID_CURSOR.equals(failure.getMessage())) {
+            closePointInTime(pitId);
+          }
+        });
+  }
+
+  private Future<ElasticsearchSearchResult> executeSearch(
+      String index, QueryModel queryModel, String options, String pitId) {
+    Promise<ElasticsearchSearchResult> promise = Promise.promise();
 
     Map<String, Aggregation> aggregations = new HashMap<>();
 
@@ -51,10 +85,20 @@ public class ElasticsearchServiceImpl implements ElasticsearchService {
       queryModel.getAggregations().forEach(agg -> aggregations.put(agg.getAggregationName(), agg.toElasticsearchAggregations()));
     }
 
-    SearchRequest.Builder requestBuilder = new SearchRequest.Builder().index(index);
+    SearchRequest.Builder requestBuilder = new SearchRequest.Builder();
+    if (pitId != null) {
+      // a point in time already pins the index, naming it again is rejected by Elasticsearch
+      requestBuilder.pit(p -> p.id(pitId).keepAlive(t -> t.time(queryModel.getPitKeepAlive())));
+      if (queryModel.getSearchAfter() != null) {
+        requestBuilder.searchAfter(toFieldValues(queryModel.getSearchAfter()));
+      }
+    } else {
+      requestBuilder.index(index);
+    }
     QueryModel queries = queryModel.getQueries();
-    if (queries != null && queries.toElasticsearchQuery() != null) {
-      requestBuilder.query(queries.toElasticsearchQuery());
+    Query query = queries != null ? queries.toElasticsearchQuery() : null;
+    if (query != null) {
+      requestBuilder.query(query);
     }
 
     if (!aggregations.isEmpty()) {
@@ -64,75 +108,87 @@ public class ElasticsearchServiceImpl implements ElasticsearchService {
     int limit = parseSize(options, queryModel);
     requestBuilder.size(limit);
 
-    if (queryModel.getOffset() != null) {
+    if (queryModel.getOffset() != null && pitId == null) {
       requestBuilder.from(Integer.parseInt(queryModel.getOffset()));
     }
 
-    if (queryModel.toSourceConfig() != null) {
-      requestBuilder.source(queryModel.toSourceConfig());
+    SourceConfig sourceConfig = toSourceConfig(queryModel, options);
+    if (sourceConfig != null) {
+      requestBuilder.source(sourceConfig);
     }
 
-    if (queryModel.toSortOptions() != null) {
-      requestBuilder.sort(queryModel.toSortOptions());
+    List<SortOptions> sortOptions = queryModel.toSortOptions();
+    if (sortOptions != null) {
+      requestBuilder.sort(sortOptions);
     }
 
     SearchRequest request = requestBuilder.build();
 
-    asyncClient.search(request, ObjectNode.class).whenComplete((response, error) -> {
+    long start = System.nanoTime();
+    asyncClient.search(request, SourceDocument.class).whenComplete((response, error) -> {
+      metrics.recordRequest(ElasticsearchMetrics.SEARCH, index, options, start, error);
       if (error != null) {
         LOGGER.error("Search failed: {}", error.getMessage());
-        promise.fail(new DxInternalServerErrorException(error.getMessage(), error));
+        promise.fail(searchFailure(error, queryModel.getPitId() != null));
         return;
       }
+      metrics.recordTook(ElasticsearchMetrics.SEARCH, index, response.took());
+      metrics.recordHits(ElasticsearchMetrics.SEARCH, index, response.hits().hits().size());
 
+      long parseStart = System.nanoTime();
       try {
+        ElasticsearchSearchResult result = new ElasticsearchSearchResult();
+        result.setTook(response.took());
         List<ElasticsearchResponse> esResponses = new ArrayList<>();
-        JsonObject aggregationsJson = new JsonObject();
 
         // 1. Handle hits if needed
         if (!options.startsWith(AGGREGATION_ONLY)) {
           for (var hit : response.hits().hits()) {
             String id = hit.id();
-            JsonObject source = hit.source() != null ? new JsonObject(hit.source().toString()) : new JsonObject();
-            JsonObject result = new JsonObject();
+            JsonObject source = hit.source() != null ? new JsonObject(hit.source()) : new JsonObject();
+            JsonObject hitJson = new JsonObject();
             switch (options) {
               case DOC_IDS_ONLY:
-                result.put(ID, id);
+                hitJson.put(ID, id);
                 break;
               case SOURCE_AND_ID:
-                result.put(ID, id).put(SOURCE, source);
+                hitJson.put(ID, id).put(SOURCE, source);
                 break;
               case SOURCE_AND_ID_GEOQUERY:
                 source.put("doc_id", id);
-                result.mergeIn(source);
+                hitJson.mergeIn(source);
                 break;
               case SOURCE_ONLY:
-                source.remove(SUMMARY_KEY);
-                source.remove(WORD_VECTOR_KEY);
-                result = source;
+                // _summary and _word_vector are already excluded in the request
+                hitJson = source;
                 break;
               default:
-                result = source;
+                hitJson = source;
                 break;
             }
 
-            esResponses.add(new ElasticsearchResponse(id, result));
+            esResponses.add(new ElasticsearchResponse(id, hitJson));
           }
 
           long totalHits = response.hits().total() != null ? response.hits().total().value() : 0;
-          ElasticsearchResponse.setTotalHits((int) totalHits);
+          result.setHits(esResponses);
+          result.setTotalHits((int) totalHits);
+
+          if (pitId != null) {
+            setCursor(result, response, pitId, limit);
+          }
         }
 
         // 2. Handle aggregations if needed
         if (options.startsWith(AGGREGATION_ONLY) || options.equals(COUNT_AGGREGATION_ONLY)) {
-          aggregationsJson = parseAggregations(response, options);
-        }
-
-        if (!aggregationsJson.isEmpty()) {
-          ElasticsearchResponse.setAggregations(aggregationsJson);
+          JsonObject aggregationsJson = parseAggregations(response, options);
+          if (!aggregationsJson.isEmpty()) {
+            result.setAggregations(aggregationsJson);
+          }
         }
 
-        promise.complete(esResponses);
+        metrics.recordParse(ElasticsearchMetrics.SEARCH, options, parseStart);
+        promise.complete(result);
       } catch (Exception e) {
         LOGGER.error("Failed to parse search response", e);
         promise.fail(new DxInternalServerErrorException("Failed to parse search result", e));
@@ -142,6 +198,114 @@ public class ElasticsearchServiceImpl implements ElasticsearchService {
     return promise.future();
   }
 
+  private Future<String> openPointInTime(String index, String keepAlive) {
+    Promise<String> promise = Promise.promise();
+    asyncClient.openPointInTime(o -> o.index(index).keepAlive(t -> t.time(keepAlive)))
+        .whenComplete((response, error) -> {
+          if (error != null) {
+            LOGGER.error("Opening point in time failed: {}", error.getMessage());
+            promise.fail(new DxInternalServerErrorException(error.getMessage(), error));
+          } else {
+            promise.complete(response.id());
+          }
+        });
+    return promise.future();
+  }
+
+  /**
+   * Records where the next page of a cursor search starts. A short page means the cursor is
+   * exhausted, so the point in time is released right away instead of waiting for it to expire.
+   */
+  private void setCursor(
+      ElasticsearchSearchResult result, SearchResponse<SourceDocument> response, String pitId,
+      int limit) {
+    // Elasticsearch may hand back a new id for the same point in time on every page
+    String currentPitId = response.pitId() != null ? response.pitId() : pitId;
+    result.setPitId(currentPitId);
+    List<Hit<SourceDocument>> hits = response.hits().hits();
+    if (limit > 0 && hits.size() == limit) {
+      JsonArray searchAfter = new JsonArray();
+      for (FieldValue value : hits.getLast().sort()) {
+        searchAfter.add(value.isAny() ? value.anyValue().toString() : value._get());
+      }
+      result.setSearchAfter(searchAfter);
+    } else {
+      closePointInTime(currentPitId);
+    }
+  }
+
+  private void closePointInTime(String pitId) {
+    asyncClient.closePointInTime(c -> c.id(pitId)).whenComplete((resp, err) -> {
+      if (err != null) {
+        LOGGER.warn("Closing point in time failed: {}", err.getMessage());
+      }
+    });
+  }
+
+  /**
+   * The failure of a search as the caller should see it. A point in time that no longer exists,
+   * because its keep-alive ran out, makes the cursor invalid; any other request Elasticsearch turns
+   * down keeps its status.
+   */
+  private static Throwable searchFailure(Throwable error, boolean withCursor) {
+    Throwable cause = error instanceof CompletionException && error.getCause() != null
+        ? error.getCause()
+        : error;
+    if (!(cause instanceof ElasticsearchException e)) {
+      return new DxInternalServerErrorException(error.getMessage(), error);
+    }
+    if (withCursor && isPitMissing(e.error())) {
+      return new DxBadRequestException(INVALID_CURSOR);
+    }
+    return switch (e.status()) {
+      case 400 -> new DxBadRequestException(e.getMessage());
+      case 404 -> new DxNotFoundException(e.getMessage());
+      default -> new DxInternalServerErrorException(e.getMessage(), e);
+    };
+  }
+
+  /* Searches report the missing context as the root cause of a failed search phase. */
+  private static boolean isPitMissing(ErrorCause error) {
+    if (error == null) {
+      return false;
+    }
+    if (PIT_MISSING.equals(error.type())
+        || error.rootCause().stream().anyMatch(cause -> PIT_MISSING.equals(cause.type()))) {
+      return true;
+    }
+    return isPitMissing(error.causedBy());
+  }
+
+  private List<FieldValue> toFieldValues(JsonArray values) {
+    List<FieldValue> fieldValues = new ArrayList<>(values.size());
+    for (Object value : values) {
+      fieldValues.add(value == null ? FieldValue.NULL : FieldValue.of(value));
+    }
+    return fieldValues;
+  }
+
+  /**
+   * Builds the _source filter for a search. Internal fields that are never returned to clients
+   * are excluded here so Elasticsearch does not ship them back, instead of stripping them off
+   * every hit after it has been decoded.
+   */
+  private SourceConfig toSourceConfig(QueryModel model, String options) {
+    if (!SOURCE_ONLY.equals(options)) {
+      return model.toSourceConfig();
+    }
+    List<String> excludes = new ArrayList<>(List.of(SUMMARY_KEY, WORD_VECTOR_KEY));
+    if (model.getExcludeFields() != null) {
+      excludes.addAll(model.getExcludeFields());
+    }
+    List<String> includes = model.getIncludeFields();
+    return SourceConfig.of(s -> s.filter(f -> {
+      if (includes != null) {
+        f.includes(includes);
+      }
+      return f.excludes(excludes);
+    }));
+  }
+
   private int parseSize(String options, QueryModel model) {
     if (options.startsWith(AGGREGATION_ONLY)) {
       return 0;
@@ -153,7 +317,7 @@ public class ElasticsearchServiceImpl implements ElasticsearchService {
     }
   }
 
-  private JsonObject parseAggregations(SearchResponse<ObjectNode> response, String options) {
+  private JsonObject parseAggregations(SearchResponse<SourceDocument> response, String options) {
     JsonObject aggResult = new JsonObject();
     JsonpMapper mapper = asyncClient._jsonpMapper().withAttribute(JsonpMapperFeatures.SERIALIZE_TYPED_KEYS, false);
     StringWriter writer = new StringWriter();
@@ -217,13 +381,16 @@ public class ElasticsearchServiceImpl implements ElasticsearchService {
     LOGGER.debug("Final CountRequest: {}", request);
 
     // Execute the count query
-    return executeCount(request);
+    return executeCount(index, request);
   }
 
-  private Future<Integer> executeCount(CountRequest request) {
+  private Future<Integer> executeCount(String index, CountRequest request) {
     Promise<Integer> promise = Promise.promise();
     LOGGER.debug("REQUEST {}", request);
+    long start = System.nanoTime();
     asyncClient.count(request).whenComplete((response, error) -> {
+      metrics.recordRequest(
+          ElasticsearchMetrics.COUNT, index, ElasticsearchMetrics.NO_OPTIONS, start, error);
       if (error != null) {
         // Log specific error type for better debugging
         LOGGER.error("Count operation failed. Error type: {}, Message: {}", error.getClass().getSimpleName(), error.getMessage());
@@ -263,6 +430,14 @@ public class ElasticsearchServiceImpl implements ElasticsearchService {
             .compose(v -> performSingleSearch(index, queryModel));
   }
 
+  @Override
+  public Future<List<ElasticsearchResponse>> multiSearch(
+      String index, List<QueryModel> queryModels) {
+    return validateIndex(index)
+            .compose(v -> validateQueryModels(queryModels))
+            .compose(v -> executeMultiSearch(index, queryModels));
+  }
+
   @Override
   public Future<List<String>> createDocuments(String index, List<QueryModel> documentModels) {
     return validateIndex(index)
@@ -270,6 +445,20 @@ public class ElasticsearchServiceImpl implements ElasticsearchService {
             .compose(v -> executeBulkIndex(index, documentModels));
   }
 
+  @Override
+  public Future<JsonArray> bulkCreate(String index, List<QueryModel> documentModels) {
+    return validateIndex(index)
+            .compose(v -> validateDocumentModels(documentModels))
+            .compose(v -> executeBulk(index, documentModels, false));
+  }
+
+  @Override
+  public Future<JsonArray> bulkUpdate(String index, List<QueryModel> documentModels) {
+    return validateIndex(index)
+            .compose(v -> validateDocumentModels(documentModels))
+            .compose(v -> executeBulk(index, documentModels, true));
+  }
+
   @Override
   public Future<Void> deleteDocument(String index, String id) {
     return validateIndex(index)
@@ -283,7 +472,6 @@ public class ElasticsearchServiceImpl implements ElasticsearchService {
     return validateIndex(index)
             .compose(v -> validateId(id))
             .compose(v -> validateQueryModel(queryModel))
-            .compose(v -> executeExistenceCheck(index, id))
             .compose(v -> executeUpdate(index, id, queryModel));
   }
 
@@ -323,6 +511,15 @@ public class ElasticsearchServiceImpl implements ElasticsearchService {
     return Future.succeededFuture();
   }
 
+  private Future<Void> validateQueryModels(List<QueryModel> models) {
+    if (models == null || models.isEmpty()) {
+      String msg = "QueryModel list cannot be null or empty";
+      LOGGER.error(msg);
+      return Future.failedFuture(new IllegalArgumentException(msg));
+    }
+    return Future.succeededFuture();
+  }
+
   private Future<Void> validateDocumentModels(List<QueryModel> models) {
     if (models == null || models.isEmpty()) {
       String msg = "DocumentModels list cannot be null or empty";
@@ -341,12 +538,18 @@ public class ElasticsearchServiceImpl implements ElasticsearchService {
             .query(queryModel.toElasticsearchQuery())
             .build();
     LOGGER.debug("DeleteByQuery Request: {}", request);
+    long start = System.nanoTime();
     asyncClient.deleteByQuery(request).whenComplete((resp, err) -> {
+      metrics.recordRequest(ElasticsearchMetrics.DELETE_BY_QUERY, indices,
+          ElasticsearchMetrics.NO_OPTIONS, start, err);
       if (err != null) {
         LOGGER.error("deleteByQuery failed {}", err.getMessage());
         promise.fail(new RuntimeException("Failed to execute deleteByQuery", err));
       } else {
         LOGGER.info("Deleted {} documents", resp.deleted());
+        if (resp.took() != null) {
+          metrics.recordTook(ElasticsearchMetrics.DELETE_BY_QUERY, indices, resp.took());
+        }
         promise.complete();
       }
     });
@@ -360,27 +563,73 @@ public class ElasticsearchServiceImpl implements ElasticsearchService {
             .query(model.toElasticsearchQuery())
             .size(1)
             .from(0);
-    asyncClient.search(builder.build(), ObjectNode.class)
+    long start = System.nanoTime();
+    asyncClient.search(builder.build(), SourceDocument.class)
         .whenComplete((resp, err) -> {
+          metrics.recordRequest(
+              ElasticsearchMetrics.GET, index, ElasticsearchMetrics.NO_OPTIONS, start, err);
           if (err != null) {
             promise.fail(new RuntimeException("Search error", err));
-          } else if (resp.hits().total().value()==0) {
-            ElasticsearchResponse.setTotalHits(0);
-            LOGGER.debug("No documents found ");
-            promise.complete(new ElasticsearchResponse());
           } else {
-            Hit <ObjectNode> hit = resp.hits().hits().getFirst();
-            LOGGER.debug("Single document found with ID: {}", hit.id());
-            JsonObject source = JsonObject.mapFrom(hit.source());
-            source.remove(SUMMARY_KEY);
-            ElasticsearchResponse response = new ElasticsearchResponse(hit.id(), new JsonObject(source.toString()));
-            ElasticsearchResponse.setTotalHits((int) resp.hits().total().value());
+            metrics.recordTook(ElasticsearchMetrics.GET, index, resp.took());
+            long parseStart = System.nanoTime();
+            ElasticsearchResponse response = toSingleResponse(resp.hits());
+            metrics.recordParse(
+                ElasticsearchMetrics.GET, ElasticsearchMetrics.NO_OPTIONS, parseStart);
             promise.complete(response);
           }
         });
     return promise.future();
   }
 
+  private Future<List<ElasticsearchResponse>> executeMultiSearch(
+      String index, List<QueryModel> models) {
+    Promise<List<ElasticsearchResponse>> promise = Promise.promise();
+    MsearchRequest.Builder builder = new MsearchRequest.Builder().index(index);
+    models.forEach(model -> builder.searches(search -> search
+            .header(header -> header)
+            .body(body -> body.query(model.toElasticsearchQuery()).size(1))));
+    long start = System.nanoTime();
+    asyncClient.msearch(builder.build(), SourceDocument.class)
+        .whenComplete((resp, err) -> {
+          metrics.recordRequest(ElasticsearchMetrics.MULTI_SEARCH, index,
+              ElasticsearchMetrics.NO_OPTIONS, start, err);
+          if (err != null) {
+            promise.fail(new RuntimeException("Multi search error", err));
+            return;
+          }
+          metrics.recordTook(ElasticsearchMetrics.MULTI_SEARCH, index, resp.took());
+          long parseStart = System.nanoTime();
+          List<ElasticsearchResponse> responses = new ArrayList<>(models.size());
+          for (MultiSearchResponseItem<SourceDocument> item : resp.responses()) {
+            if (item.isFailure()) {
+              LOGGER.error("Multi search item failed: {}", item.failure().error().reason());
+              promise.fail(new RuntimeException("Multi search error"));
+              return;
+            }
+            responses.add(toSingleResponse(item.result().hits()));
+          }
+          metrics.recordParse(
+              ElasticsearchMetrics.MULTI_SEARCH, ElasticsearchMetrics.NO_OPTIONS, parseStart);
+          promise.complete(responses);
+        });
+    return promise.future();
+  }
+
+  private ElasticsearchResponse toSingleResponse(HitsMetadata<SourceDocument> hits) {
+    if (hits.total().value() == 0) {
+      LOGGER.debug("No documents found ");
+      return new ElasticsearchResponse();
+    }
+    Hit<SourceDocument> hit = hits.hits().getFirst();
+    LOGGER.debug("Single document found with ID: {}", hit.id());
+    JsonObject source = new JsonObject(hit.source());
+    source.remove(SUMMARY_KEY);
+    ElasticsearchResponse response = new ElasticsearchResponse(hit.id(), source);
+    response.setTotalHits((int) hits.total().value());
+    return response;
+  }
+
   private Future<List<String>> executeBulkIndex(String index, List<QueryModel> models) {
     Promise<List<String>> promise = Promise.promise();
     LOGGER.debug("Index " + index);
@@ -395,7 +644,16 @@ public class ElasticsearchServiceImpl implements ElasticsearchService {
               .document(jsonData)));
     });
     BulkRequest request = bulkBuilder.build();
+    long start = System.nanoTime();
     asyncClient.bulk(request).whenComplete((bulkResponse, error) -> {
+      metrics.recordRequest(
+          ElasticsearchMetrics.BULK_INDEX, index, ElasticsearchMetrics.NO_OPTIONS, start, error);
+      if (error != null) {
+        LOGGER.error("bulk request failed {}", error.getMessage());
+        promise.fail(new RuntimeException("Bulk index error", error));
+        return;
+      }
+      metrics.recordTook(ElasticsearchMetrics.BULK_INDEX, index, bulkResponse.took());
       if (bulkResponse.errors()) {
         LOGGER.error("bulk index failed");
         promise.fail(new RuntimeException("Bulk index error"));
@@ -410,11 +668,56 @@ public class ElasticsearchServiceImpl implements ElasticsearchService {
     return promise.future();
   }
 
+  private Future<JsonArray> executeBulk(String index, List<QueryModel> models, boolean update) {
+    Promise<JsonArray> promise = Promise.promise();
+    BulkRequest.Builder bulkBuilder = new BulkRequest.Builder();
+    for (QueryModel queryModel : models) {
+      JsonObject doc = queryModel.extractDocumentFromQueryModel();
+      String id = doc.getString("id");
+      JsonData jsonData = JsonData.fromJson(doc.encode());
+      if (update) {
+        bulkBuilder.operations(operation -> operation.update(docs -> docs.index(index)
+                .id(id)
+                .action(action -> action.doc(jsonData))));
+      } else {
+        // create, not index: a document written under the same id in the meantime is kept
+        bulkBuilder.operations(operation -> operation.create(docs -> docs.index(index)
+                .id(id)
+                .document(jsonData)));
+      }
+    }
+    String operation = update ? ElasticsearchMetrics.BULK_UPDATE : ElasticsearchMetrics.BULK_CREATE;
+    long start = System.nanoTime();
+    asyncClient.bulk(bulkBuilder.build()).whenComplete((bulkResponse, error) -> {
+      metrics.recordRequest(operation, index, ElasticsearchMetrics.NO_OPTIONS, start, error);
+      if (error != null) {
+        LOGGER.error("bulk request failed {}", error.getMessage());
+        promise.fail(new RuntimeException("Bulk error", error));
+        return;
+      }
+      metrics.recordTook(operation, index, bulkResponse.took());
+      JsonArray results = new JsonArray();
+      for (BulkResponseItem item : bulkResponse.items()) {
+        JsonObject result = new JsonObject().put("id", item.id()).put("status", item.status());
+        if (item.error() != null) {
+          result.put("error", item.error().reason());
+        }
+        results.add(result);
+      }
+      LOGGER.debug("bulk request took {} ms, errors: {}", bulkResponse.took(), bulkResponse.errors());
+      promise.complete(results);
+    });
+    return promise.future();
+  }
+
   private Future<Void> executeDeleteDocument(String index, String id) {
     LOGGER.debug("Deleting document with ID: {}", id);
     Promise<Void> promise = Promise.promise();
     DeleteRequest req = DeleteRequest.of(d -> d.index(index).id(id));
+    long start = System.nanoTime();
     asyncClient.delete(req).whenComplete((resp, err) -> {
+      metrics.recordRequest(
+          ElasticsearchMetrics.DELETE, index, ElasticsearchMetrics.NO_OPTIONS, start, err);
 
       if (err != null) {
         LOGGER.error("delete failed", err);
@@ -429,22 +732,6 @@ public class ElasticsearchServiceImpl implements ElasticsearchService {
     return promise.future();
   }
 
-  private Future<Void> executeExistenceCheck(String index, String id) {
-    Promise<Void> promise = Promise.promise();
-    ExistsRequest req = ExistsRequest.of(e -> e.index(index).id(id));
-    asyncClient.exists(req).whenComplete((res, err) -> {
-      if (err != null || !res.value()) {
-        String msg = err != null ? "Existence check failed" : "Document not found";
-        LOGGER.error(msg, err);
-        promise.fail(new RuntimeException(msg, err));
-      } else {
-        LOGGER.debug("Document with ID: {} exists in index: {}", id, index);
-        promise.complete();
-      }
-    });
-    return promise.future();
-  }
-
   private Future<Void> executeUpdate(String index, String id, QueryModel model) {
     Promise<Void> promise = Promise.promise();
     JsonObject doc = model.extractDocumentFromQueryModel();
@@ -456,7 +743,10 @@ public class ElasticsearchServiceImpl implements ElasticsearchService {
             .id(id)
             .doc(jsonData));
 
+    long start = System.nanoTime();
     asyncClient.update(updateRequest, JsonObject.class).whenComplete((res, err) -> {
+      metrics.recordRequest(
+          ElasticsearchMetrics.UPDATE, index, ElasticsearchMetrics.NO_OPTIONS, start, err);
       if (err != null) {
         LOGGER.error("update failed {}", err.getMessage());
         promise.fail(new RuntimeException("Update error", err));
@@ -479,15 +769,30 @@ public class ElasticsearchServiceImpl implements ElasticsearchService {
     }
     UpdateByQueryRequest request = builder.build();
     LOGGER.debug("UpdateByQuery Request: {}", request);
+    long start = System.nanoTime();
     asyncClient.updateByQuery(request).whenComplete((res, err) -> {
+      metrics.recordRequest(ElasticsearchMetrics.UPDATE_BY_QUERY, index,
+          ElasticsearchMetrics.NO_OPTIONS, start, err);
       if (err != null) {
         LOGGER.error("updateByQuery failed {}", err.getMessage());
         promise.fail(new RuntimeException("UpdateByQuery error", err));
       } else {
         LOGGER.info("Updated {} documents", res);
+        if (res.took() != null) {
+          metrics.recordTook(ElasticsearchMetrics.UPDATE_BY_QUERY, index, res.took());
+        }
         promise.complete();
       }
     });
     return promise.future();
   }
-}
\ No newline at end of file
+
+  /**
+   * Target type for hit sources. Jackson decodes {@code _source} straight into this map from the
+   * response stream and {@link JsonObject} wraps it without copying, so a hit is parsed exactly
+   * once.
+   */
+  static class SourceDocument extends LinkedHashMap<String, Object> {
+    private static final long serialVersionUID = 1L;
+  }
+}
@@ -0,0 +1,157 @@
+package org.cdpg.dx.database.elastic.service;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.serviceproxy.ServiceException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.cdpg.dx.database.elastic.model.ElasticsearchResponse;
+import org.cdpg.dx.database.elastic.model.ElasticsearchSearchResult;
+import org.cdpg.dx.database.elastic.model.QueryModel;
+
+/**
+ * {@link ElasticsearchService} that calls a service instance living in the same JVM directly,
+ * passing query models and results by reference instead of encoding them to JSON for the event
+ * bus. When no instance has been registered for the address, for example because the
+ * Elasticsearch verticle is deployed on another cluster node, calls go through the regular
+ * service proxy.
+ *
+ * <p>Results are always handed back on the caller's context, as they would be with the proxy, and
+ * as copies of what the service produced, so that a caller changing them affects no one else, just
+ * as if they had been decoded from the event bus.
+ */
+public class ElasticsearchServiceLocalBinding implements ElasticsearchService {
+  private static final Logger LOGGER = LogManager.getLogger(ElasticsearchServiceLocalBinding.class);
+  private static final Map<String, List<ElasticsearchService>> LOCAL_SERVICES =
+      new ConcurrentHashMap<>();
+
+  private final Vertx vertx;
+  private final String address;
+  private final ElasticsearchService proxy;
+
+  public ElasticsearchServiceLocalBinding(Vertx vertx, String address) {
+    this.vertx = vertx;
+    this.address = address;
+    this.proxy = ElasticsearchService.createProxy(vertx, address);
+  }
+
+  /** Makes a service instance available to local bindings of the given address. */
+  public static void register(String address, ElasticsearchService service) {
+    LOCAL_SERVICES.computeIfAbsent(address, k -> new CopyOnWriteArrayList<>()).add(service);
+  }
+
+  public static void unregister(String address, ElasticsearchService service) {
+    List<ElasticsearchService> services = LOCAL_SERVICES.get(address);
+    if (services != null) {
+      services.remove(service);
+    }
+  }
+
+  private <T> Future<T> call(
+      Function<ElasticsearchService, Future<T>> method, Function<T, T> copy) {
+    List<ElasticsearchService> services = LOCAL_SERVICES.get(address);
+    ElasticsearchService local = services == null || services.isEmpty() ? null : services.get(0);
+    if (local == null) {
+      LOGGER.trace("No local service for {}, using the event bus", address);
+      return method.apply(proxy);
+    }
+
+    Context context = vertx.getOrCreateContext();
+    Promise<T> promise = Promise.promise();
+    Future<T> future;
+    try {
+      future = method.apply(local);
+    } catch (Exception e) {
+      future = Future.failedFuture(e);
+    }
+    future
+        .map(result -> result != null ? copy.apply(result) : null)
+        .onComplete(ar -> context.runOnContext(v -> promise.handle(asProxyResult(ar))));
+    return promise.future();
+  }
+
+  /**
+   * Failures reach callers the way the service proxy would deliver them: service exceptions are
+   * passed on, anything else becomes a service exception carrying the message.
+   */
+  private static <T> AsyncResult<T> asProxyResult(AsyncResult<T> result) {
+    if (result.succeeded() || result.cause() instanceof ServiceException) {
+      return result;
+    }
+    return Future.failedFuture(new ServiceException(-1, result.cause().getMessage()));
+  }
+
+  @Override
+  public Future<ElasticsearchSearchResult> search(
+      String index, QueryModel queryModel, String options) {
+    return call(
+        service -> service.search(index, queryModel, options), ElasticsearchSearchResult::copy);
+  }
+
+  @Override
+  public Future<Integer> count(String index, QueryModel queryModel) {
+    return call(service -> service.count(index, queryModel), Function.identity());
+  }
+
+  @Override
+  public Future<List<String>> createDocuments(String index, List<QueryModel> documentModels) {
+    return call(service -> service.createDocuments(index, documentModels), ArrayList::new);
+  }
+
+  @Override
+  public Future<ElasticsearchResponse> getSingleDocument(String docIndex, QueryModel queryModel) {
+    return call(
+        service -> service.getSingleDocument(docIndex, queryModel), ElasticsearchResponse::copy);
+  }
+
+  @Override
+  public Future<List<ElasticsearchResponse>> multiSearch(
+      String docIndex, List<QueryModel> queryModels) {
+    return call(
+        service -> service.multiSearch(docIndex, queryModels),
+        responses ->
+            responses.stream().map(ElasticsearchResponse::copy).collect(Collectors.toList()));
+  }
+
+  @Override
+  public Future<JsonArray> bulkCreate(String index, List<QueryModel> documentModels) {
+    return call(service -> service.bulkCreate(index, documentModels), JsonArray::copy);
+  }
+
+  @Override
+  public Future<JsonArray> bulkUpdate(String index, List<QueryModel> documentModels) {
+    return call(service -> service.bulkUpdate(index, documentModels), JsonArray::copy);
+  }
+
+  @Override
+  public Future<Void> deleteDocument(String index, String id) {
+    return call(service -> service.deleteDocument(index, id), Function.identity());
+  }
+
+  @Override
+  public Future<Void> updateDocument(String index, String id, QueryModel queryModel) {
+    return call(service -> service.updateDocument(index, id, queryModel), Function.identity());
+  }
+
+  @Override
+  public Future<Void> updateDocumentsByQuery(QueryModel queryModel, String docIndex) {
+    return call(
+        service -> service.updateDocumentsByQuery(queryModel, docIndex), Function.identity());
+  }
+
+  @Override
+  public Future<Void> deleteByQuery(String index, QueryModel queryModel) {
+    return call(service -> service.deleteByQuery(index, queryModel), Function.identity());
+  }
+}
@@ -314,6 +314,10 @@ public class Constants {
   public static final String RESULT = "results";
   public static final String SIZE_KEY = "size";
   public static final String PAGE_KEY = "page";
+  public static final String CURSOR_KEY = "cursor";
+  /* cursor value that starts a new cursor paginated search */
+  public static final String CURSOR_START = "*";
+  public static final String CURSOR_KEEP_ALIVE = "1m";
 
   public static final int STATIC_DELAY_TIME = 3000;
   public static final String FILTER_PATH = "?filter_path=took,hits.total.value,hits.hits._source";
@@ -366,6 +370,7 @@ public class Constants {
   public static final String KEYSTORE_PASSWORD = "keystorePassword";
   public static final String DATABASE_IP = "databaseIP";
   public static final String DATABASE_PORT = "databasePort";
+  public static final String DATABASE_NODES = "databaseNodes";
   public static final String DATABASE_UNAME = "databaseUser";
   public static final String DOC_INDEX = "docIndex";
   public static final String RATING_INDEX = "ratingIndex";
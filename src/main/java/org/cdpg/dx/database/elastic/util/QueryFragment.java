@@ -0,0 +1,55 @@
+package org.cdpg.dx.database.elastic.util;
+
+import static org.cdpg.dx.database.elastic.util.Constants.*;
+import static org.cdpg.dx.tgdex.util.Constants.ITEM_TYPE_AI_MODEL;
+import static org.cdpg.dx.tgdex.util.Constants.ITEM_TYPE_DATA_BANK;
+
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.cdpg.dx.database.elastic.model.QueryModel;
+
+/**
+ * Query sub-trees that are identical on every request. Each one is compiled into an Elasticsearch
+ * {@link Query} once and shared, since the client's query objects are immutable. A
+ * {@link QueryModel} refers to a fragment by name, which also keeps it small on the event bus.
+ */
+public enum QueryFragment {
+  EXCLUDE_UNPUBLISHED_DATA_BANK(() -> unpublishedOrUnuploadedItems(ITEM_TYPE_DATA_BANK)),
+  EXCLUDE_UNPUBLISHED_AI_MODEL(() -> unpublishedOrUnuploadedItems(ITEM_TYPE_AI_MODEL)),
+  ACCESS_POLICY_OPEN(() -> accessPolicy(OPEN)),
+  ACCESS_POLICY_RESTRICTED(() -> accessPolicy(RESTRICTED)),
+  ACCESS_POLICY_PRIVATE(() -> accessPolicy(PRIVATE));
+
+  private final Query query;
+
+  QueryFragment(Supplier<QueryModel> definition) {
+    this.query = definition.get().toElasticsearchQuery();
+  }
+
+  public Query toQuery() {
+    return query;
+  }
+
+  private static QueryModel unpublishedOrUnuploadedItems(String itemType) {
+    QueryModel typeTerm = new QueryModel(QueryType.TERM)
+        .setQueryParameters(Map.of(FIELD, TYPE_KEYWORD, VALUE, itemType));
+
+    QueryModel shouldClause = new QueryModel(QueryType.BOOL);
+    shouldClause.setShouldQueries(List.of(
+        new QueryModel(QueryType.TERM)
+            .setQueryParameters(Map.of(FIELD, DATA_UPLOAD_STATUS, VALUE, false)),
+        new QueryModel(QueryType.TERM)
+            .setQueryParameters(Map.of(FIELD, PUBLISH_STATUS + KEYWORD_KEY, VALUE, PENDING))
+    ));
+
+    return new QueryModel(QueryType.BOOL)
+        .setMustQueries(List.of(typeTerm, shouldClause));
+  }
+
+  private static QueryModel accessPolicy(String policy) {
+    return new QueryModel(QueryType.MATCH)
+        .setQueryParameters(Map.of(FIELD, ACCESS_POLICY, VALUE, policy));
+  }
+}
@@ -10,16 +10,23 @@ import io.vertx.ext.web.client.WebClientOptions;
 import io.vertx.rabbitmq.RabbitMQClient;
 import io.vertx.rabbitmq.RabbitMQOptions;
 import io.vertx.serviceproxy.ServiceBinder;
+import java.nio.file.Path;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.cdpg.dx.databroker.client.RabbitClient;
 import org.cdpg.dx.databroker.service.DataBrokerService;
 import org.cdpg.dx.databroker.service.DataBrokerServiceImpl;
+import org.cdpg.dx.databroker.spool.AuditSpool;
+import org.cdpg.dx.databroker.spool.SpooledAuditPublisher;
 import org.cdpg.dx.databroker.util.Vhosts;
 
 public class DataBrokerVerticle extends AbstractVerticle {
 
   private static final Logger LOGGER = LogManager.getLogger(DataBrokerVerticle.class);
+  /* One spool directory, so one publisher, for all instances in the JVM. */
+  private static SpooledAuditPublisher auditPublisher;
+  private static RabbitClient auditRabbitClient;
+  private static int auditPublisherUsers;
   private DataBrokerService dataBrokerService;
   private RabbitMQOptions rabbitMQOptions;
   private String dataBrokerIp;
@@ -36,8 +43,6 @@ public class DataBrokerVerticle extends AbstractVerticle {
   private ServiceBinder binder;
   private MessageConsumer<JsonObject> consumer;
   private RabbitClient rabbitClient;
-  private RabbitMQClient iudxRabbitMqClient;
-  private RabbitMQClient iudxInternalRabbitMqClient;
   private int amqpPort;
   private String amqpUrl;
 
@@ -97,12 +102,15 @@ public class DataBrokerVerticle extends AbstractVerticle {
 
     /* Call the databroker constructor with the RabbitMQ client. */
 
-    iudxRabbitMqClient = RabbitMQClient.create(vertx, iudxConfig);
-    iudxInternalRabbitMqClient = RabbitMQClient.create(vertx, iudxInternalConfig);
-    rabbitClient = new RabbitClient(iudxInternalRabbitMqClient, iudxRabbitMqClient);
+    rabbitClient =
+        new RabbitClient(
+            vertx,
+            iudxInternalConfig,
+            iudxConfig,
+            config().getInteger("publishChannelPoolSize", 4));
     binder = new ServiceBinder(vertx);
 
-    dataBrokerService = new DataBrokerServiceImpl(rabbitClient);
+    dataBrokerService = new DataBrokerServiceImpl(rabbitClient, auditPublisher(rabbitClient));
 
     /* Publish the Data Broker service with the Event Bus against an address. */
 
@@ -112,8 +120,44 @@ public class DataBrokerVerticle extends AbstractVerticle {
             .register(DataBrokerService.class, dataBrokerService);
   }
 
+  private SpooledAuditPublisher auditPublisher(RabbitClient client) {
+    synchronized (DataBrokerVerticle.class) {
+      if (auditPublisher == null) {
+        AuditSpool spool =
+            AuditSpool.open(
+                Path.of(config().getString("auditSpoolDir", "audit-spool")),
+                config().getInteger("auditSpoolSegmentBytes", 16 * 1024 * 1024),
+                config().getLong("auditSpoolMaxBytes", 1024L * 1024 * 1024));
+        auditPublisher =
+            new SpooledAuditPublisher(
+                vertx,
+                spool,
+                client,
+                config().getInteger("auditSpoolBatchSize", 500),
+                config().getLong("auditSpoolSyncMs", 1000L));
+        auditRabbitClient = client;
+      }
+      auditPublisherUsers++;
+      return auditPublisher;
+    }
+  }
+
   @Override
   public void stop() throws Exception {
     binder.unregister(consumer);
+    synchronized (DataBrokerVerticle.class) {
+      if (--auditPublisherUsers == 0) {
+        auditPublisher.close();
+        auditPublisher = null;
+        if (auditRabbitClient != rabbitClient) {
+          // the publisher outlived the instance whose client it used
+          auditRabbitClient.close();
+        }
+        auditRabbitClient = null;
+        rabbitClient.close();
+      } else if (rabbitClient != auditRabbitClient) {
+        rabbitClient.close();
+      }
+    }
   }
 }
\ No newline at end of file
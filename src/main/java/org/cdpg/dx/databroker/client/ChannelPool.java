@@ -0,0 +1,238 @@
+package org.cdpg.dx.databroker.client;
+
+import com.rabbitmq.client.AMQP;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.rabbitmq.RabbitMQClient;
+import io.vertx.rabbitmq.RabbitMQConfirmation;
+import io.vertx.rabbitmq.RabbitMQOptions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.cdpg.dx.common.util.MeterRegistries;
+
+/**
+ * A fixed set of confirm mode channels to one vhost. A publish goes to the channel with the fewest
+ * messages awaiting a confirm and completes when the broker confirms it, without waiting for the
+ * confirms of any other message, so any number of publishes can be outstanding at once.
+ *
+ * <p>The Vert.x client has one channel per connection, so each channel here is a client of its
+ * own. A publish fails when its channel is not connected, the broker rejects it, or no confirm
+ * arrives in time; the client reconnects in the background.
+ */
+final class ChannelPool {
+  private static final Logger LOGGER = LogManager.getLogger(ChannelPool.class);
+  private static final long CONFIRM_TIMEOUT_MS = 10_000;
+  private static final int MAX_UNCONFIRMED = 10_000;
+  private static final Map<ExchangeKey, ExchangeMeters> METERS = new ConcurrentHashMap<>();
+
+  private final String vhost;
+  private final List<Channel> channels;
+
+  ChannelPool(Vertx vertx, RabbitMQOptions options, int size) {
+    this(vertx, options.getVirtualHost(), clients(vertx, options, size), CONFIRM_TIMEOUT_MS);
+  }
+
+  /** Over the given clients, one channel each, failing publishes not confirmed in time. */
+  ChannelPool(Vertx vertx, String vhost, List<RabbitMQClient> clients, long confirmTimeoutMs) {
+    this.vhost = vhost;
+    this.channels = new ArrayList<>(clients.size());
+    for (RabbitMQClient client : clients) {
+      channels.add(new Channel(vertx, client, confirmTimeoutMs));
+    }
+  }
+
+  private static List<RabbitMQClient> clients(Vertx vertx, RabbitMQOptions options, int size) {
+    RabbitMQOptions channelOptions = new RabbitMQOptions(options);
+    if (channelOptions.getReconnectAttempts() == 0) {
+      // automatic recovery only covers connections that were established once
+      channelOptions
+          .setReconnectAttempts(Integer.MAX_VALUE)
+          .setReconnectInterval(options.getNetworkRecoveryInterval());
+    }
+    List<RabbitMQClient> clients = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      clients.add(RabbitMQClient.create(vertx, channelOptions));
+    }
+    return clients;
+  }
+
+  /** Connects all channels; succeeds once the first of them is up. */
+  Future<Void> start() {
+    List<Future<Void>> started = new ArrayList<>(channels.size());
+    for (Channel channel : channels) {
+      started.add(channel.client.start());
+    }
+    return Future.any(started).mapEmpty();
+  }
+
+  Future<Void> stop() {
+    List<Future<Void>> stopped = new ArrayList<>(channels.size());
+    for (Channel channel : channels) {
+      stopped.add(channel.client.stop());
+    }
+    return Future.join(stopped).mapEmpty();
+  }
+
+  /** Publishes the message; the future completes once the broker has confirmed it. */
+  Future<Void> publish(String exchangeName, String routingKey, Buffer message) {
+    ExchangeMeters meters =
+        METERS.computeIfAbsent(new ExchangeKey(vhost, exchangeName), ExchangeMeters::new);
+    long start = System.nanoTime();
+    meters.inFlight.incrementAndGet();
+    return pick()
+        .publish(exchangeName, routingKey, message)
+        .onComplete(
+            ar -> {
+              meters.inFlight.decrementAndGet();
+              (ar.succeeded() ? meters.confirmed : meters.failed)
+                  .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            });
+  }
+
+  private Channel pick() {
+    Channel best = null;
+    for (Channel channel : channels) {
+      if (channel.client.isConnected()
+          && (best == null || channel.inFlight.get() < best.inFlight.get())) {
+        best = channel;
+      }
+    }
+    // nothing is connected: let the first channel fail the publish
+    return best != null ? best : channels.get(0);
+  }
+
+  private static final class Channel {
+    private final Vertx vertx;
+    private final RabbitMQClient client;
+    private final long confirmTimeoutMs;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    /* Publishes awaiting a confirm, by delivery tag. */
+    private final ConcurrentSkipListMap<Long, Promise<Void>> unconfirmed =
+        new ConcurrentSkipListMap<>();
+
+    Channel(Vertx vertx, RabbitMQClient client, long confirmTimeoutMs) {
+      this.vertx = vertx;
+      this.client = client;
+      this.confirmTimeoutMs = confirmTimeoutMs;
+      client.addConnectionEstablishedCallback(
+          established -> {
+            // delivery tags start over on a new channel
+            failUnconfirmed();
+            client
+                .confirmSelect()
+                .compose(selected -> client.addConfirmListener(MAX_UNCONFIRMED))
+                .onSuccess(
+                    confirms -> {
+                      confirms.handler(this::confirmed);
+                      established.complete();
+                    })
+                .onFailure(
+                    e -> {
+                      LOGGER.error("Could not put channel in confirm mode: {}", e.getMessage());
+                      established.fail(e);
+                    });
+          });
+    }
+
+    Future<Void> publish(String exchangeName, String routingKey, Buffer message) {
+      Promise<Void> promise = Promise.promise();
+      inFlight.incrementAndGet();
+      client
+          .basicPublishWithDeliveryTag(
+              exchangeName,
+              routingKey,
+              new AMQP.BasicProperties(),
+              message,
+              deliveryTag -> unconfirmed.put(deliveryTag, promise))
+          .onFailure(promise::tryFail);
+      long timer =
+          vertx.setTimer(
+              confirmTimeoutMs,
+              id -> promise.tryFail("No confirm from the broker in " + confirmTimeoutMs + " ms"));
+      return promise
+          .future()
+          .onComplete(
+              ar -> {
+                vertx.cancelTimer(timer);
+                inFlight.decrementAndGet();
+                if (ar.failed()) {
+                  unconfirmed.values().remove(promise);
+                }
+              });
+    }
+
+    private void confirmed(RabbitMQConfirmation confirmation) {
+      long deliveryTag = confirmation.getDeliveryTag();
+      if (confirmation.isMultiple()) {
+        Map.Entry<Long, Promise<Void>> entry;
+        while ((entry = unconfirmed.firstEntry()) != null && entry.getKey() <= deliveryTag) {
+          if (unconfirmed.remove(entry.getKey(), entry.getValue())) {
+            complete(entry.getValue(), confirmation.isSucceeded());
+          }
+        }
+      } else {
+        Promise<Void> promise = unconfirmed.remove(deliveryTag);
+        if (promise != null) {
+          complete(promise, confirmation.isSucceeded());
+        }
+      }
+    }
+
+    private void failUnconfirmed() {
+      Map.Entry<Long, Promise<Void>> entry;
+      while ((entry = unconfirmed.pollFirstEntry()) != null) {
+        entry.getValue().tryFail("Channel closed before the broker confirmed the message");
+      }
+    }
+
+    private static void complete(Promise<Void> promise, boolean acked) {
+      if (acked) {
+        promise.tryComplete();
+      } else {
+        promise.tryFail("Message rejected by the broker");
+      }
+    }
+  }
+
+  private record ExchangeKey(String vhost, String exchange) {}
+
+  /* Shared by all pools, so that every instance of the verticle adds to the same meters. */
+  private static final class ExchangeMeters {
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Timer confirmed;
+    private final Timer failed;
+
+    ExchangeMeters(ExchangeKey key) {
+      MeterRegistry registry = MeterRegistries.get();
+      Gauge.builder("tgdex.rabbitmq.publish.inflight", inFlight, AtomicInteger::get)
+          .description("Messages published and not yet confirmed by the broker")
+          .tag("vhost", String.valueOf(key.vhost()))
+          .tag("exchange", String.valueOf(key.exchange()))
+          .register(registry);
+      confirmed = timer(registry, key, "confirmed");
+      failed = timer(registry, key, "failed");
+    }
+
+    private static Timer timer(MeterRegistry registry, ExchangeKey key, String outcome) {
+      return Timer.builder("tgdex.rabbitmq.publish")
+          .description("Time from publishing a message to the broker confirming it")
+          .tag("vhost", String.valueOf(key.vhost()))
+          .tag("exchange", String.valueOf(key.exchange()))
+          .tag("outcome", outcome)
+          .publishPercentileHistogram()
+          .register(registry);
+    }
+  }
+}
@@ -4,25 +4,32 @@ import static org.cdpg.dx.common.ErrorMessage.INTERNAL_SERVER_ERROR;
 
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
-import io.vertx.rabbitmq.RabbitMQClient;
+import io.vertx.rabbitmq.RabbitMQOptions;
+import java.util.ArrayList;
+import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.cdpg.dx.common.exception.DxRabbitMqException;
 
 public class RabbitClient {
   private static final Logger LOGGER = LogManager.getLogger(RabbitClient.class);
-  private final RabbitMQClient iudxInternalRabbitMqClient;
-  private final RabbitMQClient iudxRabbitMqClient;
+  private final ChannelPool iudxInternalChannels;
+  private final ChannelPool iudxChannels;
 
+  /** Opens {@code channels} confirm mode channels to each of the two vhosts. */
   public RabbitClient(
-      RabbitMQClient iudxInternalRabbitMqClient, RabbitMQClient iudxRabbitMqClient) {
-    this.iudxRabbitMqClient = iudxRabbitMqClient;
-    this.iudxInternalRabbitMqClient = iudxInternalRabbitMqClient;
+      Vertx vertx,
+      RabbitMQOptions iudxInternalConfig,
+      RabbitMQOptions iudxConfig,
+      int channels) {
+    this(new ChannelPool(vertx, iudxInternalConfig, channels),
+        new ChannelPool(vertx, iudxConfig, channels));
 
-    iudxInternalRabbitMqClient
+    iudxInternalChannels
         .start()
         .onSuccess(
             iudxInternalRabbitClientStart -> {
@@ -32,7 +39,7 @@ public class RabbitClient {
             iudxInternalRabbitClientStart -> {
               LOGGER.fatal("RMQ client startup failed");
             });
-    iudxRabbitMqClient
+    iudxChannels
         .start()
         .onSuccess(
             iudxRabbitClientStart -> {
@@ -44,21 +51,18 @@ public class RabbitClient {
             });
   }
 
+  /** Over channels that are already set up, without starting them. */
+  RabbitClient(ChannelPool iudxInternalChannels, ChannelPool iudxChannels) {
+    this.iudxInternalChannels = iudxInternalChannels;
+    this.iudxChannels = iudxChannels;
+  }
+
   public Future<Void> publishMessageInternal(
       JsonObject body, String exchangeName, String routingKey) {
     Buffer buffer = Buffer.buffer(body.toString());
     Promise<Void> promise = Promise.promise();
-    Future<Void> rabbitMqClientIudxInternalStartFuture;
-    if (!iudxInternalRabbitMqClient.isConnected()) {
-      rabbitMqClientIudxInternalStartFuture = iudxInternalRabbitMqClient.start();
-    } else {
-      rabbitMqClientIudxInternalStartFuture = Future.succeededFuture();
-    }
-    rabbitMqClientIudxInternalStartFuture
-        .compose(
-            started -> {
-              return iudxInternalRabbitMqClient.basicPublish(exchangeName, routingKey, buffer);
-            })
+    iudxInternalChannels
+        .publish(exchangeName, routingKey, buffer)
         .onSuccess(
             publishSuccess -> {
               promise.complete();
@@ -66,26 +70,46 @@ public class RabbitClient {
         .onFailure(
             publishFailure -> {
               LOGGER.error("publishMessage failure {}", String.valueOf(publishFailure));
-                promise.fail(new DxRabbitMqException(INTERNAL_SERVER_ERROR));
+              promise.fail(new DxRabbitMqException(INTERNAL_SERVER_ERROR));
             });
     return promise.future();
   }
 
+  /**
+   * Publishes each body as its own message and completes once the broker has confirmed all of
+   * them. The messages are spread over the channels and their confirms awaited together.
+   */
+  public Future<Void> publishMessagesInternal(
+      JsonArray bodies, String exchangeName, String routingKey) {
+    List<Buffer> messages = new ArrayList<>(bodies.size());
+    for (Object body : bodies) {
+      messages.add(((JsonObject) body).toBuffer());
+    }
+    return publishBuffersInternal(messages, exchangeName, routingKey);
+  }
+
+  /** Like {@link #publishMessagesInternal}, for messages that are already encoded. */
+  public Future<Void> publishBuffersInternal(
+      List<Buffer> messages, String exchangeName, String routingKey) {
+    List<Future<Void>> confirmed = new ArrayList<>(messages.size());
+    for (Buffer message : messages) {
+      confirmed.add(iudxInternalChannels.publish(exchangeName, routingKey, message));
+    }
+    return Future.all(confirmed)
+        .<Void>mapEmpty()
+        .recover(
+            publishFailure -> {
+              LOGGER.error("publishMessages failure {}", String.valueOf(publishFailure));
+              return Future.failedFuture(new DxRabbitMqException(INTERNAL_SERVER_ERROR));
+            });
+  }
+
   public Future<Void> publishMessageExternal(
       String exchangeName, String routingKey, JsonArray request) {
     Promise<Void> promise = Promise.promise();
-    Future<Void> rabbitMqClientIudxStartFuture;
-    if (!iudxRabbitMqClient.isConnected()) {
-      rabbitMqClientIudxStartFuture = iudxRabbitMqClient.start();
-    } else {
-      rabbitMqClientIudxStartFuture = Future.succeededFuture();
-    }
     Buffer buffer = Buffer.buffer(request.encode());
-    rabbitMqClientIudxStartFuture
-        .compose(
-            started -> {
-              return iudxRabbitMqClient.basicPublish(exchangeName, routingKey, buffer);
-            })
+    iudxChannels
+        .publish(exchangeName, routingKey, buffer)
         .onSuccess(
             resultHandler -> {
               promise.complete();
@@ -97,4 +121,8 @@ public class RabbitClient {
             });
     return promise.future();
   }
-}
\ No newline at end of file
+
+  public Future<Void> close() {
+    return Future.join(iudxInternalChannels.stop(), iudxChannels.stop()).mapEmpty();
+  }
+}
@@ -18,5 +18,10 @@ public interface DataBrokerService {
 
   Future<Void> publishMessageInternal(JsonObject body, String exchangeName, String routingKey);
 
+  /**
+   * Publishes each body as its own message and succeeds once the broker has confirmed all of them.
+   */
+  Future<Void> publishMessagesInternal(JsonArray bodies, String exchangeName, String routingKey);
+
   Future<String> publishMessageExternal(String exchangeName, String routingKey, JsonArray request);
 }
\ No newline at end of file
@@ -1,20 +1,29 @@
 package org.cdpg.dx.databroker.service;
 
+import static org.cdpg.dx.auditing.util.Constants.AUDITING_EXCHANGE;
+
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import java.util.ArrayList;
+import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.cdpg.dx.databroker.client.RabbitClient;
+import org.cdpg.dx.databroker.spool.SpooledAuditPublisher;
 
 public class DataBrokerServiceImpl implements DataBrokerService {
   private static final Logger LOGGER = LogManager.getLogger(DataBrokerServiceImpl.class);
   private final RabbitClient rabbitClient;
+  private final SpooledAuditPublisher auditPublisher;
 
+  /** Audit messages go through {@code auditPublisher}, everything else straight to the broker. */
   public DataBrokerServiceImpl(
-      RabbitClient client) {
+      RabbitClient client, SpooledAuditPublisher auditPublisher) {
     this.rabbitClient = client;
+    this.auditPublisher = auditPublisher;
     LOGGER.trace("Info : DataBrokerServiceImpl#constructor() completed");
   }
 
@@ -40,6 +49,9 @@ public class DataBrokerServiceImpl implements DataBrokerService {
   @Override
   public Future<Void> publishMessageInternal(
       JsonObject body, String exchangeName, String routingKey) {
+    if (AUDITING_EXCHANGE.equals(exchangeName)) {
+      return auditPublisher.publish(List.of(body.toBuffer()));
+    }
     Promise<Void> promise = Promise.promise();
     rabbitClient
         .publishMessageInternal(body, exchangeName, routingKey)
@@ -55,4 +67,24 @@ public class DataBrokerServiceImpl implements DataBrokerService {
             });
     return promise.future();
   }
-}
\ No newline at end of file
+
+  @Override
+  public Future<Void> publishMessagesInternal(
+      JsonArray bodies, String exchangeName, String routingKey) {
+    if (AUDITING_EXCHANGE.equals(exchangeName)) {
+      List<Buffer> messages = new ArrayList<>(bodies.size());
+      for (Object body : bodies) {
+        messages.add(((JsonObject) body).toBuffer());
+      }
+      return auditPublisher.publish(messages);
+    }
+    return rabbitClient
+        .publishMessagesInternal(bodies, exchangeName, routingKey)
+        .onFailure(
+            publishFailure ->
+                LOGGER.error(
+                    "publishMessages failure for {} messages: {}",
+                    bodies.size(),
+                    publishFailure.getMessage()));
+  }
+}
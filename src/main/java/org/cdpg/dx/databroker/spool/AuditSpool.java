@@ -0,0 +1,365 @@
+package org.cdpg.dx.databroker.spool;
+
+import io.vertx.core.buffer.Buffer;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A local, append-only queue of audit messages in memory-mapped segment files, so that accepting
+ * a message costs a copy into memory whatever state the broker is in.
+ *
+ * <p>Each segment is a fixed size file of records, each an {@code int} length and the CRC32 of the
+ * message followed by the message. The length is written last, so a record only exists for the
+ * process once it is complete, and a zero length marks the end of what has been written. The
+ * machine going down can leave a record whose pages only partly reached the disk; its checksum
+ * then does not match, and it ends the segment on recovery. A checkpoint file holds the position
+ * of the first message not yet confirmed by the broker; segments before it are deleted. Messages
+ * survive a restart of the process, and at most those since the last {@link #force} can be lost
+ * with the machine.
+ *
+ * <p>{@link #append} and {@link #read} only copy memory and may be called on an event loop: the
+ * next segment is created ahead of time by {@link #prepare}. {@link #prepare}, {@link #force},
+ * {@link #commit} and {@link #close} do the file I/O and are meant for a worker thread, one call at
+ * a time; they hold the lock only to swap state, never over the I/O. A lock file keeps a second
+ * process from using the same directory.
+ */
+public final class AuditSpool implements AutoCloseable {
+  private static final Logger LOGGER = LogManager.getLogger(AuditSpool.class);
+  private static final String SEGMENT_SUFFIX = ".segment";
+  /* The length and the checksum. */
+  private static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+  private final Path dir;
+  private final int segmentBytes;
+  private final long maxBytes;
+  private final FileChannel lockChannel;
+  private final FileLock lock;
+  private final NavigableMap<Long, MappedByteBuffer> segments = new TreeMap<>();
+  private long writeSegment;
+  private int writeOffset;
+  private Position checkpoint;
+  /* The segment after the write segment, once created. */
+  private MappedByteBuffer spare;
+  /* Segments appended to since the last force. */
+  private List<MappedByteBuffer> unforced = new ArrayList<>();
+
+  private AuditSpool(Path dir, int segmentBytes, long maxBytes) throws IOException {
+    this.dir = dir;
+    this.segmentBytes = segmentBytes;
+    this.maxBytes = maxBytes;
+    Files.createDirectories(dir);
+    lockChannel = FileChannel.open(dir.resolve("lock"),
+        StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    lock = lockChannel.tryLock();
+    if (lock == null) {
+      lockChannel.close();
+      throw new IOException("Audit spool " + dir + " is in use by another process");
+    }
+  }
+
+  /** Opens the spool in {@code dir}, picking up whatever an earlier run left unpublished. */
+  public static AuditSpool open(Path dir, int segmentBytes, long maxBytes) {
+    try {
+      AuditSpool spool = new AuditSpool(dir, segmentBytes, maxBytes);
+      spool.recover();
+      return spool;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void recover() throws IOException {
+    try (Stream<Path> files = Files.list(dir)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        String name = file.getFileName().toString();
+        if (name.endsWith(SEGMENT_SUFFIX)) {
+          long id = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+          segments.put(id, map(file, (int) Files.size(file)));
+        }
+      }
+    }
+    checkpoint = readCheckpoint();
+    // anything before the checkpoint has been published already
+    List<Long> published = segments.headMap(checkpoint.segment(), false).keySet().stream().toList();
+    published.forEach(segments::remove);
+    published.forEach(this::deleteSegment);
+    if (segments.isEmpty()) {
+      // everything was published: start afresh after the last segment
+      writeSegment = checkpoint.segment() + 1;
+      checkpoint = new Position(writeSegment, 0);
+      segments.put(writeSegment, createSegment(writeSegment, segmentBytes));
+      writeOffset = 0;
+    } else {
+      writeSegment = segments.lastKey();
+      MappedByteBuffer segment = segments.get(writeSegment);
+      writeOffset = endOf(segment);
+      if (checkpoint.segment() == writeSegment && checkpoint.offset() > writeOffset) {
+        // published records that did not reach the disk, while the checkpoint did
+        writeOffset = checkpoint.offset();
+      }
+      // drop whatever follows a torn record, so that zero marks the end again
+      for (int offset = writeOffset; offset < segment.capacity(); offset++) {
+        segment.put(offset, (byte) 0);
+      }
+    }
+    long pending = pendingBytes();
+    if (pending > 0) {
+      LOGGER.info("Audit spool {} holds {} bytes of unpublished messages", dir, pending);
+    }
+  }
+
+  /**
+   * Appends the messages, all or none. Fails with an {@link IllegalStateException} once the spool
+   * holds its maximum number of bytes.
+   */
+  public synchronized void append(List<Buffer> messages) {
+    long needed = 0;
+    for (Buffer message : messages) {
+      needed += HEADER_BYTES + message.length();
+    }
+    if (pendingBytes() + needed > maxBytes) {
+      throw new IllegalStateException("Audit spool " + dir + " is full");
+    }
+    for (Buffer message : messages) {
+      int length = message.length();
+      if (length == 0) {
+        // would read as the end of the segment, and there is nothing to publish
+        continue;
+      }
+      if (writeOffset + HEADER_BYTES + length > segments.get(writeSegment).capacity()) {
+        roll(HEADER_BYTES + length);
+      }
+      MappedByteBuffer segment = segments.get(writeSegment);
+      byte[] bytes = message.getBytes();
+      segment.put(writeOffset + HEADER_BYTES, bytes);
+      segment.putInt(writeOffset + Integer.BYTES, checksum(bytes));
+      segment.putInt(writeOffset, length);
+      writeOffset += HEADER_BYTES + length;
+      if (unforced.isEmpty() || unforced.get(unforced.size() - 1) != segment) {
+        unforced.add(segment);
+      }
+    }
+  }
+
+  /**
+   * Up to {@code maxMessages} messages from the checkpoint on, and the position after the last of
+   * them, to {@link #commit} once they are published.
+   */
+  public synchronized Batch read(int maxMessages) {
+    List<Buffer> messages = new ArrayList<>();
+    long segmentId = checkpoint.segment();
+    int offset = checkpoint.offset();
+    while (messages.size() < maxMessages) {
+      MappedByteBuffer segment = segments.get(segmentId);
+      int length = segment == null ? 0 : recordLength(segment, offset);
+      if (length == 0) {
+        Long next = segments.higherKey(segmentId);
+        if (next == null) {
+          break;
+        }
+        segmentId = next;
+        offset = 0;
+        continue;
+      }
+      byte[] message = new byte[length];
+      segment.get(offset + HEADER_BYTES, message);
+      if (checksum(message) != segment.getInt(offset + Integer.BYTES)) {
+        LOGGER.warn("Audit spool segment {} is damaged at {}, skipping the rest of it",
+            segmentId, offset);
+        offset = segment.capacity();
+        continue;
+      }
+      messages.add(Buffer.buffer(message));
+      offset += HEADER_BYTES + length;
+    }
+    return new Batch(messages, new Position(segmentId, offset));
+  }
+
+  /** Records that everything before {@code position} has been published. */
+  public void commit(Position position) {
+    try {
+      Path temp = dir.resolve("checkpoint.tmp");
+      ByteBuffer bytes = ByteBuffer.allocate(Long.BYTES + Integer.BYTES);
+      bytes.putLong(position.segment()).putInt(position.offset()).flip();
+      try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+          StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+        channel.write(bytes);
+      }
+      Files.move(temp, dir.resolve("checkpoint"), StandardCopyOption.ATOMIC_MOVE,
+          StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      // the messages are published again after a restart, which at-least-once allows
+      LOGGER.error("Could not write audit spool checkpoint: {}", e.getMessage());
+    }
+    List<Long> published;
+    synchronized (this) {
+      checkpoint = position;
+      published = segments.headMap(position.segment(), false).keySet().stream().toList();
+      published.forEach(segments::remove);
+    }
+    published.forEach(this::deleteSegment);
+  }
+
+  /** Writes what has been appended since the last call to the disk. */
+  public void force() {
+    List<MappedByteBuffer> written;
+    synchronized (this) {
+      written = unforced;
+      unforced = new ArrayList<>();
+    }
+    written.forEach(MappedByteBuffer::force);
+  }
+
+  /** Whether the next segment still has to be created by {@link #prepare}. */
+  public synchronized boolean needsPrepare() {
+    return spare == null;
+  }
+
+  /** Creates the segment that {@link #append} moves on to once the current one is full. */
+  public void prepare() {
+    long id;
+    synchronized (this) {
+      if (spare != null) {
+        return;
+      }
+      id = writeSegment + 1;
+    }
+    MappedByteBuffer segment = createSegment(id, segmentBytes);
+    synchronized (this) {
+      // an append that could not wait has created it meanwhile
+      if (spare == null && writeSegment + 1 == id) {
+        spare = segment;
+      }
+    }
+  }
+
+  /** Bytes appended but not yet committed. */
+  public synchronized long pendingBytes() {
+    long bytes = 0;
+    for (var segment : segments.tailMap(checkpoint.segment(), true).entrySet()) {
+      long id = segment.getKey();
+      bytes += id == writeSegment ? writeOffset : segment.getValue().capacity();
+      if (id == checkpoint.segment()) {
+        bytes -= checkpoint.offset();
+      }
+    }
+    return bytes;
+  }
+
+  public synchronized int segmentCount() {
+    return segments.size();
+  }
+
+  @Override
+  public void close() {
+    force();
+    try {
+      lock.release();
+      lockChannel.close();
+    } catch (IOException e) {
+      LOGGER.warn("Could not release audit spool lock: {}", e.getMessage());
+    }
+  }
+
+  private void roll(int needed) {
+    writeSegment++;
+    writeOffset = 0;
+    MappedByteBuffer next = spare;
+    spare = null;
+    if (next == null || needed > next.capacity()) {
+      // not prepared yet, or a message larger than a segment, which gets a segment of its own
+      next = createSegment(writeSegment, Math.max(segmentBytes, needed));
+    }
+    segments.put(writeSegment, next);
+  }
+
+  private MappedByteBuffer createSegment(long id, int bytes) {
+    try {
+      return map(segmentPath(id), bytes);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void deleteSegment(long id) {
+    try {
+      // the mapping itself goes away with the buffer
+      Files.deleteIfExists(segmentPath(id));
+    } catch (IOException e) {
+      LOGGER.warn("Could not delete audit spool segment {}: {}", id, e.getMessage());
+    }
+  }
+
+  private Path segmentPath(long id) {
+    return dir.resolve(String.format("%020d%s", id, SEGMENT_SUFFIX));
+  }
+
+  private Position readCheckpoint() throws IOException {
+    Path file = dir.resolve("checkpoint");
+    if (!Files.exists(file)) {
+      return new Position(segments.isEmpty() ? 0 : segments.firstKey(), 0);
+    }
+    ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file));
+    return new Position(bytes.getLong(), bytes.getInt());
+  }
+
+  private static MappedByteBuffer map(Path file, int bytes) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      return channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+    }
+  }
+
+  /* The end of the last complete record, the first one whose checksum does not match. */
+  private static int endOf(MappedByteBuffer segment) {
+    int offset = 0;
+    int length;
+    while ((length = recordLength(segment, offset)) > 0) {
+      byte[] message = new byte[length];
+      segment.get(offset + HEADER_BYTES, message);
+      if (checksum(message) != segment.getInt(offset + Integer.BYTES)) {
+        LOGGER.warn("Audit spool segment ends with a torn record at {}", offset);
+        break;
+      }
+      offset += HEADER_BYTES + length;
+    }
+    return offset;
+  }
+
+  /* The length of the record at offset, 0 at the end or where no whole record would fit. */
+  private static int recordLength(MappedByteBuffer segment, int offset) {
+    if (offset + HEADER_BYTES > segment.capacity()) {
+      return 0;
+    }
+    int length = segment.getInt(offset);
+    return length > 0 && length <= segment.capacity() - offset - HEADER_BYTES ? length : 0;
+  }
+
+  private static int checksum(byte[] message) {
+    CRC32 crc = new CRC32();
+    crc.update(message);
+    return (int) crc.getValue();
+  }
+
+  /** A place in the spool: a segment and an offset into it. */
+  public record Position(long segment, int offset) {}
+
+  /** Messages read from the spool and where the next read starts once they are published. */
+  public record Batch(List<Buffer> messages, Position end) {}
+}
@@ -0,0 +1,151 @@
+package org.cdpg.dx.databroker.spool;
+
+import static org.cdpg.dx.auditing.util.Constants.AUDITING_EXCHANGE;
+import static org.cdpg.dx.auditing.util.Constants.ROUTING_KEY;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
+import io.vertx.core.buffer.Buffer;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.cdpg.dx.common.util.MeterRegistries;
+import org.cdpg.dx.databroker.client.RabbitClient;
+
+/**
+ * Accepts audit messages into an {@link AuditSpool} and publishes them from there to the auditing
+ * exchange in the background, so that neither the latency nor the availability of the broker
+ * reaches the caller. A batch is only checkpointed once the broker has confirmed all of it, and a
+ * failed batch is retried, with a growing delay, until it goes through: every message is published
+ * at least once, also across restarts. The spool's file I/O runs on a worker thread of its own, so
+ * that the event loops only ever copy messages in and out of memory.
+ */
+public final class SpooledAuditPublisher {
+  private static final Logger LOGGER = LogManager.getLogger(SpooledAuditPublisher.class);
+  private static final long MIN_RETRY_MS = 500;
+  private static final long MAX_RETRY_MS = 30_000;
+  private static final String SPOOL_POOL = "audit-spool";
+
+  private final Vertx vertx;
+  private final Context context;
+  private final AuditSpool spool;
+  /* One thread, so the spool's I/O calls never overlap. */
+  private final WorkerExecutor worker;
+  private final AtomicBoolean preparing = new AtomicBoolean();
+  private final RabbitClient rabbitClient;
+  private final int batchSize;
+  private final Counter appended;
+  private final Counter published;
+  private volatile boolean draining;
+  private long retryMs = MIN_RETRY_MS;
+  private long syncTimer;
+
+  public SpooledAuditPublisher(
+      Vertx vertx, AuditSpool spool, RabbitClient rabbitClient, int batchSize, long syncMs) {
+    this.vertx = vertx;
+    this.context = vertx.getOrCreateContext();
+    this.spool = spool;
+    this.worker = vertx.createSharedWorkerExecutor(SPOOL_POOL, 1);
+    this.rabbitClient = rabbitClient;
+    this.batchSize = batchSize;
+
+    MeterRegistry registry = MeterRegistries.get();
+    appended = Counter.builder("tgdex.audit.spool.messages").tag("stage", "appended")
+        .description("Audit messages through the local spool").register(registry);
+    published = Counter.builder("tgdex.audit.spool.messages").tag("stage", "published")
+        .description("Audit messages through the local spool").register(registry);
+    Gauge.builder("tgdex.audit.spool.pending", spool, AuditSpool::pendingBytes)
+        .description("Bytes of audit messages waiting in the local spool")
+        .baseUnit("bytes")
+        .register(registry);
+    Gauge.builder("tgdex.audit.spool.segments", spool, AuditSpool::segmentCount)
+        .description("Segment files of the local audit spool")
+        .register(registry);
+
+    // also picks up what an earlier run left behind
+    context.runOnContext(v -> {
+      syncTimer = vertx.setPeriodic(syncMs, id -> {
+        onWorker(spool::force);
+        drain();
+      });
+      prepare();
+      drain();
+    });
+  }
+
+  /** Spools the messages; fails only when the spool is full or cannot be written. */
+  public Future<Void> publish(List<Buffer> messages) {
+    try {
+      spool.append(messages);
+    } catch (RuntimeException e) {
+      LOGGER.error("Could not spool {} audit messages: {}", messages.size(), e.getMessage());
+      return Future.failedFuture(e);
+    }
+    appended.increment(messages.size());
+    if (spool.needsPrepare()) {
+      prepare();
+    }
+    if (!draining) {
+      context.runOnContext(v -> drain());
+    }
+    return Future.succeededFuture();
+  }
+
+  public void close() {
+    vertx.cancelTimer(syncTimer);
+    onWorker(spool::close).onComplete(ar -> worker.close());
+  }
+
+  private void prepare() {
+    if (preparing.compareAndSet(false, true)) {
+      onWorker(spool::prepare).onComplete(ar -> preparing.set(false));
+    }
+  }
+
+  private Future<Void> onWorker(Runnable io) {
+    return worker
+        .<Void>executeBlocking(() -> {
+          io.run();
+          return null;
+        }, true)
+        .onFailure(failure -> LOGGER.error("Audit spool I/O failed: {}", failure.getMessage()));
+  }
+
+  private void drain() {
+    if (draining) {
+      return;
+    }
+    draining = true;
+    next();
+  }
+
+  private void next() {
+    AuditSpool.Batch batch = spool.read(batchSize);
+    if (batch.messages().isEmpty()) {
+      draining = false;
+      return;
+    }
+    rabbitClient
+        .publishBuffersInternal(batch.messages(), AUDITING_EXCHANGE, ROUTING_KEY)
+        .onSuccess(
+            confirmed -> {
+              published.increment(batch.messages().size());
+              retryMs = MIN_RETRY_MS;
+              // the next read starts from the checkpoint, so it waits for the commit
+              onWorker(() -> spool.commit(batch.end())).onComplete(ar -> next());
+            })
+        .onFailure(
+            failure -> {
+              LOGGER.warn("Publishing {} spooled audit messages failed, retrying in {} ms: {}",
+                  batch.messages().size(), retryMs, failure.getMessage());
+              vertx.setTimer(retryMs, id -> next());
+              retryMs = Math.min(retryMs * 2, MAX_RETRY_MS);
+            });
+  }
+}
@@ -1,5 +1,6 @@
 package org.cdpg.dx.tgdex.apiserver;
 
+import static org.cdpg.dx.common.config.ServiceProxyAddressConstants.DATA_BROKER_SERVICE_ADDRESS;
 import static org.cdpg.dx.util.Constants.*;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
@@ -8,6 +9,7 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import io.vertx.core.AbstractVerticle;
 import io.vertx.core.Future;
+import io.vertx.core.Promise;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.HttpServer;
 import io.vertx.core.http.HttpServerOptions;
@@ -15,27 +17,32 @@ import io.vertx.core.http.HttpServerResponse;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.json.jackson.DatabindCodec;
 import io.vertx.core.net.KeyStoreOptions;
-import io.vertx.ext.auth.jwt.JWTAuth;
 import io.vertx.ext.web.Route;
 import io.vertx.ext.web.Router;
 import io.vertx.ext.web.handler.*;
 import io.vertx.ext.web.openapi.RouterBuilder;
+import io.vertx.ext.web.openapi.RouteNamingStrategy;
 import io.vertx.ext.web.openapi.RouterBuilderOptions;
 import io.vertx.serviceproxy.HelperUtils;
 import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.cdpg.dx.auditing.handler.AuditingHandler;
 import org.cdpg.dx.auth.authentication.handler.KeycloakJwtAuthHandler;
 import org.cdpg.dx.auth.authentication.handler.OptionalJwtAuthHandler;
 import org.cdpg.dx.auth.authentication.provider.JwtAuthProvider;
+import org.cdpg.dx.auth.authentication.provider.JwtVerifier;
 import org.cdpg.dx.common.FailureHandler;
 import org.cdpg.dx.common.HttpStatusCode;
+import org.cdpg.dx.common.util.RequestTimings;
+import org.cdpg.dx.databroker.service.DataBrokerService;
 
 public class ApiServerVerticle extends AbstractVerticle {
     private static final Logger LOGGER = LogManager.getLogger(ApiServerVerticle.class);
     private int port;
     private HttpServer server;
     private Router router;
+    private AuditingHandler auditingHandler;
 
     public static String errorResponse(HttpStatusCode code) {
         return new JsonObject()
@@ -45,33 +52,43 @@ public class ApiServerVerticle extends AbstractVerticle {
                 .toString();
     }
 
-    @Override
-    public void start() {
-        port = config().getInteger("httpPort", 8443);
-
+    /** Sets up the mapper behind {@code Json} the way responses are encoded, and returns it. */
+    public static ObjectMapper configureJsonCodec() {
         ObjectMapper mapper = DatabindCodec.mapper();
         mapper.registerModule(new JavaTimeModule());
         mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
         mapper.setSerializationInclusion(JsonInclude.Include.NON_EMPTY);
+        return mapper;
+    }
+
+    @Override
+    public void start() {
+        port = config().getInteger("httpPort", 8443);
+
+        ObjectMapper mapper = configureJsonCodec();
 
         ObjectMapper prettyMapper = mapper.copy();
         prettyMapper.enable(SerializationFeature.INDENT_OUTPUT);
 
         Future<RouterBuilder> routerFuture = RouterBuilder.create(vertx, "docs/openapi.yaml");
-        Future<JWTAuth> authFuture = JwtAuthProvider.init(vertx, config());
+        Future<JwtVerifier> authFuture = JwtAuthProvider.init(vertx, config());
 
-        List<ApiController> controllers = ControllerFactory.createControllers(vertx, config());
+        auditingHandler = new AuditingHandler(
+                vertx, DataBrokerService.createProxy(vertx, DATA_BROKER_SERVICE_ADDRESS), config());
+        List<ApiController> controllers =
+                ControllerFactory.createControllers(vertx, config(), auditingHandler);
 try {
     Future.all(routerFuture, authFuture)
             .onSuccess(
                     cf -> {
                         RouterBuilder routerBuilder = cf.resultAt(0);
-                        JWTAuth jwtAuth = cf.resultAt(1);
-                        AuthenticationHandler authHandler = new KeycloakJwtAuthHandler(jwtAuth);
-                        AuthenticationHandler optionalAuth = new OptionalJwtAuthHandler(jwtAuth);
+                        JwtVerifier verifier = cf.resultAt(1);
+                        AuthenticationHandler authHandler = new KeycloakJwtAuthHandler(verifier);
+                        AuthenticationHandler optionalAuth = new OptionalJwtAuthHandler(verifier);
 
                         try {
                             LOGGER.debug("Adding platform handlers...");
+                            routerBuilder.rootHandler(RequestTimings.handler());
                             int timeout = config().getInteger("timeout", 100000);
                             routerBuilder.rootHandler(TimeoutHandler.create(timeout, 408));
 
@@ -79,7 +96,10 @@ try {
 
                             LOGGER.debug("Registering controllers...");
                             RouterBuilderOptions factoryOptions =
-                                    new RouterBuilderOptions().setMountResponseContentTypeHandler(true);
+                                    new RouterBuilderOptions()
+                                            .setMountResponseContentTypeHandler(true)
+                                            // route names are read by RequestTimings
+                                            .setRouteNamingStrategy(RouteNamingStrategy.OPERATION_ID);
                             routerBuilder.setOptions(factoryOptions);
 
                             routerBuilder.securityHandler("authorization", authHandler);
@@ -231,9 +251,10 @@ catch (Exception e) {
     }
 
     @Override
-    public void stop() {
-        if (server != null) {
-            server.close();
-        }
+    public void stop(Promise<Void> stopPromise) {
+        Future<Void> closed = server != null ? server.close() : Future.succeededFuture();
+        // no more requests to audit once the server is closed
+        closed.eventually(() -> auditingHandler != null ? auditingHandler.close() : Future.succeededFuture())
+                .onComplete(stopPromise);
     }
 }
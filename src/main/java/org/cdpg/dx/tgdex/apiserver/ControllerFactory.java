@@ -5,6 +5,7 @@ import io.vertx.core.json.JsonObject;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.cdpg.dx.auditing.handler.AuditingHandler;
+import org.cdpg.dx.tgdex.item.controller.BulkItemController;
 import org.cdpg.dx.tgdex.item.controller.ItemController;
 import org.cdpg.dx.tgdex.item.factory.ItemControllerFactory;
 import org.cdpg.dx.tgdex.list.controller.ListController;
@@ -13,7 +14,6 @@ import org.cdpg.dx.tgdex.search.controller.SearchController;
 import org.cdpg.dx.tgdex.search.factory.SearchControllerFactory;
 import org.cdpg.dx.catalogue.service.CatalogueService;
 import org.cdpg.dx.database.elastic.service.ElasticsearchService;
-import org.cdpg.dx.databroker.service.DataBrokerService;
 import org.cdpg.dx.tgdex.validator.service.ValidatorService;
 import org.cdpg.dx.tgdex.validator.service.ValidatorServiceImpl;
 
@@ -27,25 +27,28 @@ public class ControllerFactory {
 
   private ControllerFactory() {}
 
-  public static List<ApiController> createControllers(Vertx vertx, JsonObject config) {
+  public static List<ApiController> createControllers(
+      Vertx vertx, JsonObject config, AuditingHandler auditingHandler) {
     LOGGER.info("Creating controllers...");
     final String docIndex = config.getString("docIndex");
     final String vocContext = config.getString("vocContext");
 
     // Service proxies
     final ElasticsearchService esService =
-        ElasticsearchService.createProxy(vertx, ELASTIC_SERVICE_ADDRESS);
-    final DataBrokerService brokerService =
-        DataBrokerService.createProxy(vertx, DATA_BROKER_SERVICE_ADDRESS);
+        config.getBoolean("elasticLocalBinding", true)
+            ? ElasticsearchService.createLocalOrProxy(vertx, ELASTIC_SERVICE_ADDRESS)
+            : ElasticsearchService.createProxy(vertx, ELASTIC_SERVICE_ADDRESS);
     final CatalogueService catService =
         CatalogueService.createProxy(vertx, CATALOGUE_SERVICE_ADDRESS);
-    final AuditingHandler auditingHandler = new AuditingHandler(brokerService);
-    ValidatorService validatorService= new ValidatorServiceImpl(esService,docIndex,vocContext);
+    ValidatorService validatorService= new ValidatorServiceImpl(vertx, esService, docIndex, vocContext,
+        config.getInteger("schemaValidationPoolSize", Runtime.getRuntime().availableProcessors()));
 
     final ItemController crudController =
-        ItemControllerFactory.createCrudController(auditingHandler, esService, docIndex, vocContext);
-    final ListController listController = ListControllerFactory.createListController(esService, auditingHandler, docIndex,validatorService);
-    final SearchController searchController = SearchControllerFactory.createSearchController(esService, auditingHandler,docIndex, validatorService);
-    return List.of(crudController,listController,searchController);
+        ItemControllerFactory.createCrudController(vertx, auditingHandler, esService, docIndex, vocContext);
+    final BulkItemController bulkItemController =
+        ItemControllerFactory.createBulkController(vertx, config, auditingHandler, esService, docIndex, vocContext);
+    final ListController listController = ListControllerFactory.createListController(vertx, config, esService, auditingHandler, docIndex,validatorService);
+    final SearchController searchController = SearchControllerFactory.createSearchController(vertx, config, esService, auditingHandler,docIndex, validatorService);
+    return List.of(crudController,bulkItemController,listController,searchController);
   }
 }
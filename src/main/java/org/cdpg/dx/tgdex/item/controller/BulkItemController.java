@@ -0,0 +1,407 @@
+package org.cdpg.dx.tgdex.item.controller;
+
+import static org.cdpg.dx.tgdex.util.Constants.*;
+import static org.cdpg.dx.tgdex.validator.Constants.*;
+import static org.cdpg.dx.util.Constants.CREATE_ITEMS_BULK;
+import static org.cdpg.dx.util.Constants.UPDATE_ITEMS_BULK;
+
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.User;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.openapi.RouterBuilder;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.cdpg.dx.auditing.handler.AuditingHandler;
+import org.cdpg.dx.tgdex.apiserver.ApiController;
+import org.cdpg.dx.tgdex.item.model.Item;
+import org.cdpg.dx.tgdex.item.service.ItemService;
+import org.cdpg.dx.tgdex.item.util.ItemExistenceValidator;
+import org.cdpg.dx.tgdex.item.util.ItemFactory;
+import org.cdpg.dx.tgdex.item.util.ItemLookup;
+import org.cdpg.dx.tgdex.item.util.RespBuilder;
+import org.cdpg.dx.tgdex.validator.Validator;
+import org.cdpg.dx.util.CheckIfTokenPresent;
+import org.cdpg.dx.util.VerifyItemTypeAndRole;
+
+/**
+ * Creates or updates many items in one request. The body is NDJSON, one item per line, and the
+ * response streams one NDJSON result per input line as each batch is written.
+ *
+ * <p>Items are processed in batches bounded by item count and size. Schema validation of a batch
+ * runs in parallel on a worker pool, its name and id checks are resolved with one multi-search, and
+ * its items are written with one bulk request. The next batch is validated while the current one is
+ * being written.
+ */
+public class BulkItemController implements ApiController {
+  private static final Logger LOGGER = LogManager.getLogger(BulkItemController.class);
+  private static final String NDJSON = "application/x-ndjson";
+  private static final String LINE = "line";
+
+  private final AuditingHandler auditingHandler;
+  private final ItemService itemService;
+  private final String vocContext;
+  private final int batchSize;
+  private final int batchBytes;
+  private final WorkerExecutor validationExecutor;
+  private final Map<String, Validator> schemaValidators;
+
+  private final ItemExistenceValidator itemExistenceValidator;
+  private final CheckIfTokenPresent checkIfTokenPresent = new CheckIfTokenPresent();
+  private final VerifyItemTypeAndRole verifyItemTypeAndRole = new VerifyItemTypeAndRole();
+
+  public BulkItemController(Vertx vertx, JsonObject config, AuditingHandler auditingHandler,
+                            ItemService itemService, String vocContext) {
+    this.auditingHandler = auditingHandler;
+    this.itemService = itemService;
+    this.vocContext = vocContext;
+    this.batchSize = config.getInteger("bulkBatchSize", 500);
+    this.batchBytes = config.getInteger("bulkBatchBytes", 5 * 1024 * 1024);
+    this.validationExecutor = vertx.createSharedWorkerExecutor(SCHEMA_VALIDATION_POOL,
+        config.getInteger("schemaValidationPoolSize", Runtime.getRuntime().availableProcessors()));
+    this.itemExistenceValidator = new ItemExistenceValidator(itemService);
+    try {
+      this.schemaValidators = Map.of(
+          ITEM_TYPE_AI_MODEL, new Validator("/adexAiModelItemSchema.json"),
+          ITEM_TYPE_DATA_BANK, new Validator("/adexDataBankResourceItemSchema.json"),
+          ITEM_TYPE_APPS, new Validator("/adexAppsItemSchema.json"));
+    } catch (IOException | ProcessingException e) {
+      throw new IllegalStateException("Failed to load item schemas", e);
+    }
+  }
+
+  @Override
+  public void register(RouterBuilder builder) {
+    builder.operation(CREATE_ITEMS_BULK)
+        .handler(checkIfTokenPresent)
+        .handler(this::handleBulkCreateOrUpdate)
+        .handler(auditingHandler::handleApiAudit);
+
+    builder.operation(UPDATE_ITEMS_BULK)
+        .handler(checkIfTokenPresent)
+        .handler(this::handleBulkCreateOrUpdate)
+        .handler(auditingHandler::handleApiAudit);
+
+    LOGGER.debug("Bulk Item Controller registered");
+  }
+
+  void handleBulkCreateOrUpdate(RoutingContext ctx) {
+    LOGGER.debug("Handling bulk create/update items");
+    HttpServerResponse response = ctx.response();
+    String method = ctx.request().method().toString();
+
+    List<List<Line>> batches = splitIntoBatches(ctx.body().buffer());
+    if (batches.isEmpty()) {
+      response.setStatusCode(400).end(new RespBuilder()
+          .withType(TYPE_INVALID_SYNTAX)
+          .withTitle(TITLE_INVALID_SYNTAX)
+          .withDetail("Request body has no items")
+          .getResponse());
+      return;
+    }
+
+    response.setStatusCode(200).setChunked(true).putHeader("content-type", NDJSON);
+    SeenInRequest seen = new SeenInRequest();
+    processBatches(ctx, method, batches, 0, prepareBatch(ctx.user(), method, batches.get(0),
+        seen), seen)
+        .onComplete(ar -> {
+          if (ar.failed()) {
+            LOGGER.error("Bulk item request failed", ar.cause());
+          }
+          response.end();
+        });
+  }
+
+  /**
+   * Writes the prepared batch at {@code index} and, while it is being written, prepares the next
+   * one.
+   */
+  private Future<Void> processBatches(RoutingContext ctx, String method, List<List<Line>> batches,
+                                      int index, Future<PreparedBatch> prepared,
+                                      SeenInRequest seen) {
+    return prepared.compose(batch -> {
+      Future<PreparedBatch> next = index + 1 < batches.size()
+          ? prepareBatch(ctx.user(), method, batches.get(index + 1), seen)
+          : null;
+      return writeBatch(ctx.response(), method, batch)
+          .compose(v -> next == null
+              ? Future.succeededFuture()
+              : processBatches(ctx, method, batches, index + 1, next, seen));
+    });
+  }
+
+  /**
+   * Cuts the body into batches of lines, sized by the bytes of each line. Lines are slices of the
+   * body: each is only decoded when its batch is prepared.
+   */
+  private List<List<Line>> splitIntoBatches(Buffer body) {
+    List<List<Line>> batches = new ArrayList<>();
+    if (body == null || body.length() == 0) {
+      return batches;
+    }
+    List<Line> current = new ArrayList<>();
+    int currentBytes = 0;
+    int number = 0;
+    for (int start = 0; start < body.length(); ) {
+      // a newline byte never occurs inside a multi-byte UTF-8 sequence
+      int end = start;
+      while (end < body.length() && body.getByte(end) != '\n') {
+        end++;
+      }
+      number++;
+      int from = start;
+      int to = end;
+      while (from < to && isWhitespace(body.getByte(from))) {
+        from++;
+      }
+      while (to > from && isWhitespace(body.getByte(to - 1))) {
+        to--;
+      }
+      start = end + 1;
+      int bytes = to - from;
+      if (bytes == 0) {
+        continue;
+      }
+      if (!current.isEmpty()
+          && (current.size() >= batchSize || currentBytes + bytes > batchBytes)) {
+        batches.add(current);
+        current = new ArrayList<>();
+        currentBytes = 0;
+      }
+      current.add(new Line(number, body.slice(from, to)));
+      currentBytes += bytes;
+    }
+    if (!current.isEmpty()) {
+      batches.add(current);
+    }
+    return batches;
+  }
+
+  /* JSON only knows ASCII whitespace between values. */
+  private static boolean isWhitespace(byte b) {
+    return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+  }
+
+  private Future<PreparedBatch> prepareBatch(User user, String method, List<Line> lines,
+                                             SeenInRequest seen) {
+    PreparedBatch batch = new PreparedBatch(lines);
+    List<Future<String>> schemaChecks = new ArrayList<>();
+
+    for (int i = 0; i < lines.size(); i++) {
+      Line line = lines.get(i);
+      JsonObject doc;
+      try {
+        doc = new JsonObject(line.text());
+      } catch (DecodeException | ClassCastException e) {
+        batch.fail(i, null, method, "Invalid JSON: " + e.getMessage());
+        schemaChecks.add(Future.succeededFuture());
+        continue;
+      }
+      String itemType = extractItemType(doc);
+      if (itemType == null) {
+        batch.fail(i, doc.getString(ID), method, "Invalid type for item/type not present");
+        schemaChecks.add(Future.succeededFuture());
+        continue;
+      }
+      if (!verifyItemTypeAndRole.isAllowed(user, itemType)) {
+        batch.fail(i, doc.getString(ID), method,
+            "User does not have sufficient role for item type: " + itemType);
+        schemaChecks.add(Future.succeededFuture());
+        continue;
+      }
+      batch.docs[i] = doc;
+      batch.types[i] = itemType;
+      Validator validator = schemaValidators.get(itemType);
+      schemaChecks.add(schemaError(validator.validate(doc, validationExecutor)));
+    }
+
+    return Future.join(schemaChecks)
+        .transform(ignored -> {
+          List<Integer> pending = new ArrayList<>();
+          List<ItemLookup.Key> keys = new ArrayList<>();
+          for (int i = 0; i < lines.size(); i++) {
+            JsonObject doc = batch.docs[i];
+            if (doc == null) {
+              continue;
+            }
+            Future<String> check = schemaChecks.get(i);
+            String error = check.failed() ? check.cause().getMessage() : check.result();
+            if (error != null) {
+              batch.fail(i, doc.getString(ID), method, error);
+              continue;
+            }
+            error = prepareDocument(user, batch.types[i], doc, seen);
+            if (error != null) {
+              batch.fail(i, doc.getString(ID), method, error);
+              continue;
+            }
+            pending.add(i);
+            keys.add(new ItemLookup.Key(batch.types[i], doc.getString(NAME), doc.getString(ID)));
+          }
+          if (keys.isEmpty()) {
+            return Future.succeededFuture(batch);
+          }
+          return itemService.lookupItems(keys)
+              .map(lookups -> {
+                for (int j = 0; j < pending.size(); j++) {
+                  addItem(batch, pending.get(j), method, lookups.get(j));
+                }
+                return batch;
+              })
+              .recover(err -> {
+                LOGGER.error("Fail: DB Error: {}", err.getMessage());
+                for (int i : pending) {
+                  batch.fail(i, batch.docs[i].getString(ID), method, VALIDATION_FAILURE_MSG);
+                }
+                return Future.succeededFuture(batch);
+              });
+        });
+  }
+
+  /** Sets the server managed fields, as {@link ItemController} does for a single item. */
+  private String prepareDocument(User user, String itemType, JsonObject doc,
+                                 SeenInRequest seen) {
+    String kcId = user.principal().getString(SUB);
+    String orgName = user.principal().getString(ORG_NAME);
+    doc.put(PROVIDER_USER_ID, kcId)
+        .put(DEPARTMENT, orgName)
+        .put(UPLOADED_BY, orgName)
+        .put(CONTEXT, vocContext);
+    doc.remove(HTTP_METHOD);
+
+    String invalid = itemExistenceValidator.prepare(doc);
+    if (invalid != null) {
+      return invalid;
+    }
+    // the next batch is looked up before this one is written, so the index cannot catch these
+    String name = itemType + '|' + doc.getString(NAME);
+    if (seen.names.contains(name)) {
+      return "Item with the same name appears more than once in the request";
+    }
+    if (!seen.ids.add(doc.getString(ID))) {
+      return "Item with the same id appears more than once in the request";
+    }
+    seen.names.add(name);
+    return null;
+  }
+
+  private void addItem(PreparedBatch batch, int i, String method, ItemLookup lookup) {
+    JsonObject doc = batch.docs[i];
+    String failure = itemExistenceValidator.check(batch.types[i], doc, method, lookup);
+    if (failure != null) {
+      batch.fail(i, doc.getString(ID), method, failure);
+      return;
+    }
+    try {
+      batch.items.add(ItemFactory.parse(doc));
+      batch.lookups.add(lookup);
+      batch.positions.add(i);
+    } catch (Exception e) {
+      LOGGER.error("Failed to parse item into model", e);
+      batch.fail(i, doc.getString(ID), method, e.getMessage());
+    }
+  }
+
+  private Future<Void> writeBatch(HttpServerResponse response, String method,
+                                  PreparedBatch batch) {
+    Future<JsonArray> write;
+    if (batch.items.isEmpty()) {
+      write = Future.succeededFuture(new JsonArray());
+    } else if (REQUEST_POST.equalsIgnoreCase(method)) {
+      write = itemService.createItems(batch.items, batch.lookups);
+    } else {
+      write = itemService.updateItems(batch.items, batch.lookups);
+    }
+    return write.compose(written -> {
+      for (int j = 0; j < batch.positions.size(); j++) {
+        batch.results[batch.positions.get(j)] = written.getJsonObject(j);
+      }
+      Buffer chunk = Buffer.buffer();
+      for (int i = 0; i < batch.lines.size(); i++) {
+        chunk.appendString(batch.results[i].put(LINE, batch.lines.get(i).number()).encode())
+            .appendString("\n");
+      }
+      return response.write(chunk);
+    });
+  }
+
+  private String extractItemType(JsonObject doc) {
+    try {
+      JsonArray typeArray = doc.getJsonArray(TYPE);
+      if (typeArray == null || typeArray.isEmpty()) {
+        return null;
+      }
+      Set<String> type = new HashSet<>(typeArray.getList());
+      type.retainAll(ITEM_TYPES);
+      return type.size() == 1 ? type.iterator().next() : null;
+    } catch (ClassCastException e) {
+      return null;
+    }
+  }
+
+  /** The schema failure detail, or null when the item is valid. */
+  private static Future<String> schemaError(Future<String> validation) {
+    return validation.transform(result -> {
+      if (result.succeeded()) {
+        return Future.succeededFuture();
+      }
+      String message = result.cause().getMessage();
+      try {
+        return Future.succeededFuture(new JsonObject(message).getString(DETAIL, message));
+      } catch (DecodeException e) {
+        return Future.succeededFuture(message);
+      }
+    });
+  }
+
+  private static JsonObject failure(String id, String method, String detail) {
+    return new JsonObject()
+        .put(ID, id)
+        .put(METHOD, REQUEST_POST.equalsIgnoreCase(method) ? INSERT : UPDATE)
+        .put(STATUS, FAILED)
+        .put(DETAIL, detail);
+  }
+
+  private record Line(int number, Buffer text) {}
+
+  /** Names and ids of the items of a request so far, across all of its batches. */
+  private static final class SeenInRequest {
+    private final Set<String> names = new HashSet<>();
+    private final Set<String> ids = new HashSet<>();
+  }
+
+  private static final class PreparedBatch {
+    private final List<Line> lines;
+    private final JsonObject[] docs;
+    private final String[] types;
+    private final JsonObject[] results;
+    private final List<Item> items = new ArrayList<>();
+    private final List<ItemLookup> lookups = new ArrayList<>();
+    private final List<Integer> positions = new ArrayList<>();
+
+    private PreparedBatch(List<Line> lines) {
+      this.lines = lines;
+      this.docs = new JsonObject[lines.size()];
+      this.types = new String[lines.size()];
+      this.results = new JsonObject[lines.size()];
+    }
+
+    private void fail(int i, String id, String method, String detail) {
+      docs[i] = null;
+      results[i] = failure(id, method, detail);
+    }
+  }
+}
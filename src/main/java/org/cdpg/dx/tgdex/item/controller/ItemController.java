@@ -19,11 +19,13 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.cdpg.dx.auditing.handler.AuditingHandler;
 import org.cdpg.dx.common.response.ResponseBuilder;
+import org.cdpg.dx.common.util.RequestTimings;
 import org.cdpg.dx.tgdex.apiserver.ApiController;
 import org.cdpg.dx.tgdex.item.model.Item;
 import org.cdpg.dx.tgdex.item.service.ItemService;
 import org.cdpg.dx.tgdex.item.util.ItemExistenceValidator;
 import org.cdpg.dx.tgdex.item.util.ItemFactory;
+import org.cdpg.dx.tgdex.item.util.ItemLookup;
 import org.cdpg.dx.tgdex.item.util.RespBuilder;
 import org.cdpg.dx.util.CheckIfTokenPresent;
 import org.cdpg.dx.util.VerifyItemTypeAndRole;
@@ -76,6 +78,7 @@ public class ItemController implements ApiController {
 
   private void handleCreateOrUpdateItem(RoutingContext ctx) {
     LOGGER.debug("Handling create/update item");
+    long start = System.nanoTime();
     HttpServerResponse response = ctx.response();
 
     JsonObject body = ctx.body().asJsonObject();
@@ -87,8 +90,9 @@ public class ItemController implements ApiController {
 
     String method = ctx.request().method().toString();
     doc.put(CONTEXT, vocContext);
+    RequestTimings.record(ctx, RequestTimings.REQUEST_BUILD, start);
 
-    Promise<JsonObject> validationPromise = Promise.promise();
+    Promise<ItemLookup> validationPromise = Promise.promise();
     validateItemExistence(response, itemType, doc, method, validationPromise);
 
     doc.remove(HTTP_METHOD);
@@ -98,7 +102,7 @@ public class ItemController implements ApiController {
         handleValidationFailure(response, result.cause());
         return;
       }
-      processItemCreationOrUpdate(response, method, result.result());
+      processItemCreationOrUpdate(response, method, doc, result.result());
     });
   }
 
@@ -143,7 +147,7 @@ public class ItemController implements ApiController {
   }
 
   private void validateItemExistence(HttpServerResponse response, String itemType,
-                                     JsonObject body, String method, Promise<JsonObject> promise) {
+                                     JsonObject body, String method, Promise<ItemLookup> promise) {
     switch (itemType) {
       case ITEM_TYPE_AI_MODEL -> itemExistenceValidator.validateAiModel(body, method, promise);
       case ITEM_TYPE_DATA_BANK -> itemExistenceValidator.validateDataBank(body, method, promise);
@@ -165,15 +169,15 @@ public class ItemController implements ApiController {
   }
 
   private void processItemCreationOrUpdate(HttpServerResponse response, String method,
-                                           JsonObject body) {
+                                           JsonObject body, ItemLookup lookup) {
     try {
       Item item = ItemFactory.parse(body);
       if (REQUEST_POST.equalsIgnoreCase(method)) {
-        itemService.createItem(item)
+        itemService.createItem(item, lookup)
             .onSuccess(res -> sendSuccess(response, 201, "Success: Item created", item.toJson()))
             .onFailure(err -> handleOperationError(response, err));
       } else {
-        itemService.updateItem(item)
+        itemService.updateItem(item, lookup)
             .onSuccess(res -> {
               LOGGER.debug("Item updated successfully: {}", item);
               sendSuccess(response, 200, "Success: Item updated successfully",
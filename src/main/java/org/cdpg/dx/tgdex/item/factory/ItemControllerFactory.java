@@ -1,6 +1,9 @@
 package org.cdpg.dx.tgdex.item.factory;
 
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
 import org.cdpg.dx.auditing.handler.AuditingHandler;
+import org.cdpg.dx.tgdex.item.controller.BulkItemController;
 import org.cdpg.dx.tgdex.item.controller.ItemController;
 import org.cdpg.dx.tgdex.item.service.ItemService;
 import org.cdpg.dx.tgdex.item.service.ItemServiceImpl;
@@ -8,11 +11,19 @@ import org.cdpg.dx.database.elastic.service.ElasticsearchService;
 
 public class ItemControllerFactory {
 
-    public static ItemController createCrudController(AuditingHandler auditingHandler,
+    public static ItemController createCrudController(Vertx vertx, AuditingHandler auditingHandler,
                                                       ElasticsearchService elasticsearchService,
                                                       String docIndex, String vocContext) {
-        ItemService crudService = new ItemServiceImpl(elasticsearchService, docIndex);
+        ItemService crudService = new ItemServiceImpl(vertx, elasticsearchService, docIndex);
         return new ItemController(auditingHandler, crudService, vocContext);
 
     }
+
+    public static BulkItemController createBulkController(Vertx vertx, JsonObject config,
+                                                          AuditingHandler auditingHandler,
+                                                          ElasticsearchService elasticsearchService,
+                                                          String docIndex, String vocContext) {
+        ItemService crudService = new ItemServiceImpl(vertx, elasticsearchService, docIndex);
+        return new BulkItemController(vertx, config, auditingHandler, crudService, vocContext);
+    }
 }
\ No newline at end of file
@@ -1,13 +1,38 @@
 package org.cdpg.dx.tgdex.item.service;
 
 import io.vertx.core.Future;
+import io.vertx.core.json.JsonArray;
+import java.util.List;
 import org.cdpg.dx.tgdex.item.model.Item;
 import org.cdpg.dx.tgdex.item.util.GetItemRequest;
+import org.cdpg.dx.tgdex.item.util.ItemLookup;
 import org.cdpg.dx.tgdex.search.util.ResponseModel;
 
 public interface ItemService {
     public Future<Void> createItem(Item item);
     public Future<Void> updateItem(Item item);
+
+    /** Reads the item of the type with the name and the item with the id in one round trip. */
+    Future<ItemLookup> lookupItem(String type, String name, String id);
+
+    /** Creates the item, using a lookup already made for it instead of querying again. */
+    Future<Void> createItem(Item item, ItemLookup lookup);
+
+    /** Updates the item, using a lookup already made for it instead of querying again. */
+    Future<Void> updateItem(Item item, ItemLookup lookup);
+
+    /** Looks up several items with one multi-search; results are in the order of the keys. */
+    Future<List<ItemLookup>> lookupItems(List<ItemLookup.Key> keys);
+
+    /**
+     * Creates items with one bulk request. Each item is checked against its lookup like
+     * {@link #createItem(Item, ItemLookup)}; the result holds one entry per item, in order, telling
+     * whether it was written.
+     */
+    Future<JsonArray> createItems(List<Item> items, List<ItemLookup> lookups);
+
+    /** Updates items with one bulk request, reporting results like {@link #createItems}. */
+    Future<JsonArray> updateItems(List<Item> items, List<ItemLookup> lookups);
     public Future<Void> deleteItem(String id);
     Future<Item> itemWithTheNameExists(String type, String name);
     Future<ResponseModel> getItem(GetItemRequest request);
@@ -3,17 +3,30 @@ package org.cdpg.dx.tgdex.item.service;
 import static org.cdpg.dx.database.elastic.util.Constants.DETAIL_ITEM_NOT_FOUND;
 import static org.cdpg.dx.database.elastic.util.Constants.ID_KEYWORD;
 import static org.cdpg.dx.database.elastic.util.Constants.KEYWORD_KEY;
-import static org.cdpg.dx.database.elastic.util.Constants.TYPE_KEYWORD;
 import static org.cdpg.dx.tgdex.util.Constants.COS;
+import static org.cdpg.dx.tgdex.util.Constants.DETAIL;
+import static org.cdpg.dx.tgdex.util.Constants.ERROR;
+import static org.cdpg.dx.tgdex.util.Constants.FAILED;
 import static org.cdpg.dx.tgdex.util.Constants.FIELD;
+import static org.cdpg.dx.tgdex.util.Constants.ID;
+import static org.cdpg.dx.tgdex.util.Constants.IDS;
+import static org.cdpg.dx.tgdex.util.Constants.INSERT;
+import static org.cdpg.dx.tgdex.util.Constants.ITEM_WRITE_EVENTS_ADDRESS;
+import static org.cdpg.dx.tgdex.util.Constants.METHOD;
 import static org.cdpg.dx.tgdex.util.Constants.PROVIDER;
 import static org.cdpg.dx.tgdex.util.Constants.RESOURCE_GRP;
 import static org.cdpg.dx.tgdex.util.Constants.RESOURCE_SVR;
+import static org.cdpg.dx.tgdex.util.Constants.STATUS;
+import static org.cdpg.dx.tgdex.util.Constants.SUCCESS;
+import static org.cdpg.dx.tgdex.util.Constants.UPDATE;
 import static org.cdpg.dx.tgdex.util.Constants.VALUE;
 
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -27,47 +40,150 @@ import org.cdpg.dx.database.elastic.util.QueryType;
 import org.cdpg.dx.tgdex.item.model.Item;
 import org.cdpg.dx.tgdex.item.util.GetItemRequest;
 import org.cdpg.dx.tgdex.item.util.ItemFactory;
+import org.cdpg.dx.tgdex.item.util.ItemLookup;
 import org.cdpg.dx.tgdex.search.util.ResponseModel;
 
 public class ItemServiceImpl implements ItemService {
   private static final Logger LOGGER = LogManager.getLogger(ItemServiceImpl.class);
+  private final Vertx vertx;
   private final String docIndex;
   ElasticsearchService elasticsearchService;
   QueryDecoder queryDecoder = new QueryDecoder();
 
-  public ItemServiceImpl(ElasticsearchService elasticsearchService, String docIndex) {
+  public ItemServiceImpl(Vertx vertx, ElasticsearchService elasticsearchService, String docIndex) {
+    this.vertx = vertx;
     this.elasticsearchService = elasticsearchService;
     this.docIndex = docIndex;
   }
 
   @Override
   public Future<Void> createItem(Item item) {
-    Promise<Void> promise = Promise.promise();
     String id = item.getId();
+    if (id == null || id.isBlank()) {
+      return Future.failedFuture("ID not present in request");
+    }
+    return lookupItem(item.getType().getFirst(), item.getName(), id)
+        .compose(lookup -> createItem(item, lookup));
+  }
 
+  @Override
+  public Future<Void> createItem(Item item, ItemLookup lookup) {
+    String id = item.getId();
     if (id == null || id.isBlank()) {
       return Future.failedFuture("ID not present in request");
     }
+    if (lookup.idExists()) {
+      LOGGER.warn("Item with ID {} already exists", id);
+      return Future.failedFuture("Item with ID already exists");
+    }
 
-    QueryModel termQuery = new QueryModel(QueryType.TERM);
-    termQuery.setQueryParameters(Map.of(FIELD, ID_KEYWORD, VALUE, id));
+    QueryModel queryModel = new QueryModel();
+    queryModel.createQueryModelFromDocument(item.toJson());
+    return elasticsearchService.createDocuments(docIndex, Collections.singletonList(queryModel))
+        .onSuccess(v -> publishWrite(id))
+        .mapEmpty();
+  }
 
-    elasticsearchService.getSingleDocument(docIndex, termQuery)
-        .onSuccess(existingDoc -> {
-          if (existingDoc != null && ElasticsearchResponse.getTotalHits() > 0) {
-            LOGGER.warn("Item with ID {} already exists", id);
-            promise.fail("Item with ID already exists");
-          } else {
-            QueryModel queryModel = new QueryModel();
-            queryModel.createQueryModelFromDocument(item.toJson());
-            elasticsearchService.createDocuments(docIndex, Collections.singletonList(queryModel))
-                .onSuccess(v -> promise.complete())
-                .onFailure(promise::fail);
+  @Override
+  public Future<ItemLookup> lookupItem(String type, String name, String id) {
+    return lookupItems(List.of(new ItemLookup.Key(type, name, id))).map(List::getFirst);
+  }
+
+  @Override
+  public Future<List<ItemLookup>> lookupItems(List<ItemLookup.Key> keys) {
+    List<QueryModel> queries = new ArrayList<>(keys.size() * 2);
+    for (ItemLookup.Key key : keys) {
+      queries.add(queryDecoder.buildGetItemWithNameExistsQuery(key.type(), key.name()));
+      QueryModel idQuery = new QueryModel(QueryType.TERM);
+      idQuery.setQueryParameters(Map.of(FIELD, ID_KEYWORD, VALUE, key.id()));
+      queries.add(idQuery);
+    }
+
+    return elasticsearchService.multiSearch(docIndex, queries)
+        .map(responses -> {
+          List<ItemLookup> lookups = new ArrayList<>(keys.size());
+          for (int i = 0; i < responses.size(); i += 2) {
+            lookups.add(new ItemLookup(responses.get(i), responses.get(i + 1)));
+          }
+          return lookups;
+        });
+  }
+
+  @Override
+  public Future<JsonArray> createItems(List<Item> items, List<ItemLookup> lookups) {
+    return writeItems(items, lookups, false);
+  }
+
+  @Override
+  public Future<JsonArray> updateItems(List<Item> items, List<ItemLookup> lookups) {
+    return writeItems(items, lookups, true);
+  }
+
+  private Future<JsonArray> writeItems(
+      List<Item> items, List<ItemLookup> lookups, boolean update) {
+    String method = update ? UPDATE : INSERT;
+    JsonObject[] results = new JsonObject[items.size()];
+    List<QueryModel> documents = new ArrayList<>();
+    List<Integer> positions = new ArrayList<>();
+
+    for (int i = 0; i < items.size(); i++) {
+      Item item = items.get(i);
+      ItemLookup lookup = lookups.get(i);
+      if (!update && lookup.idExists()) {
+        results[i] = itemResult(item.getId(), method, "Item with ID already exists");
+      } else if (update && !lookup.idExistsAs(item.getType().getFirst())) {
+        results[i] = itemResult(item.getId(), method, "Item not found for update");
+      } else {
+        QueryModel queryModel = new QueryModel();
+        queryModel.createQueryModelFromDocument(item.toJson());
+        documents.add(queryModel);
+        positions.add(i);
+      }
+    }
+    if (documents.isEmpty()) {
+      return Future.succeededFuture(new JsonArray(List.of(results)));
+    }
+
+    Future<JsonArray> write = update
+        ? elasticsearchService.bulkUpdate(docIndex, documents)
+        : elasticsearchService.bulkCreate(docIndex, documents);
+    return write
+        .map(written -> {
+          List<String> ids = new ArrayList<>();
+          for (int j = 0; j < positions.size(); j++) {
+            JsonObject outcome = written.getJsonObject(j);
+            String id = outcome.getString(ID);
+            String error = outcome.getString(ERROR);
+            if (error == null && outcome.getInteger("status") < 300) {
+              ids.add(id);
+              results[positions.get(j)] = itemResult(id, method, null);
+            } else if (!update && outcome.getInteger("status") == 409) {
+              // created by someone else since the lookup
+              results[positions.get(j)] = itemResult(id, method, "Item with ID already exists");
+            } else {
+              results[positions.get(j)] = itemResult(id, method, error);
+            }
           }
+          if (!ids.isEmpty()) {
+            publishWrite(ids);
+          }
+          return new JsonArray(List.of(results));
         })
-        .onFailure(promise::fail);
+        .recover(err -> {
+          LOGGER.error("Bulk {} failed: {}", method, err.getMessage());
+          for (int j = 0; j < positions.size(); j++) {
+            results[positions.get(j)] =
+                itemResult(items.get(positions.get(j)).getId(), method, err.getMessage());
+          }
+          return Future.succeededFuture(new JsonArray(List.of(results)));
+        });
+  }
 
-    return promise.future();
+  private static JsonObject itemResult(String id, String method, String error) {
+    JsonObject result = new JsonObject().put(ID, id).put(METHOD, method);
+    return error == null
+        ? result.put(STATUS, SUCCESS)
+        : result.put(STATUS, FAILED).put(DETAIL, error);
   }
 
   @Override
@@ -81,20 +197,15 @@ public class ItemServiceImpl implements ItemService {
 
     elasticsearchService.getSingleDocument(docIndex, queryModel.getQueries())
         .onSuccess(response -> {
-          int totalHits = ElasticsearchResponse.getTotalHits();
-          if (totalHits == 0) {
+          if (response.getTotalHits() == 0) {
             LOGGER.warn("Item with ID {} does not exist", request.getItemId());
-            ResponseModel responseModel = new ResponseModel(List.of(response));
-            responseModel.setTotalHits(totalHits);
-            promise.complete(responseModel);
+            promise.complete(new ResponseModel(response));
             return;
           }
 
           if (ownershipCheck(response, request.getSubId())) {
             LOGGER.debug("Ownership check passed for item with ID: {}", request.getItemId());
-            ResponseModel responseModel = new ResponseModel(List.of(response));
-            responseModel.setTotalHits(totalHits);
-            promise.complete(responseModel);
+            promise.complete(new ResponseModel(response));
           } else {
             LOGGER.warn("Ownership check failed for item with ID: {}", request.getItemId());
             promise.fail("Ownership check failed");
@@ -136,10 +247,10 @@ public class ItemServiceImpl implements ItemService {
     elasticsearchService.getSingleDocument(docIndex, boolQuery)
         .onSuccess(result -> {
           LOGGER.debug("Item with ID {} found for deletion", id);
-          if (ElasticsearchResponse.getTotalHits() > 1) {
+          if (result.getTotalHits() > 1) {
             LOGGER.debug("Item with ID {} has multiple associated entities", id);
             promise.fail("Item has associated entities and cannot be deleted");
-          } else if (ElasticsearchResponse.getTotalHits() < 1) {
+          } else if (result.getTotalHits() < 1) {
             LOGGER.debug("Item with ID {} not found for deletion", id);
             promise.fail("Item not found for deletion");
           } else {
@@ -148,6 +259,7 @@ public class ItemServiceImpl implements ItemService {
             elasticsearchService.deleteDocument(docIndex, docId)
                 .onSuccess(v -> {
                   LOGGER.debug("Item with ID {} deleted successfully", id);
+                  publishWrite(id);
                   promise.complete();
                 })
                 .onFailure(failure-> {
@@ -163,38 +275,32 @@ public class ItemServiceImpl implements ItemService {
 
   @Override
   public Future<Void> updateItem(Item item) {
-    LOGGER.debug("Updating item with ID: {}", item.getId());
-    Promise<Void> promise = Promise.promise();
     String id = item.getId();
     String type = item.getType().getFirst();
-
     if (id == null || id.isBlank() || type == null || type.isBlank()) {
       return Future.failedFuture("ID or Type missing in update request");
     }
+    return lookupItem(type, item.getName(), id)
+        .compose(lookup -> updateItem(item, lookup));
+  }
 
-    QueryModel boolQuery = new QueryModel(QueryType.BOOL);
-    QueryModel termQuery = new QueryModel(QueryType.TERM);
-    termQuery.setQueryParameters(Map.of(FIELD, ID_KEYWORD, VALUE, id));
-    QueryModel matchQuery = new QueryModel(QueryType.MATCH);
-    matchQuery.setQueryParameters(Map.of(FIELD, TYPE_KEYWORD, VALUE, type));
-
-    boolQuery.setMustQueries(List.of(termQuery, matchQuery));
+  @Override
+  public Future<Void> updateItem(Item item, ItemLookup lookup) {
+    LOGGER.debug("Updating item with ID: {}", item.getId());
+    String id = item.getId();
+    String type = item.getType().getFirst();
 
-    elasticsearchService.getSingleDocument(docIndex, boolQuery)
-        .onSuccess(getRes -> {
-          if (getRes == null || ElasticsearchResponse.getTotalHits() == 0) {
-            promise.fail("Item not found for update");
-          } else {
-            QueryModel queryModel = new QueryModel();
-            queryModel.createQueryModelFromDocument(item.toJson());
-            elasticsearchService.updateDocument(docIndex, id, queryModel)
-                .onSuccess(v -> promise.complete())
-                .onFailure(promise::fail);
-          }
-        })
-        .onFailure(promise::fail);
+    if (id == null || id.isBlank() || type == null || type.isBlank()) {
+      return Future.failedFuture("ID or Type missing in update request");
+    }
+    if (!lookup.idExistsAs(type)) {
+      return Future.failedFuture("Item not found for update");
+    }
 
-    return promise.future();
+    QueryModel queryModel = new QueryModel();
+    queryModel.createQueryModelFromDocument(item.toJson());
+    return elasticsearchService.updateDocument(docIndex, id, queryModel)
+        .onSuccess(v -> publishWrite(id));
   }
 
   @Override
@@ -226,6 +332,15 @@ public class ItemServiceImpl implements ItemService {
     return promise.future();
   }
 
+  /** Lets caches built from the index know that an item changed. */
+  private void publishWrite(String id) {
+    vertx.eventBus().publish(ITEM_WRITE_EVENTS_ADDRESS, new JsonObject().put(ID, id));
+  }
+
+  private void publishWrite(List<String> ids) {
+    vertx.eventBus().publish(ITEM_WRITE_EVENTS_ADDRESS, new JsonObject().put(IDS, ids));
+  }
+
   private boolean ownershipCheck(ElasticsearchResponse response, String subId) {
     JsonObject source = response.getSource();
     String accessPolicy = source.getString("accessPolicy");
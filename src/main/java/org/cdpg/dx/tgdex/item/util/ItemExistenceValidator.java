@@ -1,7 +1,6 @@
 package org.cdpg.dx.tgdex.item.util;
 
 import static org.cdpg.dx.database.elastic.util.Constants.DATA_UPLOAD_STATUS;
-import static org.cdpg.dx.database.elastic.util.Constants.DETAIL_ITEM_NOT_FOUND;
 import static org.cdpg.dx.database.elastic.util.Constants.MEDIA_URL;
 import static org.cdpg.dx.database.elastic.util.Constants.PENDING;
 import static org.cdpg.dx.database.elastic.util.Constants.PUBLISH_STATUS;
@@ -33,7 +32,6 @@ import java.util.TimeZone;
 import java.util.UUID;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.cdpg.dx.database.elastic.model.ElasticsearchResponse;
 import org.cdpg.dx.tgdex.item.service.ItemService;
 
 public class ItemExistenceValidator {
@@ -70,126 +68,111 @@ public class ItemExistenceValidator {
     return offsetDateTime.format(outputFormatter);
   }
 
-  public void validateApps(JsonObject request, String method, Promise<JsonObject> promise) {
-    validateAndAddId(request, promise);
-
-    setCommonFields(request);
+  public void validateApps(JsonObject request, String method, Promise<ItemLookup> promise) {
+    validate(ITEM_TYPE_APPS, request, method, promise);
+  }
 
-    itemService.itemWithTheNameExists(ITEM_TYPE_APPS, request.getString(NAME))
-        .onFailure(err -> {
-          if (err.getMessage().equals(DETAIL_ITEM_NOT_FOUND)) {
-            promise.complete(request);
-          } else {
-            LOGGER.debug("Fail: DB Error: " + err.getLocalizedMessage());
-            promise.fail(VALIDATION_FAILURE_MSG);
-          }
-        })
-        .onSuccess(res -> {
-          if (REQUEST_POST.equalsIgnoreCase(method) && ElasticsearchResponse.getTotalHits() > 0) {
-            promise.fail("Fail: Apps item already exists");
-          } else {
-            promise.complete(request);
-          }
-        });
+  public void validateAiModel(JsonObject request, String method, Promise<ItemLookup> promise) {
+    validate(ITEM_TYPE_AI_MODEL, request, method, promise);
   }
 
-  public void validateAiModel(JsonObject request, String method, Promise<JsonObject> promise) {
-    validateAndAddId(request, promise);
+  public void validateDataBank(JsonObject request, String method, Promise<ItemLookup> promise) {
+    validate(ITEM_TYPE_DATA_BANK, request, method, promise);
+  }
 
-    setCommonFields(request);
+  private void validate(
+      String itemType, JsonObject request, String method, Promise<ItemLookup> promise) {
+    String invalid = prepare(request);
+    if (invalid != null) {
+      promise.fail(invalid);
+      return;
+    }
 
-    itemService.itemWithTheNameExists(ITEM_TYPE_AI_MODEL, request.getString(NAME))
+    // one multi-search resolves the name and id checks and the previous upload state
+    itemService.lookupItem(itemType, request.getString(NAME), request.getString(ID))
         .onFailure(err -> {
-          if (err.getMessage().equals(DETAIL_ITEM_NOT_FOUND)) {
-            // For POST, if not found, good to proceed
-            if (REQUEST_POST.equalsIgnoreCase(method)) {
-              request.put(DATA_UPLOAD_STATUS,
-                  request.containsKey(MEDIA_URL) && !request.getString(MEDIA_URL).isBlank());
-              request.put(PUBLISH_STATUS, PENDING);
-              promise.complete(request);
-            } else {
-              promise.complete(request);
-            }
-          } else {
-            LOGGER.debug("Fail: DB Error: " + err.getLocalizedMessage());
-            promise.fail(VALIDATION_FAILURE_MSG);
-          }
+          LOGGER.debug("Fail: DB Error: " + err.getLocalizedMessage());
+          promise.fail(VALIDATION_FAILURE_MSG);
         })
-        .onSuccess(res -> {
-          String returnType = getReturnTypeForValidation(res.toJson());
-          if (REQUEST_POST.equalsIgnoreCase(method) && returnType.contains(ITEM_TYPE_AI_MODEL)) {
-            promise.fail("Fail: AI Model item already exists");
-            return;
-          }
-
-          boolean mediaUrlPresent =
-              request.containsKey(MEDIA_URL) && !request.getString(MEDIA_URL).isBlank();
-
-          if (REQUEST_POST.equalsIgnoreCase(method)) {
-            request.put(DATA_UPLOAD_STATUS, mediaUrlPresent);
-            request.put(PUBLISH_STATUS, PENDING);
+        .onSuccess(lookup -> {
+          String failure = check(itemType, request, method, lookup);
+          if (failure != null) {
+            promise.fail(failure);
           } else {
-            boolean wasPreviouslyUploaded = extractDataUploadStatusFromES(res.toJson());
-            boolean previousMediaUrlPresent = extractMediaUrlFromES(res.toJson());
-
-            request.put(DATA_UPLOAD_STATUS,
-                mediaUrlPresent || (wasPreviouslyUploaded && !previousMediaUrlPresent));
-            request.put(PUBLISH_STATUS, extractPublishStatusFromES(res.toJson()));
+            promise.complete(lookup);
           }
-
-          promise.complete(request);
         });
   }
 
-  public void validateDataBank(JsonObject request, String method, Promise<JsonObject> promise) {
-    validateAndAddId(request, promise);
-    if (!request.containsKey(ID)) {
+  /**
+   * Assigns an id when the request has none and sets the fields managed by the server.
+   *
+   * @return the failure message when the request carries an invalid id, null otherwise
+   */
+  public String prepare(JsonObject request) {
+    if (request.containsKey(ID)) {
+      String id = request.getString(ID);
+      LOGGER.debug("id in the request body: " + id);
+      if (!isValidUuid(id)) {
+        return "validation failed. Incorrect id";
+      }
+    } else {
       request.put(ID, UUID.randomUUID().toString());
     }
-
     setCommonFields(request);
+    return null;
+  }
 
-    itemService.itemWithTheNameExists(ITEM_TYPE_DATA_BANK, request.getString(NAME))
-        .onFailure(err -> {
-          if (err.getMessage().equals(DETAIL_ITEM_NOT_FOUND)) {
-            // For POST, if not found, good to proceed
-            if (REQUEST_POST.equalsIgnoreCase(method)) {
-              request.put(DATA_UPLOAD_STATUS,
-                  request.containsKey(MEDIA_URL) && !request.getString(MEDIA_URL).isBlank());
-              request.put(PUBLISH_STATUS, PENDING);
-              promise.complete(request);
-            } else {
-              promise.complete(request);
-            }
-          } else {
-            LOGGER.debug("Fail: DB Error: " + err.getLocalizedMessage());
-            promise.fail(VALIDATION_FAILURE_MSG);
-          }
-        })
-        .onSuccess(res -> {
-          String returnType = getReturnTypeForValidation(res.toJson());
-          if (REQUEST_POST.equalsIgnoreCase(method) && returnType.contains(ITEM_TYPE_DATA_BANK)) {
-            promise.fail("Fail: DataBank item already exists");
-            return;
-          }
+  /**
+   * Checks a prepared request against what the index holds for it and carries the upload and
+   * publish state over from the existing item.
+   *
+   * @return the failure message when the item may not be written, null otherwise
+   */
+  public String check(String itemType, JsonObject request, String method, ItemLookup lookup) {
+    JsonObject existing = lookup.getItemWithName();
+    boolean isPost = REQUEST_POST.equalsIgnoreCase(method);
 
-          boolean mediaUrlPresent =
-              request.containsKey(MEDIA_URL) && !request.getString(MEDIA_URL).isBlank();
+    if (ITEM_TYPE_APPS.equals(itemType)) {
+      return existing != null && isPost ? "Fail: Apps item already exists" : null;
+    }
 
-          if (REQUEST_POST.equalsIgnoreCase(method)) {
-            request.put(DATA_UPLOAD_STATUS, mediaUrlPresent);
-            request.put(PUBLISH_STATUS, PENDING);
-          } else {
-            boolean wasPreviouslyUploaded = extractDataUploadStatusFromES(res.toJson());
-            boolean previousMediaUrlPresent = extractMediaUrlFromES(res.toJson());
+    if (existing == null) {
+      // For POST, if not found, good to proceed
+      if (isPost) {
+        request.put(DATA_UPLOAD_STATUS,
+            request.containsKey(MEDIA_URL) && !request.getString(MEDIA_URL).isBlank());
+        request.put(PUBLISH_STATUS, PENDING);
+      }
+      return null;
+    }
 
-            request.put(DATA_UPLOAD_STATUS,
-                mediaUrlPresent || (wasPreviouslyUploaded && !previousMediaUrlPresent));
-            request.put(PUBLISH_STATUS, extractPublishStatusFromES(res.toJson()));
-          }
+    String returnType = getReturnTypeForValidation(existing);
+    if (isPost && returnType.contains(itemType)) {
+      return ITEM_TYPE_AI_MODEL.equals(itemType)
+          ? "Fail: AI Model item already exists"
+          : "Fail: DataBank item already exists";
+    }
 
-          promise.complete(request);
-        });
+    setUploadState(request, method, existing);
+    return null;
+  }
+
+  private void setUploadState(JsonObject request, String method, JsonObject existing) {
+    boolean mediaUrlPresent =
+        request.containsKey(MEDIA_URL) && !request.getString(MEDIA_URL).isBlank();
+
+    if (REQUEST_POST.equalsIgnoreCase(method)) {
+      request.put(DATA_UPLOAD_STATUS, mediaUrlPresent);
+      request.put(PUBLISH_STATUS, PENDING);
+    } else {
+      boolean wasPreviouslyUploaded = extractDataUploadStatusFromES(existing);
+      boolean previousMediaUrlPresent = extractMediaUrlFromES(existing);
+
+      request.put(DATA_UPLOAD_STATUS,
+          mediaUrlPresent || (wasPreviouslyUploaded && !previousMediaUrlPresent));
+      request.put(PUBLISH_STATUS, extractPublishStatusFromES(existing));
+    }
   }
 
   private void setCommonFields(JsonObject request) {
@@ -198,24 +181,6 @@ public class ItemExistenceValidator {
         .put(ITEM_CREATED_AT, getUtcDatetimeAsString());
   }
 
-  private void validateAndAddId(JsonObject request, Promise<JsonObject> promise) {
-    validateId(request, promise);
-    if (!request.containsKey(ID)) {
-      UUID uuid = UUID.randomUUID();
-      request.put(ID, uuid.toString());
-    }
-  }
-  private void validateId(
-      JsonObject request, Promise<JsonObject> promise) {
-    if (request.containsKey(ID)) {
-      String id = request.getString(ID);
-      LOGGER.debug("id in the request body: " + id);
-
-      if (!isValidUuid(id)) {
-        promise.fail("validation failed. Incorrect id");
-      }
-    }
-  }
   private boolean isValidUuid(String uuidString) {
     return UUID_PATTERN.matcher(uuidString).matches();
   }
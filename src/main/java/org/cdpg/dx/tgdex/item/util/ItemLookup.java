@@ -0,0 +1,47 @@
+package org.cdpg.dx.tgdex.item.util;
+
+import static org.cdpg.dx.tgdex.util.Constants.TYPE;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.cdpg.dx.database.elastic.model.ElasticsearchResponse;
+
+/**
+ * What the index holds for an item about to be written: the item of the same type with the same
+ * name, and the item with the same id. Both are read with one multi-search so validation and the
+ * write itself need no further lookups.
+ */
+public class ItemLookup {
+  private final ElasticsearchResponse sameName;
+  private final ElasticsearchResponse sameId;
+
+  /** What to look up for one item: its type and name, and its id. */
+  public record Key(String type, String name, String id) {}
+
+  public ItemLookup(ElasticsearchResponse sameName, ElasticsearchResponse sameId) {
+    this.sameName = sameName;
+    this.sameId = sameId;
+  }
+
+  public boolean nameExists() {
+    return sameName.getTotalHits() > 0;
+  }
+
+  /** Stored document of the item with the same name, null when there is none. */
+  public JsonObject getItemWithName() {
+    return nameExists() ? sameName.getSource() : null;
+  }
+
+  public boolean idExists() {
+    return sameId.getTotalHits() > 0;
+  }
+
+  /** Whether an item with the id exists and has the given type. */
+  public boolean idExistsAs(String type) {
+    if (!idExists()) {
+      return false;
+    }
+    JsonArray types = sameId.getSource().getJsonArray(TYPE);
+    return types != null && types.contains(type);
+  }
+}
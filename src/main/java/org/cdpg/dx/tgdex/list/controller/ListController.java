@@ -10,6 +10,7 @@ import org.apache.logging.log4j.Logger;
 import org.cdpg.dx.auditing.handler.AuditingHandler;
 import org.cdpg.dx.common.request.PostSearchRequestBuilder;
 import org.cdpg.dx.common.response.ResponseBuilder;
+import org.cdpg.dx.common.util.RequestTimings;
 import org.cdpg.dx.database.elastic.model.QueryDecoderRequestDTO;
 import org.cdpg.dx.tgdex.apiserver.ApiController;
 import org.cdpg.dx.tgdex.list.service.ListService;
@@ -34,11 +35,14 @@ public class ListController implements ApiController {
   }
 
   private void handleGetAvailableFilters(RoutingContext routingContext) {
+    long start = System.nanoTime();
     QueryDecoderRequestDTO queryDecoder =
         PostSearchRequestBuilder.fromRoutingContext(routingContext)
             .setAssetSearch(false)
             .setCountApi(false)
+            .setListApi(true)
             .build();
+    RequestTimings.record(routingContext, RequestTimings.REQUEST_BUILD, start);
     listService
         .getAvailableFilters(queryDecoder)
         .onSuccess(
@@ -1,7 +1,10 @@
 package org.cdpg.dx.tgdex.list.factory;
 
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
 import org.cdpg.dx.auditing.handler.AuditingHandler;
 import org.cdpg.dx.tgdex.list.controller.ListController;
+import org.cdpg.dx.tgdex.list.service.CachingListService;
 import org.cdpg.dx.tgdex.list.service.ListService;
 import org.cdpg.dx.tgdex.list.service.ListServiceImpl;
 import org.cdpg.dx.database.elastic.service.ElasticsearchService;
@@ -9,8 +12,15 @@ import org.cdpg.dx.tgdex.validator.service.ValidatorService;
 
 public  class ListControllerFactory {
 
-    public static ListController createListController(ElasticsearchService elasticsearchService, AuditingHandler auditingHandler, String docIndex ,ValidatorService validatorService ){
+    public static ListController createListController(Vertx vertx, JsonObject config, ElasticsearchService elasticsearchService, AuditingHandler auditingHandler, String docIndex ,ValidatorService validatorService ){
         ListService listService = new ListServiceImpl(elasticsearchService,docIndex,validatorService);
+        if (config.getBoolean("facetCacheEnabled", true)) {
+            listService = new CachingListService(vertx, listService,
+                config.getLong("facetCacheMaxSize", 500L),
+                config.getLong("facetCacheIdleMinutes", 30L),
+                config.getLong("facetCacheMaxAgeMinutes", 10L),
+                config.getLong("facetRefreshDelayMs", 2000L));
+        }
         return new ListController(auditingHandler,listService);
     }
 }
@@ -0,0 +1,118 @@
+package org.cdpg.dx.tgdex.list.service;
+
+import static org.cdpg.dx.tgdex.util.Constants.ITEM_WRITE_EVENTS_ADDRESS;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.Json;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.cdpg.dx.database.elastic.model.QueryDecoderRequestDTO;
+import org.cdpg.dx.tgdex.search.util.ResponseModel;
+
+/**
+ * Keeps the facet lists returned by {@code /list} in memory. An entry is keyed by the whole
+ * request, so it covers one combination of filter fields, access scope and instance, and is only
+ * read from Elasticsearch on a cold miss. After items are written the cached entries are recomputed
+ * in the background, one entry at a time and a short delay after the last write, so that a burst
+ * of writes triggers a single refresh and Elasticsearch has made the changes searchable. Each API
+ * server instance keeps its own cache and refreshes it on its own context. Entries not asked for in
+ * a while are dropped, and no entry is kept longer than {@code maxAgeMinutes} without being
+ * recomputed, in case a write event was missed.
+ */
+public class CachingListService implements ListService {
+  private static final Logger LOGGER = LogManager.getLogger(CachingListService.class);
+
+  private final Vertx vertx;
+  private final ListService delegate;
+  private final long refreshDelayMs;
+  private final Cache<String, FacetEntry> cache;
+  /* Bumped on every write. */
+  private final AtomicLong generation = new AtomicLong();
+  private long refreshTimer = -1;
+
+  public CachingListService(
+      Vertx vertx, ListService delegate, long maxSize, long idleMinutes, long maxAgeMinutes,
+      long refreshDelayMs) {
+    this.vertx = vertx;
+    this.delegate = delegate;
+    this.refreshDelayMs = refreshDelayMs;
+    this.cache = CacheBuilder.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterAccess(idleMinutes, TimeUnit.MINUTES)
+        .expireAfterWrite(maxAgeMinutes, TimeUnit.MINUTES)
+        .build();
+    vertx.eventBus().consumer(ITEM_WRITE_EVENTS_ADDRESS, message -> scheduleRefresh());
+  }
+
+  @Override
+  public Future<ResponseModel> getAvailableFilters(QueryDecoderRequestDTO queryDecoderRequestDTO) {
+    if (queryDecoderRequestDTO.getFilter() == null
+        || queryDecoderRequestDTO.getFilter().isEmpty()) {
+      return delegate.getAvailableFilters(queryDecoderRequestDTO);
+    }
+    String key = Json.encode(queryDecoderRequestDTO);
+    FacetEntry entry = cache.getIfPresent(key);
+    if (entry != null) {
+      return Future.succeededFuture(entry.response);
+    }
+    long requestGeneration = generation.get();
+    return delegate
+        .getAvailableFilters(queryDecoderRequestDTO)
+        .onSuccess(response -> {
+          // a write landed while reading, the pending refresh would not know about this key
+          if (requestGeneration == generation.get()) {
+            store(key, new FacetEntry(queryDecoderRequestDTO, response, requestGeneration));
+          }
+        });
+  }
+
+  /** Runs on this instance's context, as do the timer and the refresh. */
+  private void scheduleRefresh() {
+    generation.incrementAndGet();
+    if (refreshTimer != -1) {
+      vertx.cancelTimer(refreshTimer);
+    }
+    refreshTimer = vertx.setTimer(refreshDelayMs, id -> {
+      refreshTimer = -1;
+      long refreshGeneration = generation.get();
+      LOGGER.debug("Refreshing {} cached facet lists", cache.size());
+      refresh(new ArrayList<>(cache.asMap().entrySet()).iterator(), refreshGeneration);
+    });
+  }
+
+  /** Recomputes the entries one after another, until done or another write schedules a refresh. */
+  private void refresh(Iterator<Map.Entry<String, FacetEntry>> entries, long refreshGeneration) {
+    if (!entries.hasNext() || refreshGeneration != generation.get()) {
+      return;
+    }
+    Map.Entry<String, FacetEntry> cached = entries.next();
+    String key = cached.getKey();
+    QueryDecoderRequestDTO request = cached.getValue().request;
+    delegate
+        .getAvailableFilters(request)
+        .onSuccess(response ->
+            store(key, new FacetEntry(request, response, refreshGeneration)))
+        .onFailure(err -> {
+          LOGGER.warn("Facet refresh failed, dropping entry: {}", err.getMessage());
+          cache.invalidate(key);
+        })
+        .onComplete(ar -> refresh(entries, refreshGeneration));
+  }
+
+  /** Stores a result unless an entry computed after a later write is already cached. */
+  private void store(String key, FacetEntry entry) {
+    cache.asMap().merge(key, entry,
+        (current, fresh) -> fresh.generation >= current.generation ? fresh : current);
+  }
+
+  private record FacetEntry(
+      QueryDecoderRequestDTO request, ResponseModel response, long generation) {}
+}
@@ -5,6 +5,7 @@ import static org.cdpg.dx.database.elastic.util.Constants.*;
 import io.vertx.core.Future;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.cdpg.dx.common.util.RequestTimings;
 import org.cdpg.dx.database.elastic.model.QueryDecoder;
 import org.cdpg.dx.database.elastic.model.QueryDecoderRequestDTO;
 import org.cdpg.dx.database.elastic.model.QueryModel;
@@ -34,10 +35,14 @@ public class ListServiceImpl implements ListService {
         || queryDecoderRequestDTO.getFilter().isEmpty()) {
       return Future.failedFuture("Missing or empty 'filter' array");
     }
+    long decodeStart = System.nanoTime();
     QueryDecoder queryDecoder = new QueryDecoder();
     QueryModel queryModel = queryDecoder.listMultipleItemTypesQuery(queryDecoderRequestDTO);
+    RequestTimings.record(RequestTimings.QUERY_DECODE, decodeStart);
+    long searchStart = System.nanoTime();
     return elasticsearchService
         .search(docIndex, queryModel, AGGREGATION_LIST)
+        .onSuccess(results -> RequestTimings.recordSearch(searchStart, results.getTook()))
         .map(ResponseModel::new)
         .onFailure(err -> LOGGER.error("Search execution failed: {}", err.getMessage()));
   }
@@ -12,6 +12,7 @@ import org.apache.logging.log4j.Logger;
 import org.cdpg.dx.auditing.handler.AuditingHandler;
 import org.cdpg.dx.common.request.PostSearchRequestBuilder;
 import org.cdpg.dx.common.response.ResponseBuilder;
+import org.cdpg.dx.common.util.RequestTimings;
 import org.cdpg.dx.database.elastic.model.QueryDecoderRequestDTO;
 import org.cdpg.dx.tgdex.apiserver.ApiController;
 import org.cdpg.dx.tgdex.search.service.SearchService;
@@ -58,16 +59,18 @@ public class SearchController implements ApiController {
   private void handleSearch(RoutingContext ctx) {
     LOGGER.debug("Received POST request on at search'{}'", POST_SEARCH);
     try {
+      long start = System.nanoTime();
       QueryDecoderRequestDTO queryDecoder =
           PostSearchRequestBuilder.fromRoutingContext(ctx)
               .setAssetSearch(false)
               .setCountApi(false)
               .build();
+      RequestTimings.record(ctx, RequestTimings.REQUEST_BUILD, start);
       searchService
           .postSearch(queryDecoder)
           .onSuccess(
               searchService -> {
-                ResponseBuilder.sendSuccess(
+                ResponseBuilder.streamSuccess(
                     ctx,
                     searchService.getElasticsearchResponses(),
                     searchService.getPaginationInfo(),
@@ -81,16 +84,19 @@ public class SearchController implements ApiController {
 
     } catch (Exception e) {
       LOGGER.error("Error processing search request: {}", e.getMessage(), e);
+      ctx.fail(e);
     }
   }
 
   private void handleCount(RoutingContext ctx) {
     LOGGER.debug("Received POST Count request on '{}'", POST_COUNT_SEARCH);
+    long start = System.nanoTime();
     QueryDecoderRequestDTO queryDecoderRequestDTO =
         PostSearchRequestBuilder.fromRoutingContext(ctx)
             .setAssetSearch(false)
             .setCountApi(true)
             .build();
+    RequestTimings.record(ctx, RequestTimings.REQUEST_BUILD, start);
     searchService
         .postCount(queryDecoderRequestDTO)
         .onSuccess(
@@ -108,16 +114,18 @@ public class SearchController implements ApiController {
     LOGGER.debug("Received POST Asset request on '{}'", ASSET_SEARCH);
     // Reuse search handler logic
     try {
+      long start = System.nanoTime();
       var queryDecoder =
           PostSearchRequestBuilder.fromRoutingContext(ctx)
               .setAssetSearch(true)
               .setCountApi(false)
               .build();
+      RequestTimings.record(ctx, RequestTimings.REQUEST_BUILD, start);
       searchService
           .postSearch(queryDecoder)
           .onSuccess(
               searchService -> {
-                ResponseBuilder.sendSuccess(
+                ResponseBuilder.streamSuccess(
                     ctx,
                     searchService.getElasticsearchResponses(),
                     searchService.getPaginationInfo(),
@@ -131,6 +139,7 @@ public class SearchController implements ApiController {
 
     } catch (Exception e) {
       LOGGER.error("Error processing search request: {}", e.getMessage(), e);
+      ctx.fail(e);
     }
   }
 }
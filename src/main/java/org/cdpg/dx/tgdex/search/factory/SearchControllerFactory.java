@@ -1,7 +1,10 @@
 package org.cdpg.dx.tgdex.search.factory;
 
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
 import org.cdpg.dx.auditing.handler.AuditingHandler;
 import org.cdpg.dx.tgdex.search.controller.SearchController;
+import org.cdpg.dx.tgdex.search.service.CachingSearchService;
 import org.cdpg.dx.tgdex.search.service.SearchService;
 import org.cdpg.dx.tgdex.search.service.SearchServiceImpl;
 import org.cdpg.dx.database.elastic.service.ElasticsearchService;
@@ -10,8 +13,14 @@ import org.cdpg.dx.tgdex.validator.service.ValidatorServiceImpl;
 
 public class SearchControllerFactory {
 
-    public static SearchController createSearchController(ElasticsearchService elasticsearchService, AuditingHandler auditingHandler, String docIndex, ValidatorService validatorService) {
+    public static SearchController createSearchController(Vertx vertx, JsonObject config, ElasticsearchService elasticsearchService, AuditingHandler auditingHandler, String docIndex, ValidatorService validatorService) {
         SearchService searchService = new SearchServiceImpl(elasticsearchService,docIndex);
+        long cacheTtlSeconds = config.getLong("searchCacheTtlSeconds", 30L);
+        if (cacheTtlSeconds > 0) {
+            searchService = new CachingSearchService(vertx, searchService, cacheTtlSeconds,
+                config.getLong("searchCacheMaxSize", 1000L),
+                config.getLong("searchCacheRefreshDelayMs", 2000L));
+        }
         return new SearchController(searchService, auditingHandler);
     }
 }
@@ -0,0 +1,134 @@
+package org.cdpg.dx.tgdex.search.service;
+
+import static org.cdpg.dx.tgdex.util.Constants.ITEM_WRITE_EVENTS_ADDRESS;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonObject;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.cdpg.dx.common.util.MeterRegistries;
+import org.cdpg.dx.database.elastic.model.QueryDecoderRequestDTO;
+import org.cdpg.dx.tgdex.search.util.ResponseModel;
+
+/**
+ * Caches results of anonymous searches and counts for a short time. Requests made with a token
+ * see items depending on who they are and always go to Elasticsearch, as do cursor paginated
+ * searches. The cache is shared by all API server instances in the JVM and is cleared whenever an
+ * item is created, updated or deleted, and once more a short delay after the last write, when
+ * Elasticsearch has made the change searchable. A search that was running while items were written
+ * is not cached, as it may have read the index from before the write. Callers are free to change
+ * what they get, as the cache keeps a copy of each result and hands out a copy of it on every hit.
+ */
+public class CachingSearchService implements SearchService {
+  private static final Logger LOGGER = LogManager.getLogger(CachingSearchService.class);
+  private static final String PUBLIC_SCOPE = "public";
+  private static final String SEARCH = "search";
+  private static final String COUNT = "count";
+  private static Cache<String, ResponseModel> sharedCache;
+  /* Bumped on every invalidation; shared like the cache, as searches of all instances fill it. */
+  private static final AtomicLong GENERATION = new AtomicLong();
+
+  private final Vertx vertx;
+  private final SearchService delegate;
+  private final Cache<String, ResponseModel> cache;
+  private final long refreshDelayMs;
+  private long refreshTimer = -1;
+
+  public CachingSearchService(
+      Vertx vertx, SearchService delegate, long ttlSeconds, long maxSize, long refreshDelayMs) {
+    this.vertx = vertx;
+    this.delegate = delegate;
+    this.cache = sharedCache(ttlSeconds, maxSize);
+    this.refreshDelayMs = refreshDelayMs;
+    vertx.eventBus().<JsonObject>consumer(ITEM_WRITE_EVENTS_ADDRESS, message -> {
+      LOGGER.debug("Item {} written, clearing search cache", message.body());
+      invalidate();
+      scheduleInvalidation();
+    });
+  }
+
+  private void invalidate() {
+    GENERATION.incrementAndGet();
+    cache.invalidateAll();
+  }
+
+  /** Clears the cache again once the write is visible to searches, dropping what was read before. */
+  private void scheduleInvalidation() {
+    if (refreshTimer != -1) {
+      vertx.cancelTimer(refreshTimer);
+    }
+    refreshTimer = vertx.setTimer(refreshDelayMs, id -> {
+      refreshTimer = -1;
+      invalidate();
+    });
+  }
+
+  private static synchronized Cache<String, ResponseModel> sharedCache(
+      long ttlSeconds, long maxSize) {
+    if (sharedCache == null) {
+      sharedCache = CacheBuilder.newBuilder()
+          .maximumSize(maxSize)
+          .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+          .recordStats()
+          .build();
+      GuavaCacheMetrics.monitor(MeterRegistries.get(), sharedCache, "tgdex.search.cache");
+    }
+    return sharedCache;
+  }
+
+  @Override
+  public Future<ResponseModel> postSearch(QueryDecoderRequestDTO queryDecoder) {
+    return cached(SEARCH, queryDecoder, delegate::postSearch);
+  }
+
+  @Override
+  public Future<ResponseModel> postCount(QueryDecoderRequestDTO queryDecoder) {
+    return cached(COUNT, queryDecoder, delegate::postCount);
+  }
+
+  private Future<ResponseModel> cached(
+      String operation, QueryDecoderRequestDTO request,
+      Function<QueryDecoderRequestDTO, Future<ResponseModel>> search) {
+    String key = cacheKey(operation, request);
+    if (key == null) {
+      return search.apply(request);
+    }
+    ResponseModel response = cache.getIfPresent(key);
+    if (response != null) {
+      return Future.succeededFuture(response.copy());
+    }
+    long requestGeneration = GENERATION.get();
+    return search.apply(request).onSuccess(result -> {
+      // items were written while searching, the result may predate them
+      if (requestGeneration == GENERATION.get()) {
+        cache.put(key, result.copy());
+      }
+    });
+  }
+
+  /**
+   * Key of a cacheable request: the operation, the access scope and the request normalized to
+   * JSON. Returns null for requests that must not be cached.
+   */
+  private static String cacheKey(String operation, QueryDecoderRequestDTO request) {
+    if (request.getCursor() != null
+        || (request.getAccessPolicyRequest() != null
+            && request.getAccessPolicyRequest().getSub() != null)) {
+      return null;
+    }
+    try {
+      return operation + '|' + PUBLIC_SCOPE + '|' + Json.encode(request);
+    } catch (Exception e) {
+      LOGGER.warn("Search request not cacheable: {}", e.getMessage());
+      return null;
+    }
+  }
+}
@@ -4,12 +4,17 @@ import static org.cdpg.dx.database.elastic.util.Constants.COUNT_AGGREGATION_ONLY
 import static org.cdpg.dx.database.elastic.util.Constants.SOURCE_ONLY;
 
 import io.vertx.core.Future;
+import io.vertx.serviceproxy.ServiceException;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.cdpg.dx.common.exception.BaseDxException;
 import org.cdpg.dx.common.exception.DxBadRequestException;
+import org.cdpg.dx.common.exception.DxErrorCodes;
+import org.cdpg.dx.common.exception.DxNotFoundException;
+import org.cdpg.dx.common.util.RequestTimings;
 import org.cdpg.dx.database.elastic.model.OrderBy;
 import org.cdpg.dx.database.elastic.model.QueryDecoder;
 import org.cdpg.dx.database.elastic.model.QueryDecoderRequestDTO;
@@ -38,6 +43,7 @@ public class SearchServiceImpl implements SearchService {
       LOGGER.info("search type {}", searchType);
 
       // Use the new decoder to get the QueryModel
+      long decodeStart = System.nanoTime();
       QueryDecoder queryDecoder = new QueryDecoder();
       QueryModel queryModel = queryDecoder.getQueryModel(queryDecoderRequestDTO);
       if (queryDecoderRequestDTO.getSort() != null && !queryDecoderRequestDTO.getSort().isEmpty()) {
@@ -47,14 +53,18 @@ public class SearchServiceImpl implements SearchService {
                     Collectors.toMap(OrderBy::getColumn, sort -> sort.getDirection().toString()));
         queryModel.setSortFields(sortFields);
       }
+      RequestTimings.record(RequestTimings.QUERY_DECODE, decodeStart);
 
       // Perform search
+      long searchStart = System.nanoTime();
       return elasticsearchService
           .search(docIndex, queryModel, SOURCE_ONLY)
+          .onSuccess(results -> RequestTimings.recordSearch(searchStart, results.getTook()))
           .map(
               results ->
                   new ResponseModel(
                       results, queryDecoderRequestDTO.getSize(), queryDecoderRequestDTO.getPage()))
+          .recover(err -> Future.failedFuture(asDxException(err)))
           .onFailure(err -> LOGGER.error("Search execution failed: {}", err.getMessage()));
     } catch (Exception e) {
       LOGGER.error("Error during postSearch: {}", e.getMessage(), e);
@@ -70,15 +80,19 @@ public class SearchServiceImpl implements SearchService {
       LOGGER.info("count search type {}", searchType);
 
       // Use QueryDecoderNew to build QueryModel
+      long decodeStart = System.nanoTime();
       QueryDecoder queryDecoder = new QueryDecoder();
       QueryModel queryModel = queryDecoder.getQueryModel(queryDecoderRequestDTO);
 
       // Set aggregation specific to count
       queryModel.setAggregations(List.of(queryDecoder.setCountAggregations()));
+      RequestTimings.record(RequestTimings.QUERY_DECODE, decodeStart);
 
       // Run ES query
+      long searchStart = System.nanoTime();
       return elasticsearchService
           .search(docIndex, queryModel, COUNT_AGGREGATION_ONLY)
+          .onSuccess(results -> RequestTimings.recordSearch(searchStart, results.getTook()))
           .map(ResponseModel::new)
           .onFailure(err -> LOGGER.error("Count execution failed: {}", err.getMessage()));
     } catch (Exception e) {
@@ -86,4 +100,16 @@ public class SearchServiceImpl implements SearchService {
       return Future.failedFuture(new DxBadRequestException("Failed to process count request"));
     }
   }
+
+  /* A rejected search arrives over the event bus as a plain service exception carrying the code. */
+  private static Throwable asDxException(Throwable err) {
+    if (!(err instanceof ServiceException e) || err instanceof BaseDxException) {
+      return err;
+    }
+    return switch (e.failureCode()) {
+      case DxErrorCodes.BAD_REQUEST_ERROR -> new DxBadRequestException(e.getMessage());
+      case DxErrorCodes.NOT_FOUND -> new DxNotFoundException(e.getMessage());
+      default -> err;
+    };
+  }
 }
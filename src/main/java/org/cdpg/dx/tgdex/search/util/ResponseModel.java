@@ -8,7 +8,9 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import org.cdpg.dx.common.util.PaginationInfo;
+import org.cdpg.dx.common.util.SearchCursor;
 import org.cdpg.dx.database.elastic.model.ElasticsearchResponse;
+import org.cdpg.dx.database.elastic.model.ElasticsearchSearchResult;
 
 public class ResponseModel {
   JsonObject response;
@@ -16,37 +18,52 @@ public class ResponseModel {
   private int totalHits;
   private PaginationInfo paginationInfo;
 
-  public ResponseModel(List<ElasticsearchResponse> elasticsearchResponses, int size, int page) {
-    this.response = new JsonObject();
-    this.response.put(RESULTS, elasticsearchResponses);
-    setTotalHits(ElasticsearchResponse.getTotalHits());
+  public ResponseModel(ElasticsearchSearchResult searchResult, int size, int page) {
+    setTotalHits(searchResult.getTotalHits());
     this.elasticsearchResponses =
-        getJsonObjectList(Objects.requireNonNullElse(elasticsearchResponses, List.of()));
+        getJsonObjectList(Objects.requireNonNullElse(searchResult.getHits(), List.of()));
     setPaginationInfo(page, size);
+    if (searchResult.getPitId() != null) {
+      setCursor(searchResult);
+    }
     setResponseJson();
   }
 
-  public ResponseModel(List<ElasticsearchResponse> elasticsearchResponses) {
+  public ResponseModel(ElasticsearchSearchResult searchResult) {
     this.elasticsearchResponses =
-        getJsonObjectList(Objects.requireNonNullElse(elasticsearchResponses, List.of()));
+        getJsonObjectList(Objects.requireNonNullElse(searchResult.getHits(), List.of()));
     this.response = new JsonObject();
-    this.response.put(RESULTS, setAggregationsList());
+    this.response.put(RESULTS, setAggregationsList(searchResult.getAggregations()));
+  }
+
+  private ResponseModel(ResponseModel other) {
+    this.elasticsearchResponses = new ArrayList<>(other.elasticsearchResponses.size());
+    for (JsonObject hit : other.elasticsearchResponses) {
+      this.elasticsearchResponses.add(hit.copy());
+    }
+    this.response = other.response != null ? other.response.copy() : null;
+    this.totalHits = other.totalHits;
+    this.paginationInfo = other.paginationInfo != null ? other.paginationInfo.copy() : null;
   }
 
   public ResponseModel (ElasticsearchResponse elasticsearchResponse){
+    this.elasticsearchResponses = getJsonObjectList(List.of(elasticsearchResponse));
     this.response= new JsonObject();
     this.response.put(RESULTS, elasticsearchResponse.getSource());
-    setTotalHits(ElasticsearchResponse.getTotalHits());
+    setTotalHits(elasticsearchResponse.getTotalHits());
 
   }
-  private JsonArray setAggregationsList() {
+  private JsonArray setAggregationsList(JsonObject aggregations) {
     JsonArray results = new JsonArray();
-    // Fetch all aggregations from the response JSON
-    JsonObject aggregations = ElasticsearchResponse.getAggregations();
-    results.add(aggregations);
+    results.add(Objects.requireNonNullElseGet(aggregations, JsonObject::new));
     return results;
   }
 
+  /** A deep copy, which can be changed without affecting this one. */
+  public ResponseModel copy() {
+    return new ResponseModel(this);
+  }
+
   public List<JsonObject> getElasticsearchResponses() {
     return elasticsearchResponses;
   }
@@ -59,6 +76,16 @@ public class ResponseModel {
         new PaginationInfo(page, size, this.totalHits, totalPages, hasNext, hasPrevious);
   }
 
+  private void setCursor(ElasticsearchSearchResult searchResult) {
+    boolean hasNext = searchResult.getSearchAfter() != null;
+    paginationInfo.setHasNext(hasNext);
+    paginationInfo.setHasPrevious(false);
+    if (hasNext) {
+      paginationInfo.setCursor(
+          new SearchCursor(searchResult.getPitId(), searchResult.getSearchAfter()).encode());
+    }
+  }
+
   private List<JsonObject> getJsonObjectList(List<ElasticsearchResponse> elasticsearchResponses) {
     List<JsonObject> jsonObjectList = new ArrayList<>();
     for (ElasticsearchResponse elasticsearchResponse : elasticsearchResponses) {
@@ -8,6 +8,11 @@ public class Constants {
 
     /** General. */
     public static final String VALIDATOR_SERVICE_ADDRESS = "org.cdpg.dx.validator.service";
+    /**
+     * Published to after items are created, updated or deleted; the body carries the item's
+     * {@code id}, or {@code ids} for bulk writes.
+     */
+    public static final String ITEM_WRITE_EVENTS_ADDRESS = "org.cdpg.dx.tgdex.item.writes";
 
     public static final String CONFIG_FILE = "config.properties";
     public static final String OPTIONAL_MODULES = "optionalModules";
@@ -74,6 +79,7 @@ public class Constants {
     public static final String INSTANCE = "instance";
     public static final String BUCKETS = "buckets";
     public static final String ID = "id";
+    public static final String IDS = "ids";
     public static final String ITEM = "item";
     public static final String SUB = "sub";
 
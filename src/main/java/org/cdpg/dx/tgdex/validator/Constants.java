@@ -14,6 +14,9 @@ public class Constants {
   public static final String LAST_UPDATED = "lastUpdated";
   public static final String CONTEXT = "@context";
 
+  /** Name of the shared worker pool item schemas are validated on. */
+  public static final String SCHEMA_VALIDATION_POOL = "tgdex-schema-validation";
+
   /** Error messages. */
   public static final String NON_EXISTING_LINK_MSG = "No such cat item exists: ";
 
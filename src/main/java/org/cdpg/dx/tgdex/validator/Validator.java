@@ -6,18 +6,23 @@ import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
 import com.github.fge.jsonschema.main.JsonSchema;
 import com.github.fge.jsonschema.main.JsonSchemaFactory;
+import io.micrometer.core.instrument.Timer;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
+import io.vertx.core.WorkerExecutor;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.json.jackson.DatabindCodec;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.cdpg.dx.common.util.MeterRegistries;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -34,7 +39,23 @@ public final class Validator {
     PKGBASE = '/' + pkgName.replace(".", "/");
   }
 
+  private static final Pattern MISSING_PROPERTY = Pattern.compile("\\[\"(.*?)\"\\]");
+  private static final Pattern BRACKET_EDGES = Pattern.compile("^\\[|\\]$");
+  private static final Pattern MESSAGE_SPLIT = Pattern.compile(",(?=\\s*Field)");
+  private static final Pattern FIELD_NAME = Pattern.compile("Field\\s+\"([^\"]+)\"(\\s*:\\s*)?");
+  private static final Pattern ENUM_VALUES =
+      Pattern.compile("instance value \\(\"(.*?)\"\\).*?values: \\[(.*?)\\]");
+  private static final Pattern QUOTE_EDGES = Pattern.compile("^\"|\"$");
+  private static final Pattern TYPE_MISMATCH_MESSAGE =
+      Pattern.compile(".*instance type \\(.*\\) does not match any allowed primitive type.*");
+  private static final Pattern TYPE_MISMATCH =
+      Pattern.compile("instance type \\((.*?)\\).*allowed: \\[(.*?)\\]");
+  private static final Pattern TOO_LONG_MESSAGE =
+      Pattern.compile(".*is too long \\(length: \\d+, maximum allowed: \\d+\\).*");
+  private static final Pattern TOO_LONG = Pattern.compile("length: (\\d+), maximum allowed: (\\d+)");
+
   private final JsonSchema schema;
+  private final Timer validationTimer;
 
   /**
    * Creates a new instance of Validator that can validate JSON objects against a given JSON schema.
@@ -47,6 +68,10 @@ public final class Validator {
     final JsonNode schemaNode = loadResource(schemaPath);
     final JsonSchemaFactory factory = JsonSchemaFactory.byDefault();
     schema = factory.getJsonSchema(schemaNode);
+    validationTimer = Timer.builder("tgdex.validator.schema.validation")
+        .description("Time spent validating a document against a JSON schema")
+        .tag("schema", schemaPath)
+        .register(MeterRegistries.get());
   }
 
   /**
@@ -78,12 +103,30 @@ public final class Validator {
    * @return isValid boolean
    */
   public Future<String> validateSearchCriteria(String obj) {
+    try {
+      return validateSearchCriteria(loadString(obj));
+    } catch (IOException e) {
+      return Future.failedFuture(List.of(e.getMessage()).toString());
+    }
+  }
+
+  /**
+   * Check validity of an already decoded json object. The object is converted to a tree directly,
+   * without encoding it to a string and parsing it back.
+   *
+   * @param obj Json object
+   * @return isValid boolean
+   */
+  public Future<String> validateSearchCriteria(JsonObject obj) {
+    return validateSearchCriteria(toTree(obj));
+  }
+
+  private Future<String> validateSearchCriteria(JsonNode jsonobj) {
     Promise<String> promise = Promise.promise();
     boolean isValid;
     List<String> schemaErrorList = new ArrayList<>();
     try {
-      JsonNode jsonobj = loadString(obj);
-      ProcessingReport report = schema.validate(jsonobj);
+      ProcessingReport report = timedValidate(jsonobj);
       report.forEach(
           x -> {
             if (x.getLogLevel().toString().equalsIgnoreCase("error")) {
@@ -93,7 +136,7 @@ public final class Validator {
           });
       isValid = report.isSuccess();
 
-    } catch (IOException | ProcessingException e) {
+    } catch (ProcessingException e) {
       isValid = false;
       schemaErrorList.add(e.getMessage());
     }
@@ -131,13 +174,41 @@ public final class Validator {
    *         </ul>
    */
   public Future<String> validate(String obj) {
+    try {
+      return validate(loadString(obj));
+    } catch (IOException e) {
+      LOGGER.error("Exception during validation", e);
+      return Future.failedFuture(e.getMessage());
+    }
+  }
+
+  /**
+   * Validates an already decoded json object, reporting failures like {@link #validate(String)}.
+   * The object is converted to a tree directly, without encoding it to a string and parsing it
+   * back.
+   */
+  public Future<String> validate(JsonObject obj) {
+    return validate(toTree(obj));
+  }
+
+  /**
+   * Validates the object on the given worker pool instead of the calling thread. Large items with
+   * deep nesting take long enough to validate that they should not run on an event loop. The
+   * object is converted on the calling thread, so it may be modified once this returns.
+   */
+  public Future<String> validate(JsonObject obj, WorkerExecutor executor) {
+    JsonNode tree = toTree(obj);
+    return executor.<Future<String>>executeBlocking(() -> validate(tree), false)
+        .compose(result -> result);
+  }
+
+  private Future<String> validate(JsonNode jsonObj) {
     Promise<String> promise = Promise.promise();
     List<String> schemaErrorList = new ArrayList<>();
     Set<String> errorFields = new LinkedHashSet<>(); // Preserve order
 
     try {
-      JsonNode jsonObj = loadString(obj);
-      ProcessingReport report = schema.validate(jsonObj);
+      ProcessingReport report = timedValidate(jsonObj);
 
       report.forEach(msg -> {
         if ("error".equalsIgnoreCase(msg.getLogLevel().toString())) {
@@ -157,7 +228,7 @@ public final class Validator {
           if (!pointer.isEmpty()) {
             field = pointer.substring(1); // e.g., "/mediaURL" => "mediaURL"
           } else if (errorMessage.contains("missing required properties")) {
-            Matcher matcher = Pattern.compile("\\[\"(.*?)\"\\]").matcher(errorMessage);
+            Matcher matcher = MISSING_PROPERTY.matcher(errorMessage);
             if (matcher.find()) {
               field = matcher.group(1);
             } else {
@@ -188,7 +259,7 @@ public final class Validator {
         promise.fail(errorResponse.encode());
       }
 
-    } catch (IOException | ProcessingException e) {
+    } catch (ProcessingException e) {
       LOGGER.error("Exception during validation", e);
       promise.fail(e.getMessage());
     }
@@ -196,21 +267,35 @@ public final class Validator {
     return promise.future();
   }
 
+  private ProcessingReport timedValidate(JsonNode instance) throws ProcessingException {
+    long start = System.nanoTime();
+    try {
+      return schema.validate(instance);
+    } finally {
+      validationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private static JsonNode toTree(JsonObject obj) {
+    return DatabindCodec.mapper().valueToTree(obj);
+  }
+
   private JsonArray parseValidationMessages(String rawMessage) {
     JsonArray userMessages = new JsonArray();
 
-    String[] rawMessages = rawMessage.replaceAll("^\\[|\\]$", "")
-        .split(",(?=\\s*Field)");
+    String[] rawMessages = MESSAGE_SPLIT.split(BRACKET_EDGES.matcher(rawMessage).replaceAll(""));
 
     for (String msg : rawMessages) {
-      msg = msg.trim().replaceAll("\\\\\"", "\"").replaceAll("\\\\", "");
+      msg = msg.trim().replace("\\\"", "\"").replace("\\", "");
 
       String fieldName = null;
-      Matcher fieldMatcher = Pattern.compile("Field\\s+\"([^\"]+)\"").matcher(msg);
+      Matcher fieldMatcher = FIELD_NAME.matcher(msg);
       if (fieldMatcher.find()) {
         fieldName = fieldMatcher.group(1);
         // Remove repeated "Field \"fieldName\":" prefix from message if present
-        msg = msg.replaceFirst("Field\\s+\"" + Pattern.quote(fieldName) + "\"\\s*:\\s*", "").trim();
+        if (fieldMatcher.group(2) != null) {
+          msg = (msg.substring(0, fieldMatcher.start()) + msg.substring(fieldMatcher.end())).trim();
+        }
       }
 
       if (msg.contains("ECMA 262 regex")) {
@@ -230,7 +315,7 @@ public final class Validator {
         }
 
       } else if (msg.contains("missing required properties")) {
-        Matcher matcher = Pattern.compile("\\[\"(.*?)\"\\]").matcher(msg);
+        Matcher matcher = MISSING_PROPERTY.matcher(msg);
         if (matcher.find()) {
           userMessages.add("Field \"" + matcher.group(1) + "\": is required.");
         } else {
@@ -238,15 +323,14 @@ public final class Validator {
         }
 
       } else if (msg.contains("not found in enum")) {
-        Matcher matcher =
-            Pattern.compile("instance value \\(\"(.*?)\"\\).*?values: \\[(.*?)\\]").matcher(msg);
+        Matcher matcher = ENUM_VALUES.matcher(msg);
         if (matcher.find()) {
           String rawEnumValues = matcher.group(2);
 
           // Quote all values including empty string
           List<String> valuesList = new ArrayList<>();
           for (String val : rawEnumValues.split(",")) {
-            val = val.trim().replaceAll("^\"|\"$", "");
+            val = QUOTE_EDGES.matcher(val.trim()).replaceAll("");
             valuesList.add(val.isEmpty() ? "\"\"" : "\"" + val + "\"");
           }
 
@@ -258,22 +342,20 @@ public final class Validator {
           userMessages.add(String.format("Field \"%s\": contains an invalid value.", fieldName));
         }
 
-      } else if (msg.matches(
-          ".*instance type \\(.*\\) does not match any allowed primitive type.*")) {
+      } else if (TYPE_MISMATCH_MESSAGE.matcher(msg).matches()) {
         // Handle type mismatch messages
-        Matcher matcher =
-            Pattern.compile("instance type \\((.*?)\\).*allowed: \\[(.*?)\\]").matcher(msg);
+        Matcher matcher = TYPE_MISMATCH.matcher(msg);
         if (matcher.find()) {
           String foundType = matcher.group(1);
           String allowedTypes =
-              matcher.group(2).replaceAll("\"", ""); // Remove quotes from allowed types
+              matcher.group(2).replace("\"", ""); // Remove quotes from allowed types
           userMessages.add(String.format("Field \"%s\": expected type %s, but found %s.", fieldName,
               allowedTypes, foundType));
         } else {
           userMessages.add(String.format("Field \"%s\": has a type mismatch.", fieldName));
         }
-      } else if (msg.matches(".*is too long \\(length: \\d+, maximum allowed: \\d+\\).*")) {
-        Matcher matcher = Pattern.compile("length: (\\d+), maximum allowed: (\\d+)").matcher(msg);
+      } else if (TOO_LONG_MESSAGE.matcher(msg).matches()) {
+        Matcher matcher = TOO_LONG.matcher(msg);
         if (matcher.find()) {
           String actualLength = matcher.group(1);
           String maxLength = matcher.group(2);
@@ -12,6 +12,8 @@ import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import java.io.IOException;
@@ -24,7 +26,6 @@ import java.time.format.DateTimeFormatter;
 import java.util.*;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.cdpg.dx.database.elastic.model.ElasticsearchResponse;
 import org.cdpg.dx.database.elastic.model.QueryDecoder;
 import org.cdpg.dx.database.elastic.model.QueryModel;
 import org.cdpg.dx.database.elastic.service.ElasticsearchService;
@@ -59,15 +60,19 @@ public class ValidatorServiceImpl implements ValidatorService {
   private Validator filterSearchQueryValidator;
   private final QueryDecoder queryDecoder;
   private final ElasticsearchService elasticsearchService;
+  private final WorkerExecutor schemaValidationExecutor;
 
   /**
    * Constructs a new ValidatorServiceImpl object with the specified ElasticClient and docIndex.
    *
    * @param docIndex the index name to use for storing documents in Elasticsearch
+   * @param schemaValidationPoolSize size of the worker pool item schemas are validated on
    */
-  public ValidatorServiceImpl(ElasticsearchService elasticsearchService, String docIndex,
-                              String vocContext) {
+  public ValidatorServiceImpl(Vertx vertx, ElasticsearchService elasticsearchService,
+                              String docIndex, String vocContext, int schemaValidationPoolSize) {
     this.elasticsearchService = elasticsearchService;
+    this.schemaValidationExecutor =
+        vertx.createSharedWorkerExecutor(SCHEMA_VALIDATION_POOL, schemaValidationPoolSize);
 
     this.docIndex = docIndex;
     this.vocContext = vocContext;
@@ -152,13 +157,13 @@ public class ValidatorServiceImpl implements ValidatorService {
 
     switch (itemType) {
       case ITEM_TYPE_AI_MODEL:
-        isValidSchema = aiModelValidator.validate(request.toString());
+        isValidSchema = aiModelValidator.validate(request, schemaValidationExecutor);
         break;
       case ITEM_TYPE_DATA_BANK:
-        isValidSchema = dataBankResourceValidator.validate(request.toString());
+        isValidSchema = dataBankResourceValidator.validate(request, schemaValidationExecutor);
         break;
       case ITEM_TYPE_APPS:
-        isValidSchema = adexAppsValidator.validate(request.toString());
+        isValidSchema = adexAppsValidator.validate(request, schemaValidationExecutor);
         break;
       default:
         promise.fail("Invalid Item Type");
@@ -218,7 +223,7 @@ public class ValidatorServiceImpl implements ValidatorService {
           promise.fail(VALIDATION_FAILURE_MSG);
         })
         .onSuccess(res -> {
-          if (method.equalsIgnoreCase(REQUEST_POST) && ElasticsearchResponse.getTotalHits() > 0) {
+          if (method.equalsIgnoreCase(REQUEST_POST) && res.getTotalHits() > 0) {
             LOGGER.debug("potential apps item already exists with the given name");
             promise.fail("Fail: Apps item already exists");
           } else {
@@ -469,19 +474,19 @@ public class ValidatorServiceImpl implements ValidatorService {
       Future<String> validationFuture = null;
       switch (searchType) {
         case TERM:
-          validationFuture = termValidator.validateSearchCriteria(criterion.encode());
+          validationFuture = termValidator.validateSearchCriteria(criterion);
           break;
 
         case BETWEEN_RANGE:
         case BEFORE_RANGE:
         case AFTER_RANGE:
-          validationFuture = rangeValidator.validateSearchCriteria(criterion.encode());
+          validationFuture = rangeValidator.validateSearchCriteria(criterion);
           break;
 
         case BETWEEN_TEMPORAL:
         case BEFORE_TEMPORAL:
         case AFTER_TEMPORAL:
-          validationFuture = temporalValidator.validateSearchCriteria(criterion.encode());
+          validationFuture = temporalValidator.validateSearchCriteria(criterion);
           break;
         default:
           JsonObject error = new JsonObject()
@@ -515,13 +520,13 @@ public class ValidatorServiceImpl implements ValidatorService {
   }
 
   public void validateTextSearchQuery(JsonObject request, Promise<JsonObject> promise) {
-    isValidSchema = textSearchQueryValidator.validateSearchCriteria(request.toString());
+    isValidSchema = textSearchQueryValidator.validateSearchCriteria(request);
 
     SearchQueryValidatorHelper.handleTextSearchValidationResult(isValidSchema, promise);
   }
 
   public void validateFilterSearchQuery(JsonObject request, Promise<JsonObject> promise) {
-    isValidSchema = filterSearchQueryValidator.validateSearchCriteria(request.toString());
+    isValidSchema = filterSearchQueryValidator.validateSearchCriteria(request);
 
     SearchQueryValidatorHelper.handleFilterSearchValidationResult(isValidSchema, promise);
   }
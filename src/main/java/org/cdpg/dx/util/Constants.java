@@ -24,6 +24,8 @@ public class Constants {
   public static final String GET_ITEM="get item";
   public static final String UPDATE_ITEM="update item";
   public static final String DELETE_ITEM="delete item";
+  public static final String CREATE_ITEMS_BULK="create items bulk";
+  public static final String UPDATE_ITEMS_BULK="update items bulk";
   public static final String LIST_AVAILABLE_FILTER="listAvailableFilters";
   public static final String GET_LIST="listTypes";
   public static final String POST_SEARCH="search";
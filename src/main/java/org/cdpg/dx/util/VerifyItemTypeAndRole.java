@@ -9,14 +9,21 @@ import org.cdpg.dx.auth.authorization.model.DxRole;
 import org.cdpg.dx.common.exception.DxForbiddenException;
 import org.cdpg.dx.common.exception.DxUnauthorizedException;
 
-import java.util.*;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
 
 import static org.cdpg.dx.util.ItemType.AI_MODEL;
 import static org.cdpg.dx.util.ItemType.APPS;
 import static org.cdpg.dx.util.ItemType.DATA_BANK;
 
 public class VerifyItemTypeAndRole implements Handler<RoutingContext> {
-    HashMap<DxRole, List<ItemType>> roleItemTypeMap = new HashMap<>();
+    /**
+     * Item types a user may write, as a bitmask over {@link ItemType} ordinals, indexed by the
+     * bitmask of the user's roles ({@link DxRole#rolesOf}).
+     */
+    private static final int[] WRITABLE_TYPES = writableTypes();
 
     @Override
     public void handle(RoutingContext routingContext) {
@@ -26,16 +33,14 @@ public class VerifyItemTypeAndRole implements Handler<RoutingContext> {
             return;
         }
 
-        JsonObject principal = user.principal();
-        JsonObject realmAccess = principal.getJsonObject("realm_access");
+        JsonObject realmAccess = user.principal().getJsonObject("realm_access");
         if (realmAccess == null || !realmAccess.containsKey("roles")) {
             routingContext.fail(new DxForbiddenException("User don't have any assigned role")); // 403
             return;
         }
-        createMap();
-        String itemType = routingContext.body().asJsonObject().getJsonArray("type").getString(0);
+        JsonArray types = routingContext.body().asJsonObject().getJsonArray("type");
+        String itemType = types == null || types.isEmpty() ? null : types.getString(0);
 
-        JsonArray userRoles = realmAccess.getJsonArray("roles");
         ItemType requestedType;
         try {
             requestedType = ItemType.fromTypeValue(itemType);
@@ -44,22 +49,7 @@ public class VerifyItemTypeAndRole implements Handler<RoutingContext> {
             return;
         }
 
-        boolean allowed = userRoles.stream()
-                .map(Object::toString)
-                .map(String::toLowerCase)
-                .map(roleName -> {
-                    return Arrays.stream(DxRole.values())
-                            .filter(r -> r.getRole().equalsIgnoreCase(roleName))
-                            .findFirst()
-                            .orElse(null);
-                })
-                .filter(Objects::nonNull)        // drop any unknown roles
-                .anyMatch(dxRole -> {
-                    List<ItemType> allowedTypes = roleItemTypeMap.get(dxRole);
-                    return allowedTypes != null && allowedTypes.contains(requestedType);
-                });
-
-        if (allowed) {
+        if (allows(DxRole.rolesOf(user), requestedType)) {
             routingContext.next();
         } else {
             routingContext.fail(new DxForbiddenException(
@@ -67,12 +57,40 @@ public class VerifyItemTypeAndRole implements Handler<RoutingContext> {
         }
     }
 
-    private void createMap(){
-        List<ItemType> providerItemTypes = new ArrayList<>();
-        List<ItemType> cosAdminItemTypes = new ArrayList<>();
-        providerItemTypes.add(AI_MODEL);
-        providerItemTypes.add(DATA_BANK);
-        cosAdminItemTypes.add(APPS);
-        this.roleItemTypeMap.put(DxRole.PROVIDER, providerItemTypes);
-        this.roleItemTypeMap.put(DxRole.COS_ADMIN, cosAdminItemTypes);}
+    /**
+     * Whether the user holds a role that may write items of the given type. Used where one request
+     * carries items of several types, so the check cannot be made on the route.
+     */
+    public boolean isAllowed(User user, String itemType) {
+        if (user == null) {
+            return false;
+        }
+        try {
+            return allows(DxRole.rolesOf(user), ItemType.fromTypeValue(itemType));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static boolean allows(int roles, ItemType requestedType) {
+        return (WRITABLE_TYPES[roles] & (1 << requestedType.ordinal())) != 0;
+    }
+
+    private static int[] writableTypes() {
+        Map<DxRole, Set<ItemType>> typesByRole = new EnumMap<>(DxRole.class);
+        typesByRole.put(DxRole.PROVIDER, EnumSet.of(AI_MODEL, DATA_BANK));
+        typesByRole.put(DxRole.COS_ADMIN, EnumSet.of(APPS));
+
+        int[] table = new int[1 << DxRole.values().length];
+        for (int roles = 0; roles < table.length; roles++) {
+            for (Map.Entry<DxRole, Set<ItemType>> entry : typesByRole.entrySet()) {
+                if ((roles & entry.getKey().bit()) != 0) {
+                    for (ItemType type : entry.getValue()) {
+                        table[roles] |= 1 << type.ordinal();
+                    }
+                }
+            }
+        }
+        return table;
+    }
 }
@@ -0,0 +1,153 @@
+package org.cdpg.dx.auditing.handler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+import org.cdpg.dx.databroker.service.DataBrokerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** A batcher publishing to a fake broker, whose batches stay in flight until the test answers. */
+class AuditBatcherTest {
+  private static final long FLUSH_INTERVAL_MS = 100;
+  private static final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  @TempDir
+  Path spillDir;
+
+  private Vertx vertx;
+  private AuditBatcher batcher;
+  private final List<Promise<Void>> inFlight = new CopyOnWriteArrayList<>();
+  /* The batcher's, where the event bus would answer. */
+  private volatile Context batcherContext;
+
+  @BeforeAll
+  static void meters() {
+    Metrics.addRegistry(registry);
+  }
+
+  @BeforeEach
+  void start() {
+    vertx = Vertx.vertx();
+    batcher = new AuditBatcher(vertx, fakeBroker(), new JsonObject()
+        .put("auditBatchSize", 2)
+        .put("auditMaxInFlightBatches", 1)
+        .put("auditFlushIntervalMs", FLUSH_INTERVAL_MS)
+        .put("auditSpillDir", spillDir.toString()));
+  }
+
+  @AfterEach
+  void stop() throws Exception {
+    await(vertx.close());
+  }
+
+  @Test
+  void closeSpillsWhatIsBufferedOnceBatchesInFlightAreDone() throws Exception {
+    add(5);
+    // the first batch is in flight, the other logs wait for it
+    waitFor(() -> inFlight.size() == 1);
+    assertEquals(3.0, bufferSize());
+
+    Future<Void> closed = batcher.close();
+    waitFor(() -> spilled().size() == 3);
+    assertFalse(closed.isComplete());
+    batcherContext.runOnContext(v -> inFlight.get(0).fail("broker unavailable"));
+    await(closed);
+
+    assertEquals(List.of(3L, 4L, 5L, 1L, 2L),
+        spilled().stream().map(log -> log.getLong("n")).toList());
+    assertEquals(0.0, bufferSize());
+  }
+
+  @Test
+  void publishesNothingOnceClosed() throws Exception {
+    await(batcher.close());
+    add(3);
+    Thread.sleep(3 * FLUSH_INTERVAL_MS);
+    assertEquals(0, inFlight.size());
+    waitFor(() -> spilled().size() == 3);
+  }
+
+  @Test
+  void gaugeCountsWhatIsBuffered() throws Exception {
+    add(1);
+    waitFor(() -> bufferSize() == 1.0);
+    // the periodic flush takes it
+    waitFor(() -> inFlight.size() == 1);
+    assertEquals(0.0, bufferSize());
+    batcherContext.runOnContext(v -> inFlight.get(0).complete());
+  }
+
+  private void add(int logs) {
+    for (int n = 1; n <= logs; n++) {
+      batcher.add(new JsonObject().put("n", n));
+    }
+  }
+
+  private static double bufferSize() {
+    return registry.get("tgdex.audit.buffer.size").gauge().value();
+  }
+
+  private List<JsonObject> spilled() {
+    List<JsonObject> logs = new ArrayList<>();
+    try (Stream<Path> files = Files.list(spillDir)) {
+      for (Path file : files.sorted().toList()) {
+        for (String line : Files.readAllLines(file)) {
+          logs.add(new JsonObject(line));
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return logs;
+  }
+
+  private DataBrokerService fakeBroker() {
+    return (DataBrokerService) Proxy.newProxyInstance(getClass().getClassLoader(),
+        new Class<?>[] {DataBrokerService.class}, (proxy, method, args) -> switch (method.getName()) {
+          case "publishMessagesInternal" -> {
+            batcherContext = Vertx.currentContext();
+            Promise<Void> published = Promise.promise();
+            inFlight.add(published);
+            yield published.future();
+          }
+          case "equals" -> proxy == args[0];
+          case "hashCode" -> System.identityHashCode(proxy);
+          default -> throw new UnsupportedOperationException(method.getName());
+        });
+  }
+
+  private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (!condition.getAsBoolean()) {
+      assertTrue(System.nanoTime() < deadline, "timed out");
+      Thread.sleep(20);
+    }
+  }
+
+  private static <T> T await(Future<T> future) throws Exception {
+    return future.toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+  }
+}
@@ -0,0 +1,129 @@
+package org.cdpg.dx.catalogue.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.client.WebClient;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.cdpg.dx.common.exception.DxInternalServerErrorException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/** Calls against a stub catalogue server answering whatever the test sets up. */
+class CatalogueClientImplTest {
+  private static Vertx vertx;
+  private static HttpServer server;
+  private static CatalogueClientImpl client;
+  private static volatile Handler<HttpServerRequest> answer;
+
+  @BeforeAll
+  static void start() throws Exception {
+    vertx = Vertx.vertx();
+    server = vertx.createHttpServer().requestHandler(request -> answer.handle(request));
+    await(server.listen(0));
+    client = new CatalogueClientImpl("localhost", server.actualPort(), "/iudx/cat/v1",
+        WebClient.create(vertx));
+  }
+
+  @AfterAll
+  static void stop() throws Exception {
+    await(vertx.close());
+  }
+
+  @Test
+  void providerUserIdFromRelationship() throws Exception {
+    answer = json(new JsonObject().put("results",
+        new JsonArray().add(new JsonObject().put("ownerUserId", "owner"))));
+    assertEquals("owner", await(client.getProviderOwnerUserId("item")));
+  }
+
+  @Test
+  void noRelationshipIsNoProvider() throws Exception {
+    answer = json(new JsonObject().put("results", new JsonArray()));
+    assertNull(await(client.getProviderOwnerUserId("item")));
+  }
+
+  @Test
+  void bodyWithoutResultsFails() {
+    answer = json(new JsonObject().put("type", "urn:dx:cat:General"));
+    ExecutionException failure =
+        assertThrows(ExecutionException.class, () -> await(client.getProviderOwnerUserId("item")));
+    assertInstanceOf(DxInternalServerErrorException.class, failure.getCause());
+  }
+
+  @Test
+  void malformedResultsFail() {
+    answer = json(new JsonObject().put("results", new JsonArray().add("not an object")));
+    ExecutionException failure =
+        assertThrows(ExecutionException.class, () -> await(client.getProviderOwnerUserId("item")));
+    assertInstanceOf(DxInternalServerErrorException.class, failure.getCause());
+  }
+
+  @Test
+  void pagesUntilTotalEvenWhenPagesComeBackShort() throws Exception {
+    answer = pages(5, 2, true);
+    assertEquals(List.of("0", "1", "2", "3", "4"), fetchAll());
+  }
+
+  @Test
+  void emptyPageEndsPagingBeforeTotal() throws Exception {
+    // the catalogue claims more than it holds
+    answer = pagesWithTotal(3, 2, 10);
+    assertEquals(List.of("0", "1", "2"), fetchAll());
+  }
+
+  @Test
+  void shortPageEndsPagingWithoutTotal() throws Exception {
+    answer = pages(5, 2, false);
+    assertEquals(List.of("0", "1"), fetchAll());
+  }
+
+  private static List<String> fetchAll() throws Exception {
+    List<String> ids = new CopyOnWriteArrayList<>();
+    await(client.fetchCatalogueData(item -> ids.add(item.getString("id"))));
+    return ids;
+  }
+
+  private static Handler<HttpServerRequest> pages(int items, int pageCap, boolean withTotal) {
+    return pagesWithTotal(items, pageCap, withTotal ? items : -1);
+  }
+
+  /* Serves {@code items} items, at most {@code pageCap} a page whatever the limit asked for. */
+  private static Handler<HttpServerRequest> pagesWithTotal(int items, int pageCap, int total) {
+    return request -> {
+      int offset = Integer.parseInt(request.getParam("offset"));
+      JsonArray results = new JsonArray();
+      for (int i = offset; i < Math.min(items, offset + pageCap); i++) {
+        results.add(new JsonObject().put("id", String.valueOf(i)));
+      }
+      JsonObject body = new JsonObject().put("results", results);
+      if (total >= 0) {
+        body.put("totalHits", total);
+      }
+      json(body).handle(request);
+    };
+  }
+
+  private static Handler<HttpServerRequest> json(JsonObject body) {
+    return request -> request.response()
+        .putHeader("content-type", "application/json")
+        .end(body.encode());
+  }
+
+  private static <T> T await(Future<T> future) throws Exception {
+    return future.toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+  }
+}
@@ -0,0 +1,43 @@
+package org.cdpg.dx.common.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.cdpg.dx.common.exception.DxBadRequestException;
+import org.junit.jupiter.api.Test;
+
+class SearchCursorTest {
+
+  @Test
+  void decodesWhatItEncodes() {
+    SearchCursor cursor = new SearchCursor("pit-1", new JsonArray().add(2).add("b"));
+    SearchCursor decoded = SearchCursor.decode(cursor.encode());
+    assertEquals("pit-1", decoded.getPitId());
+    assertEquals(new JsonArray().add(2).add("b"), decoded.getSearchAfter());
+  }
+
+  @Test
+  void startsAFreshCursor() {
+    assertTrue(SearchCursor.decode("*").isStart());
+  }
+
+  @Test
+  void rejectsMalformedCursors() {
+    assertThrows(DxBadRequestException.class, () -> SearchCursor.decode("not base64!"));
+    assertThrows(DxBadRequestException.class, () -> SearchCursor.decode(encode("not json")));
+    assertThrows(DxBadRequestException.class,
+        () -> SearchCursor.decode(encode(new JsonObject().put("pit", "pit-1").encode())));
+    assertThrows(DxBadRequestException.class,
+        () -> SearchCursor.decode(encode(new JsonObject().put("pit", "pit-1")
+            .put("after", new JsonArray().add(new JsonObject().put("script", 1))).encode())));
+  }
+
+  private static String encode(String text) {
+    return Base64.getUrlEncoder().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+  }
+}
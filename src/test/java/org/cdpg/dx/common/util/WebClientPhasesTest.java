@@ -0,0 +1,97 @@
+package org.cdpg.dx.common.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+import io.vertx.ext.web.client.WebClient;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** The phases a listener sees for requests to a local server. */
+class WebClientPhasesTest {
+  private static Vertx vertx;
+  private static int port;
+
+  private final List<String> phases = new CopyOnWriteArrayList<>();
+  private WebClient client;
+
+  @BeforeAll
+  static void start() throws Exception {
+    vertx = Vertx.vertx();
+    HttpServer server = vertx.createHttpServer().requestHandler(request -> {
+      if (request.path().equals("/moved")) {
+        request.response().setStatusCode(302).putHeader("location", "/here").end();
+      } else {
+        request.response().end("here");
+      }
+    });
+    port = await(server.listen(0)).actualPort();
+  }
+
+  @AfterAll
+  static void stop() throws Exception {
+    await(vertx.close());
+  }
+
+  @BeforeEach
+  void listen() {
+    client = WebClient.create(vertx);
+    AtomicInteger requests = new AtomicInteger();
+    WebClientPhases.listen(client, new WebClientPhases.Listener<Integer>() {
+      @Override
+      public Integer created() {
+        int request = requests.incrementAndGet();
+        phases.add("created " + request);
+        return request;
+      }
+
+      @Override
+      public void sent(Integer request) {
+        phases.add("sent " + request);
+      }
+
+      @Override
+      public void done(Integer request) {
+        phases.add("done " + request);
+      }
+    });
+  }
+
+  @Test
+  void request() throws Exception {
+    await(client.get(port, "localhost", "/here").send());
+    assertEquals(List.of("created 1", "sent 1", "done 1"), phases);
+  }
+
+  @Test
+  void redirectIsANewRequest() throws Exception {
+    await(client.get(port, "localhost", "/moved").send());
+    assertEquals(List.of("created 1", "sent 1", "done 1", "created 2", "sent 2", "done 2"), phases);
+  }
+
+  @Test
+  void failedRequestIsDone() throws Exception {
+    // nothing listens on the port of a closed server
+    HttpServer closed = await(vertx.createHttpServer().requestHandler(r -> {}).listen(0));
+    int closedPort = closed.actualPort();
+    await(closed.close());
+    assertThrows(ExecutionException.class,
+        () -> await(client.get(closedPort, "localhost", "/here").send()));
+    assertEquals("created 1", phases.get(0));
+    assertEquals("done 1", phases.get(phases.size() - 1));
+  }
+
+  private static <T> T await(Future<T> future) throws Exception {
+    return future.toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+  }
+}
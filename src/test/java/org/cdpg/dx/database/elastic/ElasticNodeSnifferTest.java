@@ -0,0 +1,109 @@
+package org.cdpg.dx.database.elastic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.json.JsonObject;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.Node;
+import org.elasticsearch.client.RestClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Lookups against a stub cluster of one node, published under its address. */
+class ElasticNodeSnifferTest {
+  private static final long INTERVAL_MS = 60_000;
+  private static final long AFTER_FAILURE_MS = 300;
+
+  private Vertx vertx;
+  private int port;
+  private RestClient client;
+  private ElasticNodeSniffer sniffer;
+  private final List<Long> lookups = new CopyOnWriteArrayList<>();
+  private volatile int failuresLeft;
+
+  @BeforeEach
+  void start() throws Exception {
+    vertx = Vertx.vertx();
+    HttpServer server = vertx.createHttpServer().requestHandler(request -> {
+      lookups.add(System.nanoTime());
+      if (failuresLeft > 0) {
+        failuresLeft--;
+        request.response().setStatusCode(500).end();
+        return;
+      }
+      JsonObject node = new JsonObject()
+          .put("name", "node-1")
+          .put("http", new JsonObject().put("publish_address", "127.0.0.1:" + port));
+      request.response()
+          .putHeader("content-type", "application/json")
+          .end(new JsonObject().put("nodes", new JsonObject().put("id-1", node)).encode());
+    });
+    port = await(server.listen(0)).actualPort();
+    client = RestClient.builder(new HttpHost("localhost", port, "http")).build();
+    sniffer = new ElasticNodeSniffer(INTERVAL_MS, AFTER_FAILURE_MS);
+  }
+
+  @AfterEach
+  void stop() throws Exception {
+    sniffer.close();
+    client.close();
+    await(vertx.close());
+  }
+
+  @Test
+  void takesTheNodesTheClusterReports() throws Exception {
+    sniffer.start(client);
+    waitFor(() -> client.getNodes().get(0).getHost().getHostName().equals("127.0.0.1"));
+    assertEquals(1, client.getNodes().size());
+    assertEquals("node-1", client.getNodes().get(0).getName());
+  }
+
+  @Test
+  void nodeFailureBringsTheLookupForwardWithoutPuttingItOff() throws Exception {
+    sniffer.start(client);
+    waitFor(() -> client.getNodes().get(0).getHost().getHostName().equals("127.0.0.1"));
+    Node node = client.getNodes().get(0);
+
+    long failed = System.nanoTime();
+    for (int i = 0; i < 5; i++) {
+      sniffer.onFailure(node);
+      Thread.sleep(AFTER_FAILURE_MS / 5);
+    }
+    waitFor(() -> lookups.size() == 2);
+    long afterMs = TimeUnit.NANOSECONDS.toMillis(lookups.get(1) - failed);
+    assertTrue(afterMs >= AFTER_FAILURE_MS && afterMs < 2 * AFTER_FAILURE_MS,
+        "looked up after " + afterMs + " ms");
+  }
+
+  @Test
+  void failedLookupIsRetriedAfterTheFailureDelay() throws Exception {
+    failuresLeft = 1;
+    sniffer.start(client);
+    waitFor(() -> lookups.size() == 2);
+    long afterMs = TimeUnit.NANOSECONDS.toMillis(lookups.get(1) - lookups.get(0));
+    assertTrue(afterMs >= AFTER_FAILURE_MS && afterMs < INTERVAL_MS,
+        "retried after " + afterMs + " ms");
+    waitFor(() -> client.getNodes().get(0).getHost().getHostName().equals("127.0.0.1"));
+  }
+
+  private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (!condition.getAsBoolean()) {
+      assertTrue(System.nanoTime() < deadline, "timed out");
+      Thread.sleep(20);
+    }
+  }
+
+  private static <T> T await(Future<T> future) throws Exception {
+    return future.toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+  }
+}
@@ -0,0 +1,202 @@
+package org.cdpg.dx.database.elastic.service;
+
+import static org.cdpg.dx.database.elastic.util.Constants.SOURCE_ONLY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.apache.http.HttpHost;
+import org.cdpg.dx.common.exception.DxBadRequestException;
+import org.cdpg.dx.common.exception.DxNotFoundException;
+import org.cdpg.dx.common.util.SearchCursor;
+import org.cdpg.dx.database.elastic.ElasticClient;
+import org.cdpg.dx.database.elastic.model.ElasticsearchSearchResult;
+import org.cdpg.dx.database.elastic.model.QueryModel;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Cursor searches against a stub Elasticsearch holding three documents, sorted by "n". */
+class ElasticsearchServiceImplTest {
+  private static final String INDEX = "items";
+  private static final List<Integer> DOCS = List.of(1, 2, 3);
+
+  private static Vertx vertx;
+  private static HttpServer server;
+  private static ElasticClient client;
+  private static final List<String> closedPits = new CopyOnWriteArrayList<>();
+  private static ElasticsearchServiceImpl service;
+
+  @BeforeAll
+  static void start() throws Exception {
+    vertx = Vertx.vertx();
+    server = vertx.createHttpServer().requestHandler(ElasticsearchServiceImplTest::handle);
+    await(server.listen(0));
+    client = new ElasticClient(
+        List.of(new HttpHost("localhost", server.actualPort())), "user", "password",
+        new JsonObject());
+    service = new ElasticsearchServiceImpl(client);
+  }
+
+  @AfterAll
+  static void stop() throws Exception {
+    client.close();
+    await(vertx.close());
+  }
+
+  @BeforeEach
+  void reset() {
+    closedPits.clear();
+  }
+
+  @Test
+  void pagesThroughResultsWithTheCursor() throws Exception {
+    ElasticsearchSearchResult first = await(service.search(INDEX, firstPage(), SOURCE_ONLY));
+    assertEquals(2, first.getHits().size());
+    assertEquals("pit-1", first.getPitId());
+    assertEquals(new JsonArray().add(2), first.getSearchAfter());
+
+    // the client only ever sees the encoded cursor
+    String cursor = new SearchCursor(first.getPitId(), first.getSearchAfter()).encode();
+    ElasticsearchSearchResult second = await(service.search(INDEX, nextPage(cursor), SOURCE_ONLY));
+    assertEquals(1, second.getHits().size());
+    assertEquals(3, second.getHits().get(0).getSource().getInteger("n"));
+    assertNull(second.getSearchAfter());
+    // a short page ends the cursor, and its point in time is released
+    assertEventually(() -> closedPits.contains("pit-1"));
+  }
+
+  @Test
+  void expiredPointInTimeIsAnInvalidCursor() throws Exception {
+    String cursor = new SearchCursor("expired", new JsonArray().add(2)).encode();
+    Throwable failure = failure(service.search(INDEX, nextPage(cursor), SOURCE_ONLY));
+    assertInstanceOf(DxBadRequestException.class, failure);
+    assertEquals("Invalid or expired cursor", failure.getMessage());
+    Thread.sleep(200);
+    assertTrue(closedPits.isEmpty());
+  }
+
+  @Test
+  void otherErrorsOnACursorKeepTheirStatus() throws Exception {
+    String badQuery = new SearchCursor("bad-query", new JsonArray().add(2)).encode();
+    Throwable failure = failure(service.search(INDEX, nextPage(badQuery), SOURCE_ONLY));
+    assertInstanceOf(DxBadRequestException.class, failure);
+    assertTrue(failure.getMessage().contains("parsing_exception"), failure.getMessage());
+    // the point in time is still alive, so it is released
+    assertEventually(() -> closedPits.contains("bad-query"));
+
+    String noIndex = new SearchCursor("no-index", new JsonArray().add(2)).encode();
+    assertInstanceOf(
+        DxNotFoundException.class, failure(service.search(INDEX, nextPage(noIndex), SOURCE_ONLY)));
+  }
+
+  private static QueryModel firstPage() {
+    QueryModel model = new QueryModel();
+    model.setLimit("2");
+    model.setSortFields(Map.of("n", "asc"));
+    model.setPitKeepAlive("1m");
+    return model;
+  }
+
+  private static QueryModel nextPage(String encoded) {
+    SearchCursor cursor = SearchCursor.decode(encoded);
+    QueryModel model = firstPage();
+    model.setPitId(cursor.getPitId());
+    model.setSearchAfter(cursor.getSearchAfter());
+    return model;
+  }
+
+  private static void handle(HttpServerRequest request) {
+    request.response().putHeader("X-Elastic-Product", "Elasticsearch")
+        .putHeader("Content-Type", "application/json");
+    request.body().onSuccess(body -> {
+      String path = request.path();
+      if (path.equals("/" + INDEX + "/_pit")) {
+        reply(request, 200, new JsonObject().put("id", "pit-1").put("_shards", shards()));
+      } else if (path.equals("/_pit")) {
+        closedPits.add(body.toJsonObject().getString("id"));
+        reply(request, 200, new JsonObject().put("succeeded", true).put("num_freed", 1));
+      } else if (path.equals("/_search")) {
+        search(request, body.toJsonObject());
+      } else {
+        reply(request, 400, new JsonObject());
+      }
+    });
+  }
+
+  private static void search(HttpServerRequest request, JsonObject body) {
+    String pitId = body.getJsonObject("pit").getString("id");
+    switch (pitId) {
+      case "expired" -> reply(request, 404, error("search_phase_execution_exception",
+          "search_context_missing_exception", 404));
+      case "bad-query" -> reply(request, 400, error("parsing_exception", "parsing_exception", 400));
+      case "no-index" -> reply(request, 404,
+          error("index_not_found_exception", "index_not_found_exception", 404));
+      default -> {
+        JsonArray after = body.getJsonArray("search_after");
+        int from = after == null ? 0 : after.getInteger(0);
+        JsonArray hits = new JsonArray();
+        DOCS.stream().filter(n -> n > from).limit(body.getInteger("size")).forEach(n ->
+            hits.add(new JsonObject().put("_index", INDEX).put("_id", "doc-" + n)
+                .put("_source", new JsonObject().put("n", n)).put("sort", new JsonArray().add(n))));
+        reply(request, 200, new JsonObject()
+            .put("took", 1).put("timed_out", false).put("_shards", shards()).put("pit_id", pitId)
+            .put("hits", new JsonObject()
+                .put("total", new JsonObject().put("value", DOCS.size()).put("relation", "eq"))
+                .put("hits", hits)));
+      }
+    }
+  }
+
+  private static JsonObject error(String type, String rootCause, int status) {
+    JsonObject cause = new JsonObject().put("type", rootCause).put("reason", rootCause);
+    return new JsonObject()
+        .put("error", new JsonObject().put("root_cause", new JsonArray().add(cause))
+            .put("type", type).put("reason", type))
+        .put("status", status);
+  }
+
+  private static JsonObject shards() {
+    return new JsonObject().put("total", 1).put("successful", 1).put("skipped", 0)
+        .put("failed", 0);
+  }
+
+  private static void reply(HttpServerRequest request, int status, JsonObject body) {
+    request.response().setStatusCode(status).end(body.encode());
+  }
+
+  private static <T> T await(Future<T> future) throws Exception {
+    return future.toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+  }
+
+  private static Throwable failure(Future<?> future) throws Exception {
+    try {
+      await(future);
+    } catch (ExecutionException e) {
+      return e.getCause();
+    }
+    throw new AssertionError("Search succeeded");
+  }
+
+  private static void assertEventually(BooleanSupplier condition)
+      throws InterruptedException {
+    for (int i = 0; i < 50 && !condition.getAsBoolean(); i++) {
+      Thread.sleep(20);
+    }
+    assertTrue(condition.getAsBoolean());
+  }
+}
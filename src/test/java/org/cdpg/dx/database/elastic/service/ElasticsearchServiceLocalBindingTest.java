@@ -0,0 +1,63 @@
+package org.cdpg.dx.database.elastic.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.cdpg.dx.database.elastic.model.ElasticsearchResponse;
+import org.cdpg.dx.database.elastic.model.ElasticsearchSearchResult;
+import org.cdpg.dx.database.elastic.model.QueryModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ElasticsearchServiceLocalBindingTest {
+  private static final String ADDRESS = "test.elastic.local";
+
+  private final ElasticsearchSearchResult produced = new ElasticsearchSearchResult();
+  private Vertx vertx;
+  private ElasticsearchService local;
+
+  @BeforeEach
+  void start() {
+    vertx = Vertx.vertx();
+    produced.setHits(
+        List.of(new ElasticsearchResponse("doc", new JsonObject().put("name", "original"))));
+    // a service whose searches all return the same instance
+    local = (ElasticsearchService) Proxy.newProxyInstance(
+        getClass().getClassLoader(), new Class<?>[] {ElasticsearchService.class},
+        (proxy, method, args) -> switch (method.getName()) {
+          case "search" -> Future.succeededFuture(produced);
+          case "equals" -> proxy == args[0];
+          case "hashCode" -> System.identityHashCode(proxy);
+          default -> Future.failedFuture(method.getName());
+        });
+    ElasticsearchServiceLocalBinding.register(ADDRESS, local);
+  }
+
+  @AfterEach
+  void stop() throws Exception {
+    ElasticsearchServiceLocalBinding.unregister(ADDRESS, local);
+    vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+  }
+
+  @Test
+  void callersGetTheirOwnCopy() throws Exception {
+    ElasticsearchService binding = new ElasticsearchServiceLocalBinding(vertx, ADDRESS);
+
+    ElasticsearchSearchResult first = search(binding);
+    first.getHits().get(0).getSource().put("name", "changed");
+
+    assertEquals("original", produced.getHits().get(0).getSource().getString("name"));
+    assertEquals("original", search(binding).getHits().get(0).getSource().getString("name"));
+  }
+
+  private static ElasticsearchSearchResult search(ElasticsearchService binding) throws Exception {
+    return binding.search("items", new QueryModel(), "SOURCE_ONLY")
+        .toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+  }
+}
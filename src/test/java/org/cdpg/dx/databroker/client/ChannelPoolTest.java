@@ -0,0 +1,218 @@
+package org.cdpg.dx.databroker.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.rabbitmq.RabbitMQClient;
+import io.vertx.rabbitmq.RabbitMQConfirmation;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.cdpg.dx.common.exception.DxRabbitMqException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Publishes over fake channels whose confirms the test sends. */
+class ChannelPoolTest {
+  private static final long CONFIRM_TIMEOUT_MS = 300;
+
+  private Vertx vertx;
+
+  @BeforeEach
+  void start() {
+    vertx = Vertx.vertx();
+  }
+
+  @AfterEach
+  void stop() throws Exception {
+    await(vertx.close());
+  }
+
+  @Test
+  void completesEachPublishOnItsOwnConfirm() throws Exception {
+    FakeChannel channel = new FakeChannel();
+    ChannelPool pool = pool(channel);
+    Future<Void> first = pool.publish("exchange", "key", Buffer.buffer("1"));
+    Future<Void> second = pool.publish("exchange", "key", Buffer.buffer("2"));
+    Future<Void> third = pool.publish("exchange", "key", Buffer.buffer("3"));
+
+    channel.confirm(2, false, true);
+    assertTrue(second.succeeded());
+    assertFalse(first.isComplete());
+    assertFalse(third.isComplete());
+
+    channel.confirm(3, false, false);
+    assertTrue(third.failed());
+    assertEquals("Message rejected by the broker", third.cause().getMessage());
+
+    channel.confirm(1, false, true);
+    assertTrue(first.succeeded());
+  }
+
+  @Test
+  void multipleConfirmCoversEarlierTags() throws Exception {
+    FakeChannel channel = new FakeChannel();
+    ChannelPool pool = pool(channel);
+    Future<Void> first = pool.publish("exchange", "key", Buffer.buffer("1"));
+    Future<Void> second = pool.publish("exchange", "key", Buffer.buffer("2"));
+    Future<Void> third = pool.publish("exchange", "key", Buffer.buffer("3"));
+
+    channel.confirm(2, true, true);
+    assertTrue(first.succeeded());
+    assertTrue(second.succeeded());
+    assertFalse(third.isComplete());
+  }
+
+  @Test
+  void failsAPublishNotConfirmedInTime() throws Exception {
+    FakeChannel channel = new FakeChannel();
+    ChannelPool pool = pool(channel);
+    long start = System.nanoTime();
+    Future<Void> publish = pool.publish("exchange", "key", Buffer.buffer("1"));
+
+    ExecutionException failure = assertFailed(publish);
+    assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= CONFIRM_TIMEOUT_MS);
+    assertEquals("No confirm from the broker in " + CONFIRM_TIMEOUT_MS + " ms",
+        failure.getCause().getMessage());
+    // a late confirm finds nothing to complete
+    channel.confirm(1, false, true);
+  }
+
+  @Test
+  void replacesAClosedChannel() throws Exception {
+    FakeChannel closing = new FakeChannel();
+    FakeChannel other = new FakeChannel();
+    ChannelPool pool = pool(closing, other);
+    Future<Void> pending = pool.publish("exchange", "key", Buffer.buffer("1"));
+    assertEquals(1, closing.published.size());
+
+    closing.connected = false;
+    Future<Void> moved = pool.publish("exchange", "key", Buffer.buffer("2"));
+    Future<Void> alsoMoved = pool.publish("exchange", "key", Buffer.buffer("3"));
+    assertEquals(1, closing.published.size());
+    assertEquals(2, other.published.size());
+    other.confirm(2, true, true);
+    assertTrue(moved.succeeded());
+    assertTrue(alsoMoved.succeeded());
+
+    // the client reconnects on a new channel, whose delivery tags start over
+    closing.reconnect();
+    assertTrue(pending.failed());
+    assertEquals("Channel closed before the broker confirmed the message",
+        pending.cause().getMessage());
+    Future<Void> onNewChannel = pool.publish("exchange", "key", Buffer.buffer("4"));
+    closing.confirm(1, false, true);
+    assertTrue(onNewChannel.succeeded());
+  }
+
+  @Test
+  void clientCompletesOnceAllMessagesAreConfirmed() throws Exception {
+    FakeChannel channel = new FakeChannel();
+    RabbitClient client = new RabbitClient(pool(channel), pool(new FakeChannel()));
+    Future<Void> all = client.publishBuffersInternal(
+        List.of(Buffer.buffer("1"), Buffer.buffer("2")), "exchange", "key");
+    channel.confirm(1, false, true);
+    assertFalse(all.isComplete());
+    channel.confirm(2, false, true);
+    assertTrue(all.succeeded());
+
+    Future<Void> rejected = client.publishBuffersInternal(
+        List.of(Buffer.buffer("3"), Buffer.buffer("4")), "exchange", "key");
+    channel.confirm(3, false, true);
+    channel.confirm(4, false, false);
+    assertInstanceOf(DxRabbitMqException.class, assertFailed(rejected).getCause());
+  }
+
+  private ChannelPool pool(FakeChannel... channels) {
+    List<RabbitMQClient> clients = List.of(channels).stream().map(FakeChannel::client).toList();
+    ChannelPool pool = new ChannelPool(vertx, "vhost", clients, CONFIRM_TIMEOUT_MS);
+    for (FakeChannel channel : channels) {
+      channel.reconnect();
+    }
+    return pool;
+  }
+
+  private static ExecutionException assertFailed(Future<?> future) {
+    try {
+      await(future);
+    } catch (ExecutionException e) {
+      return e;
+    } catch (Exception e) {
+      throw new AssertionError(e);
+    }
+    throw new AssertionError("expected a failure");
+  }
+
+  private static <T> T await(Future<T> future) throws Exception {
+    return future.toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+  }
+
+  /** One channel: hands out delivery tags, and passes on the confirms the test sends. */
+  private static final class FakeChannel {
+    private final List<Buffer> published = new CopyOnWriteArrayList<>();
+    private volatile boolean connected = true;
+    private long nextTag;
+    private Handler<Promise<Void>> onEstablished;
+    private Handler<RabbitMQConfirmation> confirms;
+
+    void reconnect() {
+      nextTag = 1;
+      connected = true;
+      onEstablished.handle(Promise.promise());
+    }
+
+    void confirm(long deliveryTag, boolean multiple, boolean acked) {
+      confirms.handle(new RabbitMQConfirmation(1, deliveryTag, multiple, acked));
+    }
+
+    @SuppressWarnings("unchecked")
+    RabbitMQClient client() {
+      return (RabbitMQClient) Proxy.newProxyInstance(getClass().getClassLoader(),
+          new Class<?>[] {RabbitMQClient.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+              case "isConnected":
+                return connected;
+              case "addConnectionEstablishedCallback":
+                onEstablished = (Handler<Promise<Void>>) args[0];
+                return null;
+              case "confirmSelect":
+                return Future.succeededFuture();
+              case "addConfirmListener":
+                return Future.succeededFuture(confirmStream());
+              case "basicPublishWithDeliveryTag":
+                published.add((Buffer) args[3]);
+                ((Handler<Long>) args[4]).handle(nextTag++);
+                return Future.succeededFuture();
+              case "equals":
+                return proxy == args[0];
+              case "hashCode":
+                return System.identityHashCode(proxy);
+              default:
+                throw new UnsupportedOperationException(method.getName());
+            }
+          });
+    }
+
+    @SuppressWarnings("unchecked")
+    private ReadStream<RabbitMQConfirmation> confirmStream() {
+      return (ReadStream<RabbitMQConfirmation>) Proxy.newProxyInstance(
+          getClass().getClassLoader(), new Class<?>[] {ReadStream.class}, (proxy, method, args) -> {
+            if (method.getName().equals("handler")) {
+              confirms = (Handler<RabbitMQConfirmation>) args[0];
+            }
+            return proxy;
+          });
+    }
+  }
+}
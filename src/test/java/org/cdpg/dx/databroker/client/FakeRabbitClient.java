@@ -0,0 +1,22 @@
+package org.cdpg.dx.databroker.client;
+
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import java.util.List;
+import java.util.function.Function;
+
+/** A client without channels, answering internal publishes as the test decides. */
+public class FakeRabbitClient extends RabbitClient {
+  private final Function<List<Buffer>, Future<Void>> publish;
+
+  public FakeRabbitClient(Function<List<Buffer>, Future<Void>> publish) {
+    super(null, null);
+    this.publish = publish;
+  }
+
+  @Override
+  public Future<Void> publishBuffersInternal(
+      List<Buffer> messages, String exchangeName, String routingKey) {
+    return publish.apply(messages);
+  }
+}
@@ -0,0 +1,154 @@
+package org.cdpg.dx.databroker.spool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.buffer.Buffer;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AuditSpoolTest {
+  /* Room for two of the messages below, each 8 bytes of header and 20 of message. */
+  private static final int SEGMENT_BYTES = 64;
+  private static final long MAX_BYTES = 1024;
+
+  @TempDir
+  Path dir;
+
+  @Test
+  void rollsOverToNewSegments() throws Exception {
+    try (AuditSpool spool = AuditSpool.open(dir, SEGMENT_BYTES, MAX_BYTES)) {
+      spool.append(messages("a", "b", "c", "d", "e"));
+      assertEquals(3, spool.segmentCount());
+      assertEquals(3, segmentFiles());
+
+      AuditSpool.Batch batch = spool.read(10);
+      assertEquals(List.of("a", "b", "c", "d", "e"), texts(batch));
+      spool.commit(batch.end());
+      // the segments read to the end are deleted, the one written to stays
+      assertEquals(1, spool.segmentCount());
+      assertEquals(1, segmentFiles());
+      assertEquals(0, spool.pendingBytes());
+    }
+  }
+
+  @Test
+  void givesAMessageLargerThanASegmentASegmentOfItsOwn() throws Exception {
+    try (AuditSpool spool = AuditSpool.open(dir, SEGMENT_BYTES, MAX_BYTES)) {
+      Buffer large = Buffer.buffer("x".repeat(3 * SEGMENT_BYTES));
+      spool.append(List.of(message("a"), large, message("b")));
+      AuditSpool.Batch batch = spool.read(10);
+      assertEquals(3, batch.messages().size());
+      assertEquals(large, batch.messages().get(1));
+    }
+  }
+
+  @Test
+  void failsAppendsOnceFull() throws Exception {
+    try (AuditSpool spool = AuditSpool.open(dir, SEGMENT_BYTES, 60)) {
+      spool.append(messages("a", "b"));
+      assertThrows(IllegalStateException.class, () -> spool.append(messages("c")));
+      // all or none
+      assertEquals(List.of("a", "b"), texts(spool.read(10)));
+    }
+  }
+
+  @Test
+  void resumesFromTheCheckpointAfterARestart() throws Exception {
+    try (AuditSpool spool = AuditSpool.open(dir, SEGMENT_BYTES, MAX_BYTES)) {
+      spool.append(messages("a", "b", "c"));
+      spool.commit(spool.read(2).end());
+    }
+    try (AuditSpool spool = AuditSpool.open(dir, SEGMENT_BYTES, MAX_BYTES)) {
+      assertEquals(List.of("c"), texts(spool.read(10)));
+      spool.append(messages("d"));
+      assertEquals(List.of("c", "d"), texts(spool.read(10)));
+    }
+  }
+
+  @Test
+  void publishesAgainWhatWasNotCommittedBeforeARestart() throws Exception {
+    try (AuditSpool spool = AuditSpool.open(dir, SEGMENT_BYTES, MAX_BYTES)) {
+      spool.append(messages("a", "b"));
+      spool.read(10);
+    }
+    try (AuditSpool spool = AuditSpool.open(dir, SEGMENT_BYTES, MAX_BYTES)) {
+      assertEquals(List.of("a", "b"), texts(spool.read(10)));
+    }
+  }
+
+  @Test
+  void tornRecordEndsTheSegmentOnRecovery() throws Exception {
+    try (AuditSpool spool = AuditSpool.open(dir, SEGMENT_BYTES, MAX_BYTES)) {
+      spool.append(messages("a", "b"));
+    }
+    // the second record's message only partly reached the disk
+    Path segment = onlySegment();
+    try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[] {0, 0, 0, 0}), 28 + 8 + 10);
+    }
+
+    try (AuditSpool spool = AuditSpool.open(dir, SEGMENT_BYTES, MAX_BYTES)) {
+      assertEquals(List.of("a"), texts(spool.read(10)));
+      // appends go where the torn record was
+      spool.append(messages("c"));
+      assertEquals(List.of("a", "c"), texts(spool.read(10)));
+    }
+  }
+
+  @Test
+  void readSkipsTheRestOfADamagedSegment() throws Exception {
+    try (AuditSpool spool = AuditSpool.open(dir, SEGMENT_BYTES, MAX_BYTES)) {
+      spool.append(messages("a", "b", "c"));
+      Path first = segmentPaths().get(0);
+      try (FileChannel channel = FileChannel.open(first, StandardOpenOption.WRITE)) {
+        channel.write(ByteBuffer.wrap(new byte[] {'!'}), 8);
+      }
+      // both records of the first segment are lost with it, the next segment is read on
+      assertEquals(List.of("c"), texts(spool.read(10)));
+    }
+  }
+
+  /* Messages of 20 bytes, the text padded with spaces. */
+  private static List<Buffer> messages(String... texts) {
+    return Stream.of(texts).map(AuditSpoolTest::message).toList();
+  }
+
+  private static Buffer message(String text) {
+    return Buffer.buffer(String.format("%-20s", text));
+  }
+
+  private static List<String> texts(AuditSpool.Batch batch) {
+    return batch.messages().stream().map(message -> message.toString().strip()).toList();
+  }
+
+  private long segmentFiles() throws IOException {
+    return segmentPaths().size();
+  }
+
+  private Path onlySegment() throws IOException {
+    List<Path> segments = segmentPaths();
+    assertEquals(1, segments.size());
+    return segments.get(0);
+  }
+
+  private List<Path> segmentPaths() throws IOException {
+    try (Stream<Path> files = Files.list(dir)) {
+      List<Path> segments = files
+          .filter(file -> file.getFileName().toString().endsWith(".segment"))
+          .sorted()
+          .toList();
+      assertTrue(segments.size() > 0);
+      return segments;
+    }
+  }
+}
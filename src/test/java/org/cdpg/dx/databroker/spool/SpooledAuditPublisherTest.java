@@ -0,0 +1,102 @@
+package org.cdpg.dx.databroker.spool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.cdpg.dx.databroker.client.FakeRabbitClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SpooledAuditPublisherTest {
+  /* Long enough for the periodic drain to stay out of the way. */
+  private static final long SYNC_MS = 60_000;
+
+  @TempDir
+  Path dir;
+
+  private Vertx vertx;
+  private AuditSpool spool;
+  private SpooledAuditPublisher publisher;
+  private final List<Long> attempts = new CopyOnWriteArrayList<>();
+  private final List<String> published = new CopyOnWriteArrayList<>();
+  private volatile int failuresLeft;
+
+  @BeforeEach
+  void start() {
+    vertx = Vertx.vertx();
+    spool = AuditSpool.open(dir, 4096, 1 << 20);
+    FakeRabbitClient broker = new FakeRabbitClient(messages -> {
+      attempts.add(System.nanoTime());
+      if (failuresLeft > 0) {
+        failuresLeft--;
+        return Future.failedFuture("broker unavailable");
+      }
+      messages.forEach(message -> published.add(message.toString()));
+      return Future.succeededFuture();
+    });
+    publisher = new SpooledAuditPublisher(vertx, spool, broker, 100, SYNC_MS);
+  }
+
+  @AfterEach
+  void stop() throws Exception {
+    publisher.close();
+    vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+  }
+
+  @Test
+  void publishesAndCheckpoints() throws Exception {
+    publisher.publish(List.of(Buffer.buffer("a"), Buffer.buffer("b")));
+    waitFor(() -> spool.pendingBytes() == 0);
+    assertEquals(List.of("a", "b"), published);
+  }
+
+  @Test
+  void retriesAFailedBatchWithAGrowingDelay() throws Exception {
+    failuresLeft = 3;
+    publisher.publish(List.of(Buffer.buffer("a")));
+    waitFor(() -> published.size() == 1);
+    assertEquals(4, attempts.size());
+    // 500, 1000 and 2000 ms between the attempts
+    assertTrue(gapMs(0) >= 500 && gapMs(0) < 1000, "first retry after " + gapMs(0));
+    assertTrue(gapMs(1) >= 1000 && gapMs(1) < 2000, "second retry after " + gapMs(1));
+    assertTrue(gapMs(2) >= 2000 && gapMs(2) < 4000, "third retry after " + gapMs(2));
+    waitFor(() -> spool.pendingBytes() == 0);
+
+    // a success starts the delay over
+    failuresLeft = 1;
+    publisher.publish(List.of(Buffer.buffer("b")));
+    waitFor(() -> published.size() == 2);
+    assertTrue(gapMs(4) >= 500 && gapMs(4) < 1000, "retry after " + gapMs(4));
+  }
+
+  @Test
+  void keepsMessagesUntilTheBrokerConfirms() throws Exception {
+    failuresLeft = Integer.MAX_VALUE;
+    publisher.publish(List.of(Buffer.buffer("a")));
+    waitFor(() -> attempts.size() == 2);
+    assertTrue(spool.pendingBytes() > 0);
+    assertEquals(List.of(), published);
+  }
+
+  private long gapMs(int attempt) {
+    return TimeUnit.NANOSECONDS.toMillis(attempts.get(attempt + 1) - attempts.get(attempt));
+  }
+
+  private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (!condition.getAsBoolean()) {
+      assertTrue(System.nanoTime() < deadline, "timed out");
+      Thread.sleep(20);
+    }
+  }
+}
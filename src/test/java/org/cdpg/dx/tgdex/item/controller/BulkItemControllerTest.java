@@ -0,0 +1,196 @@
+package org.cdpg.dx.tgdex.item.controller;
+
+import static org.cdpg.dx.tgdex.util.Constants.DETAIL;
+import static org.cdpg.dx.tgdex.util.Constants.FAILED;
+import static org.cdpg.dx.tgdex.util.Constants.ID;
+import static org.cdpg.dx.tgdex.util.Constants.ITEM_TYPE_AI_MODEL;
+import static org.cdpg.dx.tgdex.util.Constants.ITEM_TYPE_APPS;
+import static org.cdpg.dx.tgdex.util.Constants.ORG_NAME;
+import static org.cdpg.dx.tgdex.util.Constants.STATUS;
+import static org.cdpg.dx.tgdex.util.Constants.SUB;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.User;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.handler.BodyHandler;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.cdpg.dx.database.elastic.model.ElasticsearchResponse;
+import org.cdpg.dx.tgdex.item.model.Item;
+import org.cdpg.dx.tgdex.item.service.ItemService;
+import org.cdpg.dx.tgdex.item.util.ItemLookup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/** Bulk requests from a provider, written by a fake item service. */
+class BulkItemControllerTest {
+  private static final String CONFLICTING_ID = "0b6d5c8a-4a4e-4c5e-9f7a-1b2c3d4e5f60";
+
+  private final List<Integer> writtenBatches = new CopyOnWriteArrayList<>();
+  private Vertx vertx;
+  private WebClient client;
+  private int port;
+
+  private void start(JsonObject config) throws Exception {
+    vertx = Vertx.vertx();
+    BulkItemController controller =
+        new BulkItemController(vertx, config, null, fakeItemService(), "https://voc/context");
+    Router router = Router.router(vertx);
+    router.post("/items/bulk")
+        .handler(BodyHandler.create())
+        .handler(ctx -> {
+          ctx.setUser(User.create(new JsonObject()
+              .put(SUB, "provider-user")
+              .put(ORG_NAME, "org")
+              .put("realm_access", new JsonObject().put("roles", new JsonArray().add("provider")))));
+          ctx.next();
+        })
+        .handler(controller::handleBulkCreateOrUpdate);
+    HttpServer server = await(vertx.createHttpServer().requestHandler(router).listen(0));
+    port = server.actualPort();
+    client = WebClient.create(vertx);
+  }
+
+  @AfterEach
+  void stop() throws Exception {
+    await(vertx.close());
+  }
+
+  @Test
+  void reportsEachLineWhenSomeFail() throws Exception {
+    start(new JsonObject());
+    String good = aiModel("first", null).encode();
+    String conflicting = aiModel("second", CONFLICTING_ID).encode();
+    List<JsonObject> results = post(good + "\n{not json\n\n" + conflicting + "\n");
+
+    assertEquals(3, results.size());
+    assertEquals(1, results.get(0).getInteger("line"));
+    assertEquals("success", results.get(0).getString(STATUS));
+    assertEquals(2, results.get(1).getInteger("line"));
+    assertEquals(FAILED, results.get(1).getString(STATUS));
+    assertTrue(results.get(1).getString(DETAIL).startsWith("Invalid JSON"));
+    // the blank line keeps its number
+    assertEquals(4, results.get(2).getInteger("line"));
+    assertEquals(FAILED, results.get(2).getString(STATUS));
+    assertEquals(CONFLICTING_ID, results.get(2).getString(ID));
+  }
+
+  @Test
+  void checksTheRoleOfEachLine() throws Exception {
+    start(new JsonObject());
+    JsonObject apps = aiModel("an app", null)
+        .put("type", new JsonArray().add(ITEM_TYPE_APPS));
+    List<JsonObject> results = post(apps.encode() + "\n" + aiModel("a model", null).encode());
+
+    assertEquals(FAILED, results.get(0).getString(STATUS));
+    assertEquals("User does not have sufficient role for item type: " + ITEM_TYPE_APPS,
+        results.get(0).getString(DETAIL));
+    assertEquals("success", results.get(1).getString(STATUS));
+  }
+
+  @Test
+  void rejectsAnIdRepeatedInTheRequest() throws Exception {
+    // one item a batch, so the repeat is only caught across batches
+    start(new JsonObject().put("bulkBatchSize", 1));
+    String id = UUID.randomUUID().toString();
+    List<JsonObject> results = post(
+        aiModel("first", id).encode() + "\n" + aiModel("second", id).encode());
+
+    assertEquals("success", results.get(0).getString(STATUS));
+    assertEquals(FAILED, results.get(1).getString(STATUS));
+    assertEquals("Item with the same id appears more than once in the request",
+        results.get(1).getString(DETAIL));
+  }
+
+  @Test
+  void sizesBatchesInBytes() throws Exception {
+    // three bytes a character in UTF-8
+    String description = "विवरण".repeat(100);
+    String first = aiModel("first", null).put("description", description).encode();
+    String second = aiModel("second", null).put("description", description).encode();
+    // both lines fit by their characters, but not by their bytes
+    start(new JsonObject().put("bulkBatchBytes", first.length() + second.length()));
+    List<JsonObject> results = post(first + "\n" + second);
+
+    assertEquals(2, results.size());
+    assertEquals(List.of(1, 1), writtenBatches);
+  }
+
+  private List<JsonObject> post(String body) throws Exception {
+    HttpResponse<Buffer> response = await(client.post(port, "localhost", "/items/bulk")
+        .sendBuffer(Buffer.buffer(body)));
+    assertEquals(200, response.statusCode());
+    List<JsonObject> results = new ArrayList<>();
+    for (String line : response.bodyAsString().split("\n")) {
+      results.add(new JsonObject(line));
+    }
+    return results;
+  }
+
+  private static JsonObject aiModel(String name, String id) {
+    JsonObject item = new JsonObject()
+        .put("name", name)
+        .put("type", new JsonArray().add(ITEM_TYPE_AI_MODEL))
+        .put("label", "label")
+        .put("shortDescription", "short")
+        .put("description", "description")
+        .put("tags", new JsonArray().add("tag"))
+        .put("accessPolicy", "OPEN")
+        .put("organizationType", "Private")
+        .put("organizationId", "8b95ab80-2aaf-4636-a65e-7f2563d0d351")
+        .put("modelType", "classifier")
+        .put("fileFormat", "pkl")
+        .put("industry", "agriculture")
+        .put("license", "MIT")
+        .put("fileSize", "1 MB");
+    return id == null ? item : item.put(ID, id);
+  }
+
+  /* Finds nothing in the index and writes every item, except the one with the conflicting id. */
+  @SuppressWarnings("unchecked")
+  private ItemService fakeItemService() {
+    return (ItemService) Proxy.newProxyInstance(getClass().getClassLoader(),
+        new Class<?>[] {ItemService.class}, (proxy, method, args) -> switch (method.getName()) {
+          case "lookupItems" -> {
+            List<ItemLookup> lookups = new ArrayList<>();
+            for (Object ignored : (List<?>) args[0]) {
+              lookups.add(new ItemLookup(new ElasticsearchResponse(), new ElasticsearchResponse()));
+            }
+            yield Future.succeededFuture(lookups);
+          }
+          case "createItems" -> {
+            List<Item> items = (List<Item>) args[0];
+            writtenBatches.add(items.size());
+            JsonArray written = new JsonArray();
+            for (Item item : items) {
+              boolean conflict = CONFLICTING_ID.equals(item.getId());
+              written.add(new JsonObject()
+                  .put(ID, item.getId())
+                  .put(STATUS, conflict ? FAILED : "success")
+                  .put(DETAIL, conflict ? "Item with ID already exists" : ""));
+            }
+            yield Future.succeededFuture(written);
+          }
+          case "equals" -> proxy == args[0];
+          case "hashCode" -> System.identityHashCode(proxy);
+          default -> throw new UnsupportedOperationException(method.getName());
+        });
+  }
+
+  private static <T> T await(Future<T> future) throws Exception {
+    return future.toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+  }
+}
@@ -0,0 +1,120 @@
+package org.cdpg.dx.tgdex.list.service;
+
+import static org.cdpg.dx.tgdex.util.Constants.ITEM_WRITE_EVENTS_ADDRESS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.cdpg.dx.database.elastic.model.ElasticsearchResponse;
+import org.cdpg.dx.database.elastic.model.ElasticsearchSearchResult;
+import org.cdpg.dx.database.elastic.model.QueryDecoderRequestDTO;
+import org.cdpg.dx.tgdex.search.util.ResponseModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CachingListServiceTest {
+  private static final long REFRESH_DELAY_MS = 200;
+
+  private Vertx vertx;
+  private FakeList delegate;
+  private CachingListService service;
+
+  @BeforeEach
+  void start() {
+    vertx = Vertx.vertx();
+    delegate = new FakeList();
+    service = new CachingListService(vertx, delegate, 100, 10, 10, REFRESH_DELAY_MS);
+  }
+
+  @AfterEach
+  void stop() throws Exception {
+    await(vertx.close());
+  }
+
+  @Test
+  void cachesFacetLists() throws Exception {
+    await(service.getAvailableFilters(request("tags")));
+    ResponseModel second = await(service.getAvailableFilters(request("tags")));
+    assertEquals(1, delegate.calls.get());
+    assertEquals("read 1", name(second));
+  }
+
+  @Test
+  void readDuringAWriteIsNotCached() throws Exception {
+    Promise<ResponseModel> running = Promise.promise();
+    delegate.next = running::future;
+    Future<ResponseModel> read = service.getAvailableFilters(request("tags"));
+    write();
+    running.complete(facets("before the write"));
+    await(read);
+
+    delegate.next = null;
+    ResponseModel next = await(service.getAvailableFilters(request("tags")));
+    assertEquals(2, delegate.calls.get());
+    assertEquals("read 2", name(next));
+  }
+
+  @Test
+  void burstOfWritesRefreshesOnce() throws Exception {
+    await(service.getAvailableFilters(request("tags")));
+    await(service.getAvailableFilters(request("instance")));
+    for (int i = 0; i < 10; i++) {
+      write();
+    }
+    assertEquals(2, delegate.calls.get());
+
+    Thread.sleep(REFRESH_DELAY_MS + 200);
+    // each cached entry recomputed once, and served from the cache again afterwards
+    assertEquals(4, delegate.calls.get());
+    ResponseModel refreshed = await(service.getAvailableFilters(request("tags")));
+    assertEquals(4, delegate.calls.get());
+    // entries are refreshed in no particular order
+    assertTrue(Set.of("read 3", "read 4").contains(name(refreshed)), name(refreshed));
+  }
+
+  private void write() throws InterruptedException {
+    vertx.eventBus().publish(ITEM_WRITE_EVENTS_ADDRESS, new JsonObject().put("id", "item"));
+    Thread.sleep(10);
+  }
+
+  private static QueryDecoderRequestDTO request(String filter) {
+    return new QueryDecoderRequestDTO("list", 10, 1, null, List.of(filter), null, null, null,
+        null, null, null);
+  }
+
+  private static ResponseModel facets(String name) {
+    ElasticsearchSearchResult result = new ElasticsearchSearchResult();
+    result.setHits(List.of(new ElasticsearchResponse("doc", new JsonObject().put("name", name))));
+    result.setTotalHits(1);
+    return new ResponseModel(result, 10, 1);
+  }
+
+  private static String name(ResponseModel response) {
+    return response.getElasticsearchResponses().get(0).getString("name");
+  }
+
+  private static <T> T await(Future<T> future) throws Exception {
+    return future.toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+  }
+
+  /* Answers each read with its number, unless a test hands it something else to answer. */
+  private static final class FakeList implements ListService {
+    private final AtomicInteger calls = new AtomicInteger();
+    private volatile Supplier<Future<ResponseModel>> next;
+
+    @Override
+    public Future<ResponseModel> getAvailableFilters(QueryDecoderRequestDTO request) {
+      int call = calls.incrementAndGet();
+      return next != null ? next.get() : Future.succeededFuture(facets("read " + call));
+    }
+  }
+}
@@ -0,0 +1,173 @@
+package org.cdpg.dx.tgdex.search.service;
+
+import static org.cdpg.dx.tgdex.util.Constants.ITEM_WRITE_EVENTS_ADDRESS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.cdpg.dx.common.util.SearchCursor;
+import org.cdpg.dx.database.elastic.model.AccessPolicyRequestDTO;
+import org.cdpg.dx.database.elastic.model.ElasticsearchResponse;
+import org.cdpg.dx.database.elastic.model.ElasticsearchSearchResult;
+import org.cdpg.dx.database.elastic.model.QueryDecoderRequestDTO;
+import org.cdpg.dx.tgdex.search.util.ResponseModel;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The cache is shared by all instances in the JVM, so every test searches for its own id and
+ * waits for the delayed invalidation of its writes to pass before it ends.
+ */
+class CachingSearchServiceTest {
+  private static final long TTL_SECONDS = 1;
+  private static final long REFRESH_DELAY_MS = 300;
+
+  private static Vertx vertx;
+  private static FakeSearch delegate;
+  private static CachingSearchService service;
+
+  @BeforeAll
+  static void start() {
+    vertx = Vertx.vertx();
+    delegate = new FakeSearch();
+    service = new CachingSearchService(vertx, delegate, TTL_SECONDS, 100, REFRESH_DELAY_MS);
+  }
+
+  @AfterAll
+  static void stop() throws Exception {
+    await(vertx.close());
+  }
+
+  @BeforeEach
+  void reset() {
+    delegate.calls.set(0);
+    delegate.next = () -> Future.succeededFuture(result("hit"));
+  }
+
+  @Test
+  void cachesAnonymousSearches() throws Exception {
+    await(service.postSearch(request("anonymous", null)));
+    await(service.postSearch(request("anonymous", null)));
+    assertEquals(1, delegate.calls.get());
+  }
+
+  @Test
+  void searchesWithATokenAreNotCached() throws Exception {
+    await(service.postSearch(request("token", "user-1")));
+    await(service.postSearch(request("token", "user-1")));
+    assertEquals(2, delegate.calls.get());
+  }
+
+  @Test
+  void cursorSearchesAreNotCached() throws Exception {
+    QueryDecoderRequestDTO request = request("cursor", null);
+    request.setCursor(SearchCursor.START);
+    await(service.postSearch(request));
+    await(service.postSearch(request));
+    assertEquals(2, delegate.calls.get());
+  }
+
+  @Test
+  void hitsAreCopies() throws Exception {
+    ResponseModel first = await(service.postSearch(request("copies", null)));
+    first.getElasticsearchResponses().get(0).put("name", "changed");
+    first.getResponse().put("extra", true);
+
+    ResponseModel second = await(service.postSearch(request("copies", null)));
+    assertEquals(1, delegate.calls.get());
+    assertEquals("hit", second.getElasticsearchResponses().get(0).getString("name"));
+    assertEquals(null, second.getResponse().getValue("extra"));
+  }
+
+  @Test
+  void entriesExpire() throws Exception {
+    await(service.postSearch(request("ttl", null)));
+    Thread.sleep(TimeUnit.SECONDS.toMillis(TTL_SECONDS) + 100);
+    await(service.postSearch(request("ttl", null)));
+    assertEquals(2, delegate.calls.get());
+  }
+
+  @Test
+  void writeClearsTheCache() throws Exception {
+    await(service.postSearch(request("write", null)));
+    write();
+    await(service.postSearch(request("write", null)));
+    assertEquals(2, delegate.calls.get());
+    Thread.sleep(REFRESH_DELAY_MS + 100);
+  }
+
+  @Test
+  void searchRunningDuringAWriteIsNotCached() throws Exception {
+    Promise<ResponseModel> running = Promise.promise();
+    delegate.next = running::future;
+    Future<ResponseModel> search = service.postSearch(request("during", null));
+    write();
+    running.complete(result("before the write"));
+    await(search);
+
+    delegate.next = () -> Future.succeededFuture(result("after the write"));
+    ResponseModel next = await(service.postSearch(request("during", null)));
+    assertEquals("after the write", next.getElasticsearchResponses().get(0).getString("name"));
+    assertEquals(2, delegate.calls.get());
+    Thread.sleep(REFRESH_DELAY_MS + 100);
+  }
+
+  @Test
+  void clearsAgainOnceTheWriteIsSearchable() throws Exception {
+    write();
+    // read before Elasticsearch refreshed the index, so it still misses the write
+    await(service.postSearch(request("refresh", null)));
+    await(service.postSearch(request("refresh", null)));
+    assertEquals(1, delegate.calls.get());
+
+    Thread.sleep(REFRESH_DELAY_MS + 100);
+    await(service.postSearch(request("refresh", null)));
+    assertEquals(2, delegate.calls.get());
+  }
+
+  /* Publishes a write event and gives the consumer time to see it. */
+  private static void write() throws InterruptedException {
+    vertx.eventBus().publish(ITEM_WRITE_EVENTS_ADDRESS, new JsonObject().put("id", "item"));
+    Thread.sleep(50);
+  }
+
+  private static QueryDecoderRequestDTO request(String id, String sub) {
+    return new QueryDecoderRequestDTO("searchCriteria", 10, 1, id, null, null, null,
+        new AccessPolicyRequestDTO(sub, false), null, null, null);
+  }
+
+  private static ResponseModel result(String name) {
+    ElasticsearchSearchResult result = new ElasticsearchSearchResult();
+    result.setHits(List.of(new ElasticsearchResponse("doc", new JsonObject().put("name", name))));
+    result.setTotalHits(1);
+    return new ResponseModel(result, 10, 1);
+  }
+
+  private static <T> T await(Future<T> future) throws Exception {
+    return future.toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+  }
+
+  private static final class FakeSearch implements SearchService {
+    private final AtomicInteger calls = new AtomicInteger();
+    private volatile Supplier<Future<ResponseModel>> next;
+
+    @Override
+    public Future<ResponseModel> postSearch(QueryDecoderRequestDTO queryDecoder) {
+      calls.incrementAndGet();
+      return next.get();
+    }
+
+    @Override
+    public Future<ResponseModel> postCount(QueryDecoderRequestDTO queryDecoder) {
+      return postSearch(queryDecoder);
+    }
+  }
+}